@@ -0,0 +1,220 @@
+package dk.mosberg.entomology.benchmark;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import dk.mosberg.entomology.EntomologyMod;
+import dk.mosberg.entomology.api.mechanics.IAdvancedMechanic;
+import dk.mosberg.entomology.api.mechanics.IMechanicContext;
+import dk.mosberg.entomology.api.mechanics.IMechanicResult;
+import dk.mosberg.entomology.mechanics.MechanicContext;
+import dk.mosberg.entomology.mechanics.PooledMechanicContext;
+import dk.mosberg.entomology.mechanics.impl.AdvancedBreedingMechanic;
+import dk.mosberg.entomology.mechanics.impl.AdvancedEnvironmentalMechanic;
+import dk.mosberg.entomology.registry.advanced.ComponentRegistry;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.biome.Biome;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Benchmarks for the mechanics hot paths.
+ * World, biome and registry entry are Mockito stubs so the harness runs
+ * headless without a Minecraft server.
+ *
+ * Run with {@code ./gradlew jmh}; results are written to
+ * build/reports/jmh/results.json.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MechanicsBenchmark {
+  private static final long GAME_TIME = 1_000_000L;
+
+  private World world;
+  private BlockPos position;
+  private AdvancedBreedingMechanic breeding;
+  private AdvancedEnvironmentalMechanic environmental;
+  private IMechanicContext breedingContext;
+  private IMechanicContext environmentalContext;
+  private ComponentRegistry registry;
+
+  @Setup(Level.Trial)
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    position = new BlockPos(16, 64, 16);
+
+    Biome biome = mock(Biome.class);
+    when(biome.getTemperature()).thenReturn(0.8f);
+    RegistryEntry<Biome> biomeEntry = mock(RegistryEntry.class);
+    when(biomeEntry.value()).thenReturn(biome);
+    RegistryKey<Biome> plains = RegistryKey.of(RegistryKeys.BIOME, Identifier.ofVanilla("plains"));
+    when(biomeEntry.matches(any(Predicate.class)))
+        .thenAnswer(invocation -> invocation.<Predicate<RegistryKey<Biome>>>getArgument(0).test(plains));
+
+    world = mock(World.class);
+    when(world.getTime()).thenReturn(GAME_TIME);
+    when(world.getTimeOfDay()).thenReturn(6000L);
+    when(world.getBiome(any(BlockPos.class))).thenReturn(biomeEntry);
+    when(world.getLightLevel(any(BlockPos.class))).thenReturn(12);
+
+    breeding = new AdvancedBreedingMechanic();
+    breeding.onInitialize();
+    breeding.onEnable();
+    breeding.configure(breedingConfig());
+
+    environmental = new AdvancedEnvironmentalMechanic();
+    environmental.onInitialize();
+    environmental.onEnable();
+    environmental.configure(environmentalConfig());
+
+    breedingContext = MechanicContext.builder()
+        .world(world)
+        .position(position)
+        .type(IMechanicContext.ContextType.BREEDING)
+        .data("parent1", "butterfly")
+        .data("parent2", "monarch_butterfly")
+        .data("lastBreedingTime", 0L)
+        .build();
+
+    environmentalContext = MechanicContext.builder()
+        .world(world)
+        .position(position)
+        .specimenId(EntomologyMod.id("butterfly"))
+        .type(IMechanicContext.ContextType.ENVIRONMENTAL)
+        .build();
+
+    registry = ComponentRegistry.getInstance();
+    registry.clear();
+    registry.register(EntomologyMod.id("advanced_breeding"), IAdvancedMechanic.class,
+        AdvancedBreedingMechanic::new);
+    registry.register(EntomologyMod.id("advanced_environmental"), IAdvancedMechanic.class,
+        AdvancedEnvironmentalMechanic::new);
+    registry.initializeAll();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    registry.clear();
+  }
+
+  @Benchmark
+  public IMechanicResult breedingExecute() {
+    return breeding.execute(breedingContext);
+  }
+
+  @Benchmark
+  public IMechanicResult environmentalExecute() {
+    return environmental.execute(environmentalContext);
+  }
+
+  @Benchmark
+  public IMechanicContext contextBuild() {
+    return MechanicContext.builder()
+        .world(world)
+        .position(position)
+        .type(IMechanicContext.ContextType.BREEDING)
+        .data("parent1", "butterfly")
+        .data("parent2", "monarch_butterfly")
+        .build();
+  }
+
+  @Benchmark
+  public IMechanicResult pooledBreedingExecute() {
+    try (PooledMechanicContext context = PooledMechanicContext.acquire(world,
+        IMechanicContext.ContextType.BREEDING)) {
+      context.position(position)
+          .set(PooledMechanicContext.Slot.PARENT1, "butterfly")
+          .set(PooledMechanicContext.Slot.PARENT2, "monarch_butterfly")
+          .setLong(PooledMechanicContext.Slot.LAST_BREEDING_TIME, 0L);
+      return breeding.execute(context);
+    }
+  }
+
+  @Benchmark
+  public List<IAdvancedMechanic> registryGetAllMechanics() {
+    return registry.getAllMechanics();
+  }
+
+  private static JsonObject breedingConfig() {
+    JsonObject config = new JsonObject();
+    config.addProperty("enabled", true);
+    config.addProperty("globalMutationRate", 0.05);
+    config.addProperty("breedingCooldown", 6000);
+
+    JsonArray pairs = new JsonArray();
+    String[] species = { "bee", "beetle", "butterfly", "cicada", "damselfly", "firefly", "fly",
+        "monarch_butterfly", "mosquito" };
+    for (int i = 0; i < species.length; i++) {
+      for (int j = i; j < species.length; j++) {
+        JsonObject pair = new JsonObject();
+        pair.addProperty("parent1", species[i]);
+        pair.addProperty("parent2", species[j]);
+        pair.addProperty("successChance", 0.5);
+        pair.addProperty("mutationChance", 0.1);
+        JsonArray offspring = new JsonArray();
+        offspring.add(species[i]);
+        offspring.add(species[j]);
+        pair.add("offspring", offspring);
+        JsonArray mutations = new JsonArray();
+        mutations.add("monarch_butterfly");
+        pair.add("mutations", mutations);
+        pairs.add(pair);
+      }
+    }
+    config.add("breedingPairs", pairs);
+    return config;
+  }
+
+  private static JsonObject environmentalConfig() {
+    JsonObject config = new JsonObject();
+    config.addProperty("enabled", true);
+    config.addProperty("checkInterval", 100);
+    config.addProperty("strictMode", false);
+
+    JsonObject butterfly = new JsonObject();
+    JsonArray biomes = new JsonArray();
+    biomes.add("minecraft:plains");
+    biomes.add("minecraft:flower_forest");
+    butterfly.add("preferred_biomes", biomes);
+    JsonObject temperature = new JsonObject();
+    temperature.addProperty("min", 0.5);
+    temperature.addProperty("max", 1.0);
+    butterfly.add("temperature_range", temperature);
+    JsonObject light = new JsonObject();
+    light.addProperty("min", 8);
+    light.addProperty("max", 15);
+    butterfly.add("light_range", light);
+    butterfly.addProperty("time_preference", "day");
+
+    JsonObject specimens = new JsonObject();
+    specimens.add(EntomologyMod.id("butterfly").toString(), butterfly);
+    config.add("specimens", specimens);
+    return config;
+  }
+}
@@ -5,11 +5,15 @@ import dk.mosberg.entomology.command.AdvancedCommands;
 import dk.mosberg.entomology.command.EntomologyCommands;
 import dk.mosberg.entomology.config.ConfigManager;
 import dk.mosberg.entomology.integration.SystemIntegration;
+import dk.mosberg.entomology.profiler.TickProfiler;
 import dk.mosberg.entomology.item.BugNetItem;
 import dk.mosberg.entomology.item.FieldGuideItem;
 import dk.mosberg.entomology.item.SpecimenJarItem;
+import dk.mosberg.entomology.mechanics.environment.EnvironmentalSampleCache;
+import dk.mosberg.entomology.mechanics.environment.EnvironmentalScheduler;
 import dk.mosberg.entomology.block.ResearchStationBlock;
 import dk.mosberg.entomology.block.SpecimenJarBlock;
+import dk.mosberg.entomology.block.entity.SpecimenJarBlockEntity;
 import dk.mosberg.entomology.data.BugNetReloader;
 import dk.mosberg.entomology.data.DataDrivenRegistry;
 import dk.mosberg.entomology.entity.BeetleEntity;
@@ -28,6 +32,9 @@ import net.minecraft.entity.EntityType;
 import net.minecraft.entity.SpawnGroup;
 import net.fabricmc.api.ModInitializer;
 import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerBlockEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.fabricmc.fabric.api.itemgroup.v1.FabricItemGroup;
 import net.fabricmc.fabric.api.itemgroup.v1.ItemGroupEvents;
 import net.fabricmc.fabric.api.object.builder.v1.block.entity.FabricBlockEntityTypeBuilder;
@@ -132,6 +139,40 @@ public class EntomologyMod implements ModInitializer {
       LOGGER.error("Failed to initialize advanced systems", e);
     }
 
+    // Invalidate cached environmental samples on block breaks and unloads
+    EnvironmentalSampleCache.getInstance().registerEvents();
+
+    // Stagger environmental checks for loaded specimen jars
+    ServerBlockEntityEvents.BLOCK_ENTITY_LOAD.register((blockEntity, world) -> {
+      if (blockEntity instanceof SpecimenJarBlockEntity jar) {
+        jar.scheduleEnvironmentChecks(world);
+      }
+    });
+    ServerBlockEntityEvents.BLOCK_ENTITY_UNLOAD.register((blockEntity, world) ->
+        EnvironmentalScheduler.getInstance().unregister(blockEntity));
+
+    // Drain batched mechanic executions once per tick; the profiler brackets
+    // the whole server tick to compare against it
+    ServerTickEvents.START_SERVER_TICK.register(server -> TickProfiler.getInstance().tickStart());
+    ServerTickEvents.END_SERVER_TICK.register(server -> {
+      SystemIntegration.getInstance().tick();
+      TickProfiler.getInstance().tickEnd();
+    });
+
+    // Hot-reload config files while the server runs; publish on the server thread
+    ServerLifecycleEvents.SERVER_STARTED.register(server -> {
+      SystemIntegration.getInstance().startConfigWatcher(server);
+      SystemIntegration.getInstance().startExporters();
+    });
+    ServerLifecycleEvents.SERVER_STOPPING.register(server -> {
+      TickProfiler.getInstance().stop();
+      SystemIntegration.getInstance().stopConfigWatcher();
+      SystemIntegration.getInstance().stopExporters();
+      // Persist config changes that are still being written behind
+      SystemIntegration.getInstance().getConfigManager().flush();
+      ConfigManager.getInstance().flush();
+    });
+
     // Register lifecycle hooks
     Runtime.getRuntime().addShutdownHook(new Thread(() -> {
       shutdown();
@@ -415,6 +456,7 @@ public class EntomologyMod implements ModInitializer {
     LOGGER.info("Shutting down Entomology...");
     try {
       SystemIntegration.getInstance().shutdown();
+      ConfigManager.getInstance().flush();
     } catch (Exception e) {
       LOGGER.error("Error during shutdown", e);
     }
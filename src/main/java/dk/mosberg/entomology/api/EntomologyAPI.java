@@ -28,6 +28,9 @@ public final class EntomologyAPI implements IEntomologyAPI {
   private final Map<String, ISchemaValidator> validators = new ConcurrentHashMap<>();
   private final List<Runnable> reloadListeners = Collections.synchronizedList(new ArrayList<>());
 
+  // Priority-sorted view of mechanics, rebuilt after registration changes
+  private volatile List<IMechanic> sortedMechanics = List.of();
+
   private EntomologyAPI() {
   }
 
@@ -47,23 +50,34 @@ public final class EntomologyAPI implements IEntomologyAPI {
     }
 
     Identifier id = mechanic.getId();
-    if (mechanics.containsKey(id)) {
-      throw new IllegalArgumentException("Mechanic already registered: " + id);
+    synchronized (mechanics) {
+      if (mechanics.putIfAbsent(id, mechanic) != null) {
+        throw new IllegalArgumentException("Mechanic already registered: " + id);
+      }
+      sortMechanics();
     }
-
-    mechanics.put(id, mechanic);
   }
 
   @Override
   public boolean unregisterMechanic(Identifier id) {
-    return mechanics.remove(id) != null;
+    synchronized (mechanics) {
+      if (mechanics.remove(id) == null) {
+        return false;
+      }
+      sortMechanics();
+      return true;
+    }
   }
 
   @Override
   public Collection<IMechanic> getMechanics() {
+    return sortedMechanics;
+  }
+
+  private void sortMechanics() {
     List<IMechanic> sorted = new ArrayList<>(mechanics.values());
     sorted.sort(Comparator.comparingInt(IMechanic::getPriority).reversed());
-    return Collections.unmodifiableList(sorted);
+    sortedMechanics = List.copyOf(sorted);
   }
 
   @Override
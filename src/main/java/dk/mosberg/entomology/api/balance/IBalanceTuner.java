@@ -97,13 +97,24 @@ public interface IBalanceTuner {
    */
   interface ITelemetryData {
     /**
-     * Gets a metric value.
+     * Gets a metric value: the mean over the recent window, or the lifetime
+     * mean if the metric has no recent samples.
      *
      * @param key metric key
      * @return metric value
      */
     double getMetric(String key);
 
+    /**
+     * Gets statistics of a metric over the recent window.
+     *
+     * @param key metric key
+     * @return window statistics, empty if there are no recent samples
+     */
+    default IMetricWindow getWindow(String key) {
+      return IMetricWindow.EMPTY;
+    }
+
     /**
      * Gets all metrics.
      *
@@ -112,7 +123,7 @@ public interface IBalanceTuner {
     Map<String, Double> getAllMetrics();
 
     /**
-     * Gets the time period covered (in ticks).
+     * Gets the time period covered by the window (in ticks).
      *
      * @return time period
      */
@@ -125,4 +136,74 @@ public interface IBalanceTuner {
      */
     int getSampleSize();
   }
+
+  /**
+   * Statistics of one metric over a rolling time window.
+   */
+  interface IMetricWindow {
+    IMetricWindow EMPTY = new IMetricWindow() {
+      @Override
+      public long getCount() {
+        return 0;
+      }
+
+      @Override
+      public double getMean() {
+        return 0.0;
+      }
+
+      @Override
+      public double getMin() {
+        return 0.0;
+      }
+
+      @Override
+      public double getMax() {
+        return 0.0;
+      }
+
+      @Override
+      public double getEwma() {
+        return 0.0;
+      }
+
+      @Override
+      public double getValueAtPercentile(double percentile) {
+        return 0.0;
+      }
+    };
+
+    long getCount();
+
+    double getMean();
+
+    double getMin();
+
+    double getMax();
+
+    /**
+     * Gets the exponentially weighted moving average, favouring recent values.
+     */
+    double getEwma();
+
+    /**
+     * Gets the (approximate) value at a percentile.
+     *
+     * @param percentile percentile between 0.0 and 100.0
+     * @return metric value
+     */
+    double getValueAtPercentile(double percentile);
+
+    default double getP50() {
+      return getValueAtPercentile(50.0);
+    }
+
+    default double getP90() {
+      return getValueAtPercentile(90.0);
+    }
+
+    default double getP99() {
+      return getValueAtPercentile(99.0);
+    }
+  }
 }
@@ -6,7 +6,10 @@ import dk.mosberg.entomology.api.core.IVersioned;
 import net.minecraft.util.Identifier;
 
 import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Advanced mechanic interface with lifecycle and version support.
@@ -43,6 +46,17 @@ public interface IAdvancedMechanic extends ILifecycleAware, IVersioned {
    */
   boolean appliesTo(IMechanicContext context);
 
+  /**
+   * Gets the context types this mechanic can apply to. Registries index
+   * mechanics by these types, so {@link #appliesTo(IMechanicContext)} is
+   * only consulted for contexts of a listed type.
+   *
+   * @return context types, all types by default
+   */
+  default Set<IMechanicContext.ContextType> getContextTypes() {
+    return EnumSet.allOf(IMechanicContext.ContextType.class);
+  }
+
   /**
    * Executes the mechanic logic.
    *
@@ -51,6 +65,25 @@ public interface IAdvancedMechanic extends ILifecycleAware, IVersioned {
    */
   IMechanicResult execute(IMechanicContext context);
 
+  /**
+   * Executes the mechanic for a batch of contexts.
+   * {@code results[i]} receives the result for {@code contexts.get(i)}.
+   * The default implementation calls {@link #execute(IMechanicContext)} for
+   * each context; implementations may override it to amortize per-call work.
+   *
+   * @param contexts execution contexts
+   * @param results  result buffer, at least {@code contexts.size()} long
+   */
+  default void executeBatch(List<? extends IMechanicContext> contexts, IMechanicResult[] results) {
+    if (results.length < contexts.size()) {
+      throw new IllegalArgumentException("Result buffer too small: " + results.length
+          + " < " + contexts.size());
+    }
+    for (int i = 0; i < contexts.size(); i++) {
+      results[i] = execute(contexts.get(i));
+    }
+  }
+
   /**
    * Configures the mechanic from JSON data.
    *
@@ -157,16 +190,89 @@ public interface IAdvancedMechanic extends ILifecycleAware, IVersioned {
 
   /**
    * Performance metrics interface.
+   * The millisecond getters are kept for compatibility; use the nanosecond
+   * snapshots for anything finer than a whole millisecond.
    */
   interface IPerformanceMetrics {
     long getTotalExecutions();
 
+    /**
+     * Gets the average execution time in milliseconds.
+     */
     long getAverageExecutionTime();
 
+    /**
+     * Gets the maximum execution time in milliseconds.
+     */
     long getMaxExecutionTime();
 
+    /**
+     * Gets the last execution time in milliseconds.
+     */
     long getLastExecutionTime();
 
+    /**
+     * Gets the last execution time in nanoseconds.
+     */
+    long getLastExecutionTimeNanos();
+
+    /**
+     * Gets latency statistics over all executions since the last reset.
+     *
+     * @return lifetime latency snapshot
+     */
+    ILatencySnapshot getLifetimeLatency();
+
+    /**
+     * Gets latency statistics over the last {@link #getWindowSeconds()}
+     * seconds.
+     *
+     * @return windowed latency snapshot
+     */
+    ILatencySnapshot getWindowedLatency();
+
+    /**
+     * Gets the length of the rolling window in seconds.
+     */
+    int getWindowSeconds();
+
     void reset();
   }
+
+  /**
+   * Immutable latency statistics in nanoseconds.
+   */
+  interface ILatencySnapshot {
+    long getCount();
+
+    long getMinNanos();
+
+    long getMaxNanos();
+
+    double getMeanNanos();
+
+    /**
+     * Gets the value at a percentile.
+     *
+     * @param percentile percentile between 0.0 and 100.0
+     * @return latency in nanoseconds
+     */
+    long getValueAtPercentile(double percentile);
+
+    default long getP50Nanos() {
+      return getValueAtPercentile(50.0);
+    }
+
+    default long getP90Nanos() {
+      return getValueAtPercentile(90.0);
+    }
+
+    default long getP99Nanos() {
+      return getValueAtPercentile(99.0);
+    }
+
+    default long getP999Nanos() {
+      return getValueAtPercentile(99.9);
+    }
+  }
 }
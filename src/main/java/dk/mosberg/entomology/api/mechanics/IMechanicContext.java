@@ -57,6 +57,56 @@ public interface IMechanicContext {
    */
   Optional<Object> getData(String key);
 
+  /**
+   * Gets custom context data without wrapping it in an Optional.
+   *
+   * @param key data key
+   * @return value, or null if absent
+   */
+  default Object getDataOrNull(String key) {
+    return getData(key).orElse(null);
+  }
+
+  /**
+   * Gets numeric context data as a long.
+   *
+   * @param key          data key
+   * @param defaultValue value returned when absent or not numeric
+   * @return value
+   */
+  default long getLong(String key, long defaultValue) {
+    return getDataOrNull(key) instanceof Number number ? number.longValue() : defaultValue;
+  }
+
+  /**
+   * Gets numeric context data as a double.
+   *
+   * @param key          data key
+   * @param defaultValue value returned when absent or not numeric
+   * @return value
+   */
+  default double getDouble(String key, double defaultValue) {
+    return getDataOrNull(key) instanceof Number number ? number.doubleValue() : defaultValue;
+  }
+
+  /**
+   * Gets the position without wrapping it in an Optional.
+   *
+   * @return position, or null if not applicable
+   */
+  default BlockPos getPositionOrNull() {
+    return getPosition().orElse(null);
+  }
+
+  /**
+   * Gets the specimen ID without wrapping it in an Optional.
+   *
+   * @return specimen identifier, or null if not applicable
+   */
+  default Identifier getSpecimenIdOrNull() {
+    return getSpecimenId().orElse(null);
+  }
+
   /**
    * Gets all custom context data.
    *
@@ -0,0 +1,23 @@
+package dk.mosberg.entomology.balance;
+
+import dk.mosberg.entomology.EntomologyMod;
+import net.minecraft.util.Identifier;
+
+/**
+ * Parameters adjusted by balance tuners, and the metrics they observe.
+ * Tuners in mechanics.json refer to these by id and metric name.
+ */
+public final class BalanceParameters {
+  /** Multiplier on bug net catch chances. */
+  public static final Identifier CAPTURE_CHANCE = EntomologyMod.id("capture_chance");
+  /** Multiplier on the global breeding mutation rate. */
+  public static final Identifier MUTATION_RATE = EntomologyMod.id("mutation_rate");
+
+  /** 1 per successful capture attempt, 0 per failed one. */
+  public static final String CAPTURE_SUCCESS_METRIC = "capture.success";
+  /** 1 per successful breeding that mutated, 0 otherwise. */
+  public static final String MUTATION_METRIC = "breeding.mutation";
+
+  private BalanceParameters() {
+  }
+}
@@ -0,0 +1,140 @@
+package dk.mosberg.entomology.balance;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Interned handle to one telemetry metric.
+ *
+ * Obtain handles once through {@link TelemetrySystem#metric(String)} and keep
+ * them in a field; recording through a handle skips the name lookup.
+ * Handles stay valid across {@link TelemetrySystem#reset()}.
+ *
+ * Besides lifetime totals every handle keeps a {@link MetricWindow} of recent
+ * values for windowed statistics.
+ *
+ * Thread Safety: recording is lock-free. Sum and count are striped
+ * {@link LongAdder}/{@link DoubleAdder} cells, so concurrent recorders don't
+ * contend; min and max only CAS when a value extends the range. Reads merge
+ * the cells and are not an atomic snapshot of concurrent recordings.
+ */
+public final class MetricHandle {
+  private final String name;
+  private final TelemetrySystem owner;
+  private volatile Cells cells = new Cells();
+  private volatile MetricWindow window;
+
+  MetricHandle(String name, TelemetrySystem owner) {
+    this.name = name;
+    this.owner = owner;
+    this.window = owner.newWindow();
+  }
+
+  /**
+   * Records a value, unless telemetry is disabled.
+   */
+  public void record(double value) {
+    if (owner.isEnabled()) {
+      cells.add(value);
+      window.record(value);
+    }
+  }
+
+  /**
+   * Records a value of one, for counters.
+   */
+  public void increment() {
+    record(1.0);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public long getCount() {
+    return cells.count.sum();
+  }
+
+  public double getSum() {
+    return cells.sum.sum();
+  }
+
+  /**
+   * Gets the mean of all recorded values, or 0 if there are none.
+   */
+  public double getAverage() {
+    Cells current = cells;
+    long count = current.count.sum();
+    return count > 0 ? current.sum.sum() / count : 0.0;
+  }
+
+  /**
+   * Gets the smallest recorded value, or 0 if there are none.
+   */
+  public double getMin() {
+    double min = Double.longBitsToDouble(cells.min.get());
+    return min == Double.POSITIVE_INFINITY ? 0.0 : min;
+  }
+
+  /**
+   * Gets the largest recorded value, or 0 if there are none.
+   */
+  public double getMax() {
+    double max = Double.longBitsToDouble(cells.max.get());
+    return max == Double.NEGATIVE_INFINITY ? 0.0 : max;
+  }
+
+  /**
+   * Gets statistics over the recent window.
+   */
+  public MetricWindow.Stats getWindowStats() {
+    return window.snapshot();
+  }
+
+  MetricWindow.Stats getWindowStats(long nanoTime) {
+    return window.snapshot(nanoTime);
+  }
+
+  /**
+   * Discards all recorded values. Recordings racing with the reset land in
+   * either the old or the new cells.
+   */
+  void reset() {
+    cells = new Cells();
+    resetWindow();
+  }
+
+  void resetWindow() {
+    window = owner.newWindow();
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+
+  private static final class Cells {
+    final DoubleAdder sum = new DoubleAdder();
+    final LongAdder count = new LongAdder();
+    // Doubles stored as raw bits so they can be CASed
+    final AtomicLong min = new AtomicLong(Double.doubleToRawLongBits(Double.POSITIVE_INFINITY));
+    final AtomicLong max = new AtomicLong(Double.doubleToRawLongBits(Double.NEGATIVE_INFINITY));
+
+    void add(double value) {
+      sum.add(value);
+      count.increment();
+
+      long currentMax = max.get();
+      while (value > Double.longBitsToDouble(currentMax)
+          && !max.compareAndSet(currentMax, Double.doubleToRawLongBits(value))) {
+        currentMax = max.get();
+      }
+      long currentMin = min.get();
+      while (value < Double.longBitsToDouble(currentMin)
+          && !min.compareAndSet(currentMin, Double.doubleToRawLongBits(value))) {
+        currentMin = min.get();
+      }
+    }
+  }
+}
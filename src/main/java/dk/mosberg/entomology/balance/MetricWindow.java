@@ -0,0 +1,306 @@
+package dk.mosberg.entomology.balance;
+
+import dk.mosberg.entomology.api.balance.IBalanceTuner.IMetricWindow;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * Fixed-memory rolling time series of one metric.
+ *
+ * The window is a ring of {@code slotCount} slots, each covering
+ * {@code slotSeconds} of wall time. A slot keeps the count, sum, min and max
+ * of its values plus a uniform reservoir sample of up to
+ * {@value #RESERVOIR_SIZE} values for percentiles. Slots older than the
+ * window are recycled, so memory stays constant however long the server runs.
+ *
+ * The EWMA is computed on read from the per-slot means, with a time constant
+ * of a quarter of the window, so it follows recent behaviour while smoothing
+ * out single noisy slots.
+ *
+ * Thread Safety: recording is lock-free; slots are recycled with a CAS on
+ * the slot epoch, so a recording that races with the recycling of its slot
+ * may be lost (the same trade-off as the latency histograms).
+ */
+public final class MetricWindow {
+  static final int RESERVOIR_SIZE = 32;
+
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+  private static final long EMPTY_SAMPLE = Double.doubleToRawLongBits(Double.NaN);
+
+  private final Slot[] slots;
+  private final AtomicLongArray epochs;
+  private final int slotCount;
+  private final long slotNanos;
+
+  /**
+   * @param slotCount   number of slots in the window
+   * @param slotSeconds seconds covered by each slot
+   */
+  public MetricWindow(int slotCount, int slotSeconds) {
+    if (slotCount < 1 || slotSeconds < 1) {
+      throw new IllegalArgumentException("Window needs at least one slot of one second");
+    }
+    this.slotCount = slotCount;
+    this.slotNanos = slotSeconds * NANOS_PER_SECOND;
+    this.slots = new Slot[slotCount];
+    this.epochs = new AtomicLongArray(slotCount);
+    for (int i = 0; i < slotCount; i++) {
+      slots[i] = new Slot();
+      epochs.set(i, Long.MIN_VALUE);
+    }
+  }
+
+  /**
+   * Records a value at the current time.
+   */
+  public void record(double value) {
+    record(value, System.nanoTime());
+  }
+
+  /**
+   * Records a value at a given {@link System#nanoTime()} instant.
+   */
+  public void record(double value, long nanoTime) {
+    long epoch = nanoTime / slotNanos;
+    int index = (int) Math.floorMod(epoch, (long) slotCount);
+    long current = epochs.get(index);
+    if (current != epoch) {
+      if (current > epoch) {
+        // Late recording for a slot that has moved on
+        return;
+      }
+      if (epochs.compareAndSet(index, current, epoch)) {
+        slots[index].clear();
+      }
+    }
+    slots[index].add(value);
+  }
+
+  /**
+   * Gets statistics for the window ending now.
+   */
+  public Stats snapshot() {
+    return snapshot(System.nanoTime());
+  }
+
+  /**
+   * Gets statistics for the window ending at a {@link System#nanoTime()} instant.
+   */
+  public Stats snapshot(long nanoTime) {
+    long newest = nanoTime / slotNanos;
+    long oldest = newest - slotCount + 1;
+    double ewmaNanos = Math.max(1.0, slotCount * (double) slotNanos / 4.0);
+
+    long count = 0;
+    double sum = 0.0;
+    double min = Double.POSITIVE_INFINITY;
+    double max = Double.NEGATIVE_INFINITY;
+    double ewma = Double.NaN;
+    long lastEpoch = 0;
+
+    double[] values = new double[slotCount * RESERVOIR_SIZE];
+    double[] weights = new double[values.length];
+    int sampled = 0;
+
+    // Oldest first so the EWMA sees slots in time order
+    for (long epoch = oldest; epoch <= newest; epoch++) {
+      int index = (int) Math.floorMod(epoch, (long) slotCount);
+      if (epochs.get(index) != epoch) {
+        continue;
+      }
+      Slot slot = slots[index];
+      long slotSamples = slot.count.get();
+      if (slotSamples == 0) {
+        continue;
+      }
+
+      double slotSum = slot.sum.sum();
+      count += slotSamples;
+      sum += slotSum;
+      min = Math.min(min, Double.longBitsToDouble(slot.min.get()));
+      max = Math.max(max, Double.longBitsToDouble(slot.max.get()));
+
+      double slotMean = slotSum / slotSamples;
+      if (Double.isNaN(ewma)) {
+        ewma = slotMean;
+      } else {
+        double alpha = 1.0 - Math.exp(-(epoch - lastEpoch) * slotNanos / ewmaNanos);
+        ewma += alpha * (slotMean - ewma);
+      }
+      lastEpoch = epoch;
+
+      // Each retained sample stands for an equal share of the slot's values
+      int start = sampled;
+      for (int i = 0; i < RESERVOIR_SIZE; i++) {
+        long bits = slot.reservoir.get(i);
+        if (bits != EMPTY_SAMPLE) {
+          values[sampled++] = Double.longBitsToDouble(bits);
+        }
+      }
+      double weight = sampled > start ? (double) slotSamples / (sampled - start) : 0.0;
+      Arrays.fill(weights, start, sampled, weight);
+    }
+
+    if (count == 0) {
+      return Stats.EMPTY;
+    }
+    return new Stats(count, sum / count, min, max, ewma,
+        Arrays.copyOf(values, sampled), Arrays.copyOf(weights, sampled));
+  }
+
+  /**
+   * Gets the window length in seconds.
+   */
+  public int getWindowSeconds() {
+    return (int) (slotCount * slotNanos / NANOS_PER_SECOND);
+  }
+
+  private static final class Slot {
+    final AtomicLong count = new AtomicLong();
+    final DoubleAdder sum = new DoubleAdder();
+    final AtomicLong min = new AtomicLong(Double.doubleToRawLongBits(Double.POSITIVE_INFINITY));
+    final AtomicLong max = new AtomicLong(Double.doubleToRawLongBits(Double.NEGATIVE_INFINITY));
+    final AtomicLongArray reservoir = new AtomicLongArray(RESERVOIR_SIZE);
+
+    Slot() {
+      for (int i = 0; i < RESERVOIR_SIZE; i++) {
+        reservoir.set(i, EMPTY_SAMPLE);
+      }
+    }
+
+    void add(double value) {
+      long bits = Double.doubleToRawLongBits(value);
+      long seen = count.getAndIncrement();
+      sum.add(value);
+
+      // Reservoir sampling (Algorithm R): keep each value with equal probability
+      if (seen < RESERVOIR_SIZE) {
+        reservoir.set((int) seen, bits);
+      } else {
+        long replace = ThreadLocalRandom.current().nextLong(seen + 1);
+        if (replace < RESERVOIR_SIZE) {
+          reservoir.set((int) replace, bits);
+        }
+      }
+
+      long currentMax = max.get();
+      while (value > Double.longBitsToDouble(currentMax) && !max.compareAndSet(currentMax, bits)) {
+        currentMax = max.get();
+      }
+      long currentMin = min.get();
+      while (value < Double.longBitsToDouble(currentMin) && !min.compareAndSet(currentMin, bits)) {
+        currentMin = min.get();
+      }
+    }
+
+    void clear() {
+      count.set(0);
+      sum.reset();
+      min.set(Double.doubleToRawLongBits(Double.POSITIVE_INFINITY));
+      max.set(Double.doubleToRawLongBits(Double.NEGATIVE_INFINITY));
+      for (int i = 0; i < RESERVOIR_SIZE; i++) {
+        reservoir.set(i, EMPTY_SAMPLE);
+      }
+    }
+  }
+
+  /**
+   * Immutable statistics of one window.
+   */
+  public static final class Stats implements IMetricWindow {
+    static final Stats EMPTY = new Stats(0, 0.0, 0.0, 0.0, 0.0, new double[0], new double[0]);
+
+    private final long count;
+    private final double mean;
+    private final double min;
+    private final double max;
+    private final double ewma;
+    private final double[] values;
+    private final double[] weights;
+    private double totalWeight = -1.0;
+
+    private Stats(long count, double mean, double min, double max, double ewma,
+        double[] values, double[] weights) {
+      this.count = count;
+      this.mean = mean;
+      this.min = min;
+      this.max = max;
+      this.ewma = ewma;
+      this.values = values;
+      this.weights = weights;
+    }
+
+    @Override
+    public long getCount() {
+      return count;
+    }
+
+    @Override
+    public double getMean() {
+      return mean;
+    }
+
+    @Override
+    public double getMin() {
+      return min;
+    }
+
+    @Override
+    public double getMax() {
+      return max;
+    }
+
+    @Override
+    public double getEwma() {
+      return ewma;
+    }
+
+    @Override
+    public double getValueAtPercentile(double percentile) {
+      if (values.length == 0) {
+        return 0.0;
+      }
+      sortSamples();
+
+      double target = Math.max(0.0, Math.min(100.0, percentile)) / 100.0 * totalWeight;
+      double seen = 0.0;
+      for (int i = 0; i < values.length; i++) {
+        seen += weights[i];
+        if (seen >= target) {
+          return values[i];
+        }
+      }
+      return values[values.length - 1];
+    }
+
+    /**
+     * Sorts the samples by value on first use, keeping weights aligned.
+     */
+    private synchronized void sortSamples() {
+      if (totalWeight >= 0.0) {
+        return;
+      }
+      Integer[] order = new Integer[values.length];
+      for (int i = 0; i < order.length; i++) {
+        order[i] = i;
+      }
+      Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+
+      double[] sortedValues = new double[values.length];
+      double[] sortedWeights = new double[values.length];
+      double total = 0.0;
+      for (int i = 0; i < order.length; i++) {
+        sortedValues[i] = values[order[i]];
+        sortedWeights[i] = weights[order[i]];
+        total += sortedWeights[i];
+      }
+      System.arraycopy(sortedValues, 0, values, 0, values.length);
+      System.arraycopy(sortedWeights, 0, weights, 0, weights.length);
+      totalWeight = total;
+    }
+  }
+}
@@ -4,6 +4,8 @@ import dk.mosberg.entomology.EntomologyMod;
 import dk.mosberg.entomology.api.balance.IBalanceTuner;
 import net.minecraft.util.Identifier;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -11,25 +13,84 @@ import java.util.concurrent.ConcurrentHashMap;
 /**
  * Telemetry collection and balance tuning system.
  * Tracks gameplay metrics and dynamically adjusts parameters.
+ *
+ * Thread Safety: metrics may be recorded from any thread without locking;
+ * see {@link MetricHandle}. Hot paths should cache handles from
+ * {@link #metric(String)} instead of calling {@link #recordMetric}.
  */
 public class TelemetrySystem {
-  private static TelemetrySystem instance;
+  private static volatile TelemetrySystem instance;
 
-  private final Map<String, MetricCollector> collectors = new ConcurrentHashMap<>();
+  private final Map<String, MetricHandle> collectors = new ConcurrentHashMap<>();
   private final Map<Identifier, IBalanceTuner> tuners = new ConcurrentHashMap<>();
-  private final Map<Identifier, Double> adjustedValues = new ConcurrentHashMap<>();
+  private final Map<Identifier, IBalanceTuner> tunersByParameter = new ConcurrentHashMap<>();
+  private volatile BalanceState balance = new BalanceState(0L);
 
-  private boolean enabled = true;
-  private long collectionInterval = 6000; // 5 minutes in ticks
+  private static final int TICKS_PER_SECOND = 20;
+  private static final int MAX_CACHED_ADJUSTMENTS = 4096;
+
+  private volatile boolean enabled = true;
+  // Rolling window: 60 slots of 5 seconds (5 minutes)
+  private volatile int windowSlots = 60;
+  private volatile int windowSlotSeconds = 5;
 
   private TelemetrySystem() {
   }
 
-  public static synchronized TelemetrySystem getInstance() {
-    if (instance == null) {
-      instance = new TelemetrySystem();
+  public static TelemetrySystem getInstance() {
+    TelemetrySystem current = instance;
+    if (current != null) {
+      return current;
+    }
+    synchronized (TelemetrySystem.class) {
+      if (instance == null) {
+        instance = new TelemetrySystem();
+      }
+      return instance;
     }
-    return instance;
+  }
+
+  /**
+   * Gets the handle for a metric, creating it on first use.
+   * The same name always yields the same handle.
+   */
+  public MetricHandle metric(String key) {
+    MetricHandle handle = collectors.get(key);
+    if (handle == null) {
+      handle = collectors.computeIfAbsent(key, k -> new MetricHandle(k, this));
+    }
+    return handle;
+  }
+
+  /**
+   * Sets the rolling window used for windowed statistics and balancing.
+   * Discards the recent history of all metrics; lifetime totals are kept.
+   *
+   * @param windowSeconds length of the window
+   * @param slotSeconds   resolution of the window
+   */
+  public void configureWindow(int windowSeconds, int slotSeconds) {
+    if (slotSeconds < 1 || windowSeconds < slotSeconds) {
+      throw new IllegalArgumentException(
+          "Invalid telemetry window: " + windowSeconds + "s in " + slotSeconds + "s slots");
+    }
+    synchronized (this) {
+      windowSlotSeconds = slotSeconds;
+      windowSlots = windowSeconds / slotSeconds;
+      collectors.values().forEach(MetricHandle::resetWindow);
+    }
+    invalidateBalance();
+  }
+
+  /**
+   * Gets the rolling window length in seconds.
+   */
+  public int getWindowSeconds() {
+    return windowSlots * windowSlotSeconds;
+  }
+
+  synchronized MetricWindow newWindow() {
+    return new MetricWindow(windowSlots, windowSlotSeconds);
   }
 
   /**
@@ -40,8 +101,7 @@ public class TelemetrySystem {
       return;
     }
 
-    collectors.computeIfAbsent(key, k -> new MetricCollector(k))
-        .record(value);
+    metric(key).record(value);
   }
 
   /**
@@ -52,165 +112,212 @@ public class TelemetrySystem {
   }
 
   /**
-   * Registers a balance tuner.
+   * Registers a balance tuner. A tuner registered for a parameter that
+   * already has one replaces it.
    */
   public void registerTuner(IBalanceTuner tuner) {
-    tuners.put(tuner.getId(), tuner);
+    IBalanceTuner replaced = tuners.put(tuner.getId(), tuner);
+    if (replaced != null) {
+      tunersByParameter.remove(replaced.getTargetParameter(), replaced);
+    }
+    IBalanceTuner previous = tunersByParameter.put(tuner.getTargetParameter(), tuner);
+    if (previous != null && previous != replaced) {
+      EntomologyMod.LOGGER.warn("Balance tuner {} replaces {} for {}",
+          tuner.getId(), previous.getId(), tuner.getTargetParameter());
+    }
+    invalidateBalance();
     EntomologyMod.LOGGER.debug("Registered balance tuner: {}", tuner.getId());
   }
 
+  /**
+   * Unregisters a balance tuner; its parameter reverts to base values.
+   */
+  public void unregisterTuner(Identifier id) {
+    IBalanceTuner removed = tuners.remove(id);
+    if (removed == null) {
+      return;
+    }
+    tunersByParameter.remove(removed.getTargetParameter(), removed);
+    invalidateBalance();
+    EntomologyMod.LOGGER.debug("Unregistered balance tuner: {}", id);
+  }
+
   /**
    * Gets an adjusted parameter value.
+   *
+   * Results are cached per (parameter, base value) until the next balance
+   * update, and all lookups within one update cycle see the same telemetry.
    */
   public double getAdjustedValue(Identifier parameter, double baseValue) {
     if (!enabled) {
       return baseValue;
     }
 
-    // Check cache
-    Double cached = adjustedValues.get(parameter);
+    IBalanceTuner tuner = tunersByParameter.get(parameter);
+    if (tuner == null) {
+      return baseValue;
+    }
+
+    BalanceState state = balance;
+    AdjustmentKey key = new AdjustmentKey(parameter, baseValue);
+    Double cached = state.values.get(key);
     if (cached != null) {
       return cached;
     }
 
-    // Find tuner for this parameter
-    IBalanceTuner tuner = findTunerForParameter(parameter);
-    if (tuner == null) {
+    double adjusted;
+    try {
+      adjusted = tuner.computeAdjustedValue(baseValue, state.telemetry());
+    } catch (Exception e) {
+      EntomologyMod.LOGGER.error("Error in balance tuner: {}", tuner.getId(), e);
       return baseValue;
     }
-
-    // Compute adjusted value
-    TelemetryDataImpl telemetry = collectTelemetryData();
-    double adjusted = tuner.computeAdjustedValue(baseValue, telemetry);
-    adjustedValues.put(parameter, adjusted);
-
+    // Bounded: callers passing ever-changing base values must not grow the cache
+    if (state.values.size() < MAX_CACHED_ADJUSTMENTS) {
+      state.values.putIfAbsent(key, adjusted);
+    }
     return adjusted;
   }
 
   /**
-   * Updates all balance tuners.
+   * Starts a new balance cycle: takes a fresh telemetry snapshot, drops
+   * cached adjustments and precomputes every tuner at a base value of 1.0.
    */
   public void updateBalancing() {
     if (!enabled) {
       return;
     }
 
-    TelemetryDataImpl telemetry = collectTelemetryData();
-
-    for (IBalanceTuner tuner : tuners.values()) {
-      try {
-        Identifier param = tuner.getTargetParameter();
-        double baseValue = 1.0; // Would get from config
-        double adjusted = tuner.computeAdjustedValue(baseValue, telemetry);
-        adjustedValues.put(param, adjusted);
-      } catch (Exception e) {
-        EntomologyMod.LOGGER.error("Error updating tuner: {}", tuner.getId(), e);
-      }
+    BalanceState state = invalidateBalance();
+    for (IBalanceTuner tuner : tunersByParameter.values()) {
+      // Tuners adjust multipliers; warm the unit value
+      getAdjustedValue(tuner.getTargetParameter(), 1.0);
     }
 
-    EntomologyMod.LOGGER.debug("Updated {} balance parameters", adjustedValues.size());
+    EntomologyMod.LOGGER.debug("Updated {} balance parameters", state.values.size());
   }
 
   /**
-   * Resets telemetry data.
+   * Gets the balance epoch; incremented whenever cached adjustments are dropped.
+   */
+  public long getBalanceEpoch() {
+    return balance.epoch;
+  }
+
+  private BalanceState invalidateBalance() {
+    synchronized (tunersByParameter) {
+      BalanceState state = new BalanceState(balance.epoch + 1);
+      balance = state;
+      return state;
+    }
+  }
+
+  /**
+   * Resets telemetry data. Metric handles are emptied in place, so handles
+   * cached by callers keep recording into the live metrics.
    */
   public void reset() {
-    collectors.clear();
-    adjustedValues.clear();
+    collectors.values().forEach(MetricHandle::reset);
+    invalidateBalance();
+  }
+
+  /**
+   * Gets every interned metric handle, including empty ones.
+   */
+  public Collection<MetricHandle> getHandles() {
+    return Collections.unmodifiableCollection(collectors.values());
   }
 
   /**
-   * Gets current metrics.
+   * Gets the average of every metric with at least one sample.
    */
   public Map<String, Double> getMetrics() {
     Map<String, Double> result = new HashMap<>();
-    for (Map.Entry<String, MetricCollector> entry : collectors.entrySet()) {
-      result.put(entry.getKey(), entry.getValue().getAverage());
+    for (MetricHandle handle : collectors.values()) {
+      if (handle.getCount() > 0) {
+        result.put(handle.getName(), handle.getAverage());
+      }
     }
     return result;
   }
 
   /**
-   * Finds tuner for a parameter.
+   * Takes an immutable snapshot of all metrics and their rolling windows.
    */
-  private IBalanceTuner findTunerForParameter(Identifier parameter) {
-    for (IBalanceTuner tuner : tuners.values()) {
-      if (tuner.getTargetParameter().equals(parameter)) {
-        return tuner;
-      }
-    }
-    return null;
+  public IBalanceTuner.ITelemetryData captureTelemetry() {
+    return collectTelemetryData();
   }
 
   /**
-   * Collects current telemetry data.
+   * Collects current telemetry data over the rolling window.
    */
   private TelemetryDataImpl collectTelemetryData() {
-    Map<String, Double> metrics = new HashMap<>();
-    long totalSamples = 0;
-
-    for (Map.Entry<String, MetricCollector> entry : collectors.entrySet()) {
-      MetricCollector collector = entry.getValue();
-      metrics.put(entry.getKey(), collector.getAverage());
-      totalSamples += collector.getSampleCount();
-    }
+    return new TelemetryDataImpl(collectors, System.nanoTime(),
+        (long) getWindowSeconds() * TICKS_PER_SECOND);
+  }
 
-    return new TelemetryDataImpl(metrics, collectionInterval, (int) totalSamples);
+  private record AdjustmentKey(Identifier parameter, double baseValue) {
   }
 
   /**
-   * Metric collector.
+   * Cached adjustments of one balance cycle and the telemetry they were
+   * computed from. Replaced, never cleared, so a lookup racing with an
+   * update sees one consistent cycle.
    */
-  private static class MetricCollector {
-    @SuppressWarnings("unused") // Used for identification
-    private final String key;
-    private double sum = 0.0;
-    private long count = 0;
-    private double min = Double.MAX_VALUE;
-    private double max = Double.MIN_VALUE;
+  private final class BalanceState {
+    final long epoch;
+    final Map<AdjustmentKey, Double> values = new ConcurrentHashMap<>();
+    private volatile TelemetryDataImpl telemetry;
 
-    MetricCollector(String key) {
-      this.key = key;
+    BalanceState(long epoch) {
+      this.epoch = epoch;
     }
 
-    void record(double value) {
-      sum += value;
-      count++;
-      min = Math.min(min, value);
-      max = Math.max(max, value);
-    }
-
-    double getAverage() {
-      return count > 0 ? sum / count : 0.0;
-    }
-
-    @SuppressWarnings("unused") // Public API method for metric analysis
-    public double getMin() {
-      return min;
-    }
-
-    @SuppressWarnings("unused") // Public API method for metric analysis
-    public double getMax() {
-      return max;
-    }
-
-    long getSampleCount() {
-      return count;
+    /**
+     * Gets the telemetry snapshot of this cycle, taking it on first use.
+     */
+    TelemetryDataImpl telemetry() {
+      TelemetryDataImpl current = telemetry;
+      if (current == null) {
+        synchronized (this) {
+          current = telemetry;
+          if (current == null) {
+            current = collectTelemetryData();
+            telemetry = current;
+          }
+        }
+      }
+      return current;
     }
   }
 
   /**
-   * Telemetry data implementation.
+   * Immutable telemetry snapshot: window statistics of every metric with
+   * samples, taken at one point in time and shared by a balance cycle.
    */
   private static class TelemetryDataImpl implements IBalanceTuner.ITelemetryData {
     private final Map<String, Double> metrics;
+    private final Map<String, MetricWindow.Stats> windows;
     private final long timePeriod;
     private final int sampleSize;
 
-    TelemetryDataImpl(Map<String, Double> metrics, long timePeriod, int sampleSize) {
-      this.metrics = metrics;
+    TelemetryDataImpl(Map<String, MetricHandle> handles, long nanoTime, long timePeriod) {
+      Map<String, Double> metrics = new HashMap<>();
+      Map<String, MetricWindow.Stats> windows = new HashMap<>();
+      long samples = 0;
+      for (MetricHandle handle : handles.values()) {
+        if (handle.getCount() == 0) {
+          continue;
+        }
+        MetricWindow.Stats window = handle.getWindowStats(nanoTime);
+        windows.put(handle.getName(), window);
+        metrics.put(handle.getName(), window.getCount() > 0 ? window.getMean() : handle.getAverage());
+        samples += window.getCount();
+      }
+      this.metrics = Map.copyOf(metrics);
+      this.windows = Map.copyOf(windows);
       this.timePeriod = timePeriod;
-      this.sampleSize = sampleSize;
+      this.sampleSize = (int) Math.min(Integer.MAX_VALUE, samples);
     }
 
     @Override
@@ -218,6 +325,11 @@ public class TelemetrySystem {
       return metrics.getOrDefault(key, 0.0);
     }
 
+    @Override
+    public MetricWindow.Stats getWindow(String key) {
+      return windows.getOrDefault(key, MetricWindow.Stats.EMPTY);
+    }
+
     @Override
     public Map<String, Double> getAllMetrics() {
       return new HashMap<>(metrics);
@@ -0,0 +1,282 @@
+package dk.mosberg.entomology.balance.export;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import dk.mosberg.entomology.EntomologyMod;
+import dk.mosberg.entomology.api.mechanics.IAdvancedMechanic.ILatencySnapshot;
+import dk.mosberg.entomology.balance.MetricWindow;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Appends telemetry snapshots to a JSON-lines file, one object per line.
+ *
+ * Callers {@link #requestCapture()} a snapshot, or {@link #offer} one they
+ * already hold, into a bounded queue; a background thread captures,
+ * serializes and writes them, so neither the capture nor a slow disk
+ * stalls the server. When the queue is full the snapshot is dropped and
+ * counted; a capture request while one is pending is coalesced into it.
+ * The file is rotated once it exceeds its size limit: {@code name.jsonl}
+ * becomes {@code name.1.jsonl}, and the oldest file is deleted.
+ */
+public class JsonLinesExporter implements AutoCloseable {
+  private static final int QUEUE_CAPACITY = 64;
+  private static final long POLL_MILLIS = 250;
+  private static final Gson GSON = new Gson();
+
+  private final Path directory;
+  private final String baseName;
+  private final long maxFileBytes;
+  private final int maxFiles;
+  private final Supplier<TelemetrySnapshot> source;
+  private final Supplier<TelemetrySnapshot> captureTask = this::capture;
+  private final BlockingQueue<Supplier<TelemetrySnapshot>> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+  private final AtomicBoolean capturePending = new AtomicBoolean();
+  private final AtomicLong dropped = new AtomicLong();
+  private final Thread thread;
+
+  private volatile boolean running = true;
+  private BufferedWriter writer;
+  private long fileBytes;
+
+  /**
+   * @param directory    directory of the log files, normally {@code logs/}
+   * @param baseName     file name without extension
+   * @param maxFileBytes size after which the file is rotated
+   * @param maxFiles     files kept, including the current one
+   * @param source       captures a snapshot; called on the writer thread
+   */
+  public JsonLinesExporter(Path directory, String baseName, long maxFileBytes, int maxFiles,
+      Supplier<TelemetrySnapshot> source) {
+    if (maxFileBytes <= 0 || maxFiles < 1) {
+      throw new IllegalArgumentException("Invalid rotation: " + maxFileBytes + " bytes, " + maxFiles + " files");
+    }
+    this.directory = directory;
+    this.baseName = baseName;
+    this.maxFileBytes = maxFileBytes;
+    this.maxFiles = maxFiles;
+    this.source = source;
+    this.thread = new Thread(this::run, "Entomology Telemetry Log");
+    thread.setDaemon(true);
+  }
+
+  public void start() {
+    thread.start();
+  }
+
+  /**
+   * Requests a snapshot from the source without blocking; the writer thread
+   * captures it.
+   *
+   * @return false if the request was dropped or merged into a pending one
+   */
+  public boolean requestCapture() {
+    if (!capturePending.compareAndSet(false, true)) {
+      dropped.incrementAndGet();
+      return false;
+    }
+    if (!enqueue(captureTask)) {
+      capturePending.set(false);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Queues an already captured snapshot for writing without blocking.
+   *
+   * @return false if the queue was full and the snapshot was dropped
+   */
+  public boolean offer(TelemetrySnapshot snapshot) {
+    return enqueue(() -> snapshot);
+  }
+
+  private boolean enqueue(Supplier<TelemetrySnapshot> snapshot) {
+    if (!running || !queue.offer(snapshot)) {
+      dropped.incrementAndGet();
+      return false;
+    }
+    return true;
+  }
+
+  private TelemetrySnapshot capture() {
+    // Cleared first: a request arriving during the capture gets its own
+    capturePending.set(false);
+    return source.get();
+  }
+
+  /**
+   * Gets the number of snapshots dropped because the queue was full, and
+   * of capture requests merged into a pending one.
+   */
+  public long getDroppedCount() {
+    return dropped.get();
+  }
+
+  /**
+   * Gets the file currently written to.
+   */
+  public Path getFile() {
+    return file(0);
+  }
+
+  /**
+   * Writes the snapshots still queued and stops the writer thread.
+   */
+  @Override
+  public void close() {
+    // Not interrupted: an interrupt closes the file channel mid-write
+    running = false;
+    try {
+      thread.join(TimeUnit.SECONDS.toMillis(5));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void run() {
+    try {
+      while (running) {
+        Supplier<TelemetrySnapshot> snapshot;
+        try {
+          snapshot = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+          break;
+        }
+        if (snapshot != null) {
+          write(snapshot);
+        }
+      }
+      // Drain what was queued before the close
+      Supplier<TelemetrySnapshot> snapshot;
+      while ((snapshot = queue.poll()) != null) {
+        write(snapshot);
+      }
+    } finally {
+      closeWriter();
+    }
+  }
+
+  private void write(Supplier<TelemetrySnapshot> snapshot) {
+    try {
+      String line = GSON.toJson(toJson(snapshot.get())) + "\n";
+      byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+      if (writer == null) {
+        openWriter();
+      } else if (fileBytes > 0 && fileBytes + bytes.length > maxFileBytes) {
+        rotate();
+      }
+      writer.write(line);
+      writer.flush();
+      fileBytes += bytes.length;
+    } catch (IOException e) {
+      EntomologyMod.LOGGER.warn("Failed to write telemetry log {}", getFile(), e);
+      closeWriter();
+    } catch (RuntimeException e) {
+      EntomologyMod.LOGGER.warn("Failed to capture telemetry for {}", getFile(), e);
+    }
+  }
+
+  private void openWriter() throws IOException {
+    Files.createDirectories(directory);
+    Path file = getFile();
+    fileBytes = Files.exists(file) ? Files.size(file) : 0L;
+    writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+  }
+
+  private void rotate() throws IOException {
+    closeWriter();
+    Files.deleteIfExists(file(maxFiles - 1));
+    for (int i = maxFiles - 2; i >= 0; i--) {
+      Path source = file(i);
+      if (Files.exists(source)) {
+        Files.move(source, file(i + 1), StandardCopyOption.REPLACE_EXISTING);
+      }
+    }
+    openWriter();
+  }
+
+  private void closeWriter() {
+    if (writer != null) {
+      try {
+        writer.close();
+      } catch (IOException e) {
+        EntomologyMod.LOGGER.debug("Failed to close telemetry log", e);
+      }
+      writer = null;
+    }
+  }
+
+  private Path file(int index) {
+    return directory.resolve(index == 0 ? baseName + ".jsonl" : baseName + "." + index + ".jsonl");
+  }
+
+  /**
+   * Converts a snapshot to the JSON object written as one line.
+   */
+  public static JsonObject toJson(TelemetrySnapshot snapshot) {
+    JsonObject root = new JsonObject();
+    root.addProperty("time", snapshot.timestampMillis());
+
+    JsonObject metrics = new JsonObject();
+    for (TelemetrySnapshot.Metric metric : snapshot.metrics()) {
+      JsonObject json = new JsonObject();
+      json.addProperty("count", metric.count());
+      addFinite(json, "sum", metric.sum());
+      addFinite(json, "min", metric.min());
+      addFinite(json, "max", metric.max());
+      MetricWindow.Stats window = metric.window();
+      if (window.getCount() > 0) {
+        JsonObject windowJson = new JsonObject();
+        windowJson.addProperty("count", window.getCount());
+        addFinite(windowJson, "mean", window.getMean());
+        addFinite(windowJson, "p50", window.getP50());
+        addFinite(windowJson, "p90", window.getP90());
+        addFinite(windowJson, "p99", window.getP99());
+        json.add("window", windowJson);
+      }
+      metrics.add(metric.name(), json);
+    }
+    root.add("metrics", metrics);
+
+    JsonObject mechanics = new JsonObject();
+    for (TelemetrySnapshot.Mechanic mechanic : snapshot.mechanics()) {
+      JsonObject json = new JsonObject();
+      json.addProperty("executions", mechanic.executions());
+      ILatencySnapshot latency = mechanic.latency();
+      if (latency.getCount() > 0) {
+        JsonObject latencyJson = new JsonObject();
+        latencyJson.addProperty("count", latency.getCount());
+        addFinite(latencyJson, "meanNanos", latency.getMeanNanos());
+        latencyJson.addProperty("p50Nanos", latency.getP50Nanos());
+        latencyJson.addProperty("p90Nanos", latency.getP90Nanos());
+        latencyJson.addProperty("p99Nanos", latency.getP99Nanos());
+        latencyJson.addProperty("maxNanos", latency.getMaxNanos());
+        json.add("latency", latencyJson);
+      }
+      mechanics.add(mechanic.id(), json);
+    }
+    root.add("mechanics", mechanics);
+    return root;
+  }
+
+  // Gson rejects NaN and infinities
+  private static void addFinite(JsonObject json, String key, double value) {
+    if (Double.isFinite(value)) {
+      json.addProperty(key, value);
+    }
+  }
+}
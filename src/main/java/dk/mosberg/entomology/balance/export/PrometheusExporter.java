@@ -0,0 +1,198 @@
+package dk.mosberg.entomology.balance.export;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dk.mosberg.entomology.EntomologyMod;
+import dk.mosberg.entomology.api.mechanics.IAdvancedMechanic.ILatencySnapshot;
+import dk.mosberg.entomology.balance.MetricWindow;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Serves telemetry in the Prometheus text exposition format on
+ * {@code /metrics}.
+ *
+ * Each scrape captures a fresh {@link TelemetrySnapshot} on the exporter's
+ * own thread; the server thread is never involved. Telemetry metrics are
+ * exported as totals plus window quantiles, mechanic latency as a summary
+ * over the mechanic's rolling window.
+ */
+public class PrometheusExporter implements AutoCloseable {
+  /**
+   * Content type of the text exposition format.
+   */
+  public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  private static final double NANOS_PER_SECOND = 1.0e9;
+  private static final double[] QUANTILES = { 0.5, 0.9, 0.99 };
+
+  private final Supplier<TelemetrySnapshot> source;
+  private final HttpServer server;
+  private final ExecutorService executor;
+
+  /**
+   * Binds the endpoint; call {@link #start()} to begin serving.
+   *
+   * @param host   address to bind, normally a loopback address
+   * @param port   port to bind
+   * @param source captures the snapshot served on each scrape
+   * @throws IOException if the address cannot be bound
+   */
+  public PrometheusExporter(String host, int port, Supplier<TelemetrySnapshot> source) throws IOException {
+    this.source = source;
+    this.server = HttpServer.create(new InetSocketAddress(host, port), 0);
+    this.executor = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "Entomology Metrics Exporter");
+      thread.setDaemon(true);
+      return thread;
+    });
+    server.setExecutor(executor);
+    server.createContext("/metrics", this::handle);
+  }
+
+  public void start() {
+    server.start();
+    EntomologyMod.LOGGER.info("Serving telemetry metrics on http://{}:{}/metrics",
+        server.getAddress().getHostString(), getPort());
+  }
+
+  /**
+   * Gets the bound port; useful when constructed with port 0.
+   */
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      if (!"GET".equals(exchange.getRequestMethod()) && !"HEAD".equals(exchange.getRequestMethod())) {
+        exchange.sendResponseHeaders(405, -1);
+        return;
+      }
+      byte[] body;
+      try {
+        body = format(source.get()).getBytes(StandardCharsets.UTF_8);
+      } catch (RuntimeException e) {
+        EntomologyMod.LOGGER.error("Failed to capture telemetry for export", e);
+        exchange.sendResponseHeaders(500, -1);
+        return;
+      }
+      exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+      if ("HEAD".equals(exchange.getRequestMethod())) {
+        exchange.sendResponseHeaders(200, -1);
+        return;
+      }
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    }
+  }
+
+  /**
+   * Formats a snapshot in the Prometheus text exposition format.
+   */
+  public static String format(TelemetrySnapshot snapshot) {
+    StringBuilder out = new StringBuilder(4096);
+
+    header(out, "entomology_metric_samples_total", "counter", "Samples recorded per telemetry metric.");
+    for (TelemetrySnapshot.Metric metric : snapshot.metrics()) {
+      sample(out, "entomology_metric_samples_total", "metric", metric.name(), null, metric.count());
+    }
+    // Samples may be negative, so the sum is not monotonic
+    header(out, "entomology_metric_sum", "gauge", "Sum of all samples per telemetry metric.");
+    for (TelemetrySnapshot.Metric metric : snapshot.metrics()) {
+      sample(out, "entomology_metric_sum", "metric", metric.name(), null, metric.sum());
+    }
+    header(out, "entomology_metric_window", "summary", "Telemetry metric values over the rolling window.");
+    for (TelemetrySnapshot.Metric metric : snapshot.metrics()) {
+      MetricWindow.Stats window = metric.window();
+      if (window.getCount() == 0) {
+        continue;
+      }
+      for (double quantile : QUANTILES) {
+        sample(out, "entomology_metric_window", "metric", metric.name(), quantile,
+            window.getValueAtPercentile(quantile * 100.0));
+      }
+      sample(out, "entomology_metric_window_sum", "metric", metric.name(), null,
+          window.getMean() * window.getCount());
+      sample(out, "entomology_metric_window_count", "metric", metric.name(), null, window.getCount());
+    }
+
+    header(out, "entomology_mechanic_executions_total", "counter", "Executions per mechanic.");
+    for (TelemetrySnapshot.Mechanic mechanic : snapshot.mechanics()) {
+      sample(out, "entomology_mechanic_executions_total", "mechanic", mechanic.id(), null,
+          mechanic.executions());
+    }
+    header(out, "entomology_mechanic_latency_seconds", "summary",
+        "Mechanic execution latency over the rolling window.");
+    for (TelemetrySnapshot.Mechanic mechanic : snapshot.mechanics()) {
+      ILatencySnapshot latency = mechanic.latency();
+      if (latency.getCount() == 0) {
+        continue;
+      }
+      for (double quantile : QUANTILES) {
+        sample(out, "entomology_mechanic_latency_seconds", "mechanic", mechanic.id(), quantile,
+            latency.getValueAtPercentile(quantile * 100.0) / NANOS_PER_SECOND);
+      }
+      sample(out, "entomology_mechanic_latency_seconds_sum", "mechanic", mechanic.id(), null,
+          latency.getMeanNanos() * latency.getCount() / NANOS_PER_SECOND);
+      sample(out, "entomology_mechanic_latency_seconds_count", "mechanic", mechanic.id(), null,
+          latency.getCount());
+    }
+    return out.toString();
+  }
+
+  private static void header(StringBuilder out, String name, String type, String help) {
+    out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+    out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+  }
+
+  private static void sample(StringBuilder out, String name, String label, String labelValue,
+      Double quantile, double value) {
+    out.append(name).append('{').append(label).append("=\"");
+    escape(out, labelValue);
+    out.append('"');
+    if (quantile != null) {
+      out.append(",quantile=\"").append(quantile).append('"');
+    }
+    out.append("} ").append(formatValue(value)).append('\n');
+  }
+
+  private static String formatValue(double value) {
+    if (Double.isNaN(value)) {
+      return "NaN";
+    }
+    if (Double.isInfinite(value)) {
+      return value > 0 ? "+Inf" : "-Inf";
+    }
+    if (value == Math.rint(value) && Math.abs(value) < 1.0e15) {
+      return Long.toString((long) value);
+    }
+    return Double.toString(value);
+  }
+
+  private static void escape(StringBuilder out, String value) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '\\' -> out.append("\\\\");
+        case '"' -> out.append("\\\"");
+        case '\n' -> out.append("\\n");
+        default -> out.append(c);
+      }
+    }
+  }
+}
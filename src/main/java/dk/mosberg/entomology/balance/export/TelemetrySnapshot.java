@@ -0,0 +1,64 @@
+package dk.mosberg.entomology.balance.export;
+
+import dk.mosberg.entomology.api.mechanics.IAdvancedMechanic;
+import dk.mosberg.entomology.api.mechanics.IAdvancedMechanic.ILatencySnapshot;
+import dk.mosberg.entomology.api.mechanics.IAdvancedMechanic.IPerformanceMetrics;
+import dk.mosberg.entomology.balance.MetricHandle;
+import dk.mosberg.entomology.balance.MetricWindow;
+import dk.mosberg.entomology.balance.TelemetrySystem;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Point-in-time copy of all telemetry metrics and mechanic performance
+ * metrics, as written by the exporters. Entries are sorted by name.
+ *
+ * @param timestampMillis wall-clock capture time
+ * @param metrics         telemetry metrics with at least one sample
+ * @param mechanics       performance of every mechanic
+ */
+public record TelemetrySnapshot(long timestampMillis, List<Metric> metrics, List<Mechanic> mechanics) {
+
+  /**
+   * Captures the current state. Safe to call from any thread.
+   */
+  public static TelemetrySnapshot capture(TelemetrySystem telemetry,
+      Collection<? extends IAdvancedMechanic> mechanics) {
+    List<Metric> metrics = new ArrayList<>();
+    for (MetricHandle handle : telemetry.getHandles()) {
+      long count = handle.getCount();
+      if (count > 0) {
+        metrics.add(new Metric(handle.getName(), count, handle.getSum(), handle.getMin(),
+            handle.getMax(), handle.getWindowStats()));
+      }
+    }
+    metrics.sort(Comparator.comparing(Metric::name));
+
+    List<Mechanic> mechanicSnapshots = new ArrayList<>();
+    for (IAdvancedMechanic mechanic : mechanics) {
+      IPerformanceMetrics performance = mechanic.getPerformanceMetrics();
+      mechanicSnapshots.add(new Mechanic(mechanic.getId().toString(),
+          performance.getTotalExecutions(), performance.getWindowedLatency()));
+    }
+    mechanicSnapshots.sort(Comparator.comparing(Mechanic::id));
+
+    return new TelemetrySnapshot(System.currentTimeMillis(), List.copyOf(metrics),
+        List.copyOf(mechanicSnapshots));
+  }
+
+  /**
+   * One telemetry metric: lifetime totals and the rolling window.
+   */
+  public record Metric(String name, long count, double sum, double min, double max,
+      MetricWindow.Stats window) {
+  }
+
+  /**
+   * One mechanic: lifetime executions and windowed latency in nanoseconds.
+   */
+  public record Mechanic(String id, long executions, ILatencySnapshot latency) {
+  }
+}
@@ -0,0 +1,18 @@
+package dk.mosberg.entomology.balance.tuning;
+
+/**
+ * Tuning rule for tuners with the {@code custom} strategy.
+ * Register implementations with {@link TuningEngine#registerFunction}.
+ */
+@FunctionalInterface
+public interface CustomTuningFunction {
+  /**
+   * Computes the desired multiplier; the engine applies rate and bounds.
+   *
+   * @param observed windowed mean of the metric
+   * @param target   configured target
+   * @param error    relative error, positive when the multiplier should rise
+   * @return desired multiplier
+   */
+  double compute(double observed, double target, double error);
+}
@@ -0,0 +1,64 @@
+package dk.mosberg.entomology.balance.tuning;
+
+import com.google.gson.JsonObject;
+import dk.mosberg.entomology.api.balance.IBalanceTuner;
+import net.minecraft.util.Identifier;
+
+/**
+ * A {@link TuningEngine} tuner as seen by the TelemetrySystem: scales the
+ * base value by the engine's latest published multiplier.
+ */
+final class EngineTuner implements IBalanceTuner {
+  private final TuningEngine engine;
+  private final TunerSpec spec;
+
+  EngineTuner(TuningEngine engine, TunerSpec spec) {
+    this.engine = engine;
+    this.spec = spec;
+  }
+
+  @Override
+  public Identifier getId() {
+    return spec.id();
+  }
+
+  @Override
+  public Identifier getTargetParameter() {
+    return spec.parameter();
+  }
+
+  @Override
+  public double computeAdjustedValue(double baseValue, ITelemetryData telemetry) {
+    return baseValue * engine.getMultiplier(spec.parameter());
+  }
+
+  @Override
+  public TuningStrategy getStrategy() {
+    return spec.strategy();
+  }
+
+  @Override
+  public void configure(JsonObject config) {
+    engine.configure(TunerSpec.fromJson(config, spec.rate()));
+  }
+
+  @Override
+  public AdjustmentBounds getBounds() {
+    return new AdjustmentBounds() {
+      @Override
+      public double getMinMultiplier() {
+        return spec.minMultiplier();
+      }
+
+      @Override
+      public double getMaxMultiplier() {
+        return spec.maxMultiplier();
+      }
+    };
+  }
+
+  @Override
+  public double getTuningRate() {
+    return spec.rate();
+  }
+}
@@ -0,0 +1,224 @@
+package dk.mosberg.entomology.balance.tuning;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import dk.mosberg.entomology.EntomologyMod;
+import dk.mosberg.entomology.api.balance.IBalanceTuner.TuningStrategy;
+import net.minecraft.util.Identifier;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Configuration of one tuner of the {@link TuningEngine}.
+ *
+ * A tuner observes the windowed mean of one telemetry metric and steers a
+ * parameter multiplier so the metric approaches {@code target}. The error
+ * seen by the strategies is relative: {@code (target - observed) / |target|},
+ * negated when {@code inverted}; a positive error raises the multiplier.
+ *
+ * The step arrays are copied on construction and on access, and take part
+ * in {@link #equals} by content.
+ *
+ * @param rate       fraction of the remaining adjustment applied per update
+ * @param stepErrors stepped thresholds in ascending order, matching {@code stepMultipliers}
+ */
+public record TunerSpec(
+    Identifier id,
+    Identifier parameter,
+    String metric,
+    double target,
+    TuningStrategy strategy,
+    boolean inverted,
+    double gain,
+    double rate,
+    double minMultiplier,
+    double maxMultiplier,
+    double kp,
+    double ki,
+    double kd,
+    double[] stepErrors,
+    double[] stepMultipliers,
+    Identifier function) {
+
+  public TunerSpec {
+    if (minMultiplier > maxMultiplier) {
+      throw new IllegalArgumentException("Tuner " + id + ": minMultiplier exceeds maxMultiplier");
+    }
+    if (rate < 0.0 || rate > 1.0) {
+      throw new IllegalArgumentException("Tuner " + id + ": rate must be between 0 and 1");
+    }
+    if (stepErrors == null || stepMultipliers == null) {
+      throw new IllegalArgumentException("Tuner " + id + ": steps must not be null");
+    }
+    if (stepErrors.length != stepMultipliers.length) {
+      throw new IllegalArgumentException("Tuner " + id + ": every step needs an error and a multiplier");
+    }
+    for (int i = 1; i < stepErrors.length; i++) {
+      if (!(stepErrors[i - 1] <= stepErrors[i])) {
+        throw new IllegalArgumentException("Tuner " + id + ": step errors must be ascending");
+      }
+    }
+    if (strategy == TuningStrategy.STEPPED && stepErrors.length == 0) {
+      throw new IllegalArgumentException("Tuner " + id + ": stepped strategy needs steps");
+    }
+    if (strategy == TuningStrategy.CUSTOM && function == null) {
+      throw new IllegalArgumentException("Tuner " + id + ": custom strategy needs a function");
+    }
+    stepErrors = stepErrors.clone();
+    stepMultipliers = stepMultipliers.clone();
+  }
+
+  @Override
+  public double[] stepErrors() {
+    return stepErrors.clone();
+  }
+
+  @Override
+  public double[] stepMultipliers() {
+    return stepMultipliers.clone();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof TunerSpec other)) {
+      return false;
+    }
+    return Objects.equals(id, other.id)
+        && Objects.equals(parameter, other.parameter)
+        && Objects.equals(metric, other.metric)
+        && Double.compare(target, other.target) == 0
+        && strategy == other.strategy
+        && inverted == other.inverted
+        && Double.compare(gain, other.gain) == 0
+        && Double.compare(rate, other.rate) == 0
+        && Double.compare(minMultiplier, other.minMultiplier) == 0
+        && Double.compare(maxMultiplier, other.maxMultiplier) == 0
+        && Double.compare(kp, other.kp) == 0
+        && Double.compare(ki, other.ki) == 0
+        && Double.compare(kd, other.kd) == 0
+        && Arrays.equals(stepErrors, other.stepErrors)
+        && Arrays.equals(stepMultipliers, other.stepMultipliers)
+        && Objects.equals(function, other.function);
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = Objects.hash(id, parameter, metric, target, strategy, inverted, gain, rate,
+        minMultiplier, maxMultiplier, kp, ki, kd, function);
+    hash = 31 * hash + Arrays.hashCode(stepErrors);
+    return 31 * hash + Arrays.hashCode(stepMultipliers);
+  }
+
+  @Override
+  public String toString() {
+    return "TunerSpec[id=" + id + ", parameter=" + parameter + ", metric=" + metric
+        + ", target=" + target + ", strategy=" + strategy + ", inverted=" + inverted
+        + ", gain=" + gain + ", rate=" + rate + ", minMultiplier=" + minMultiplier
+        + ", maxMultiplier=" + maxMultiplier + ", kp=" + kp + ", ki=" + ki + ", kd=" + kd
+        + ", stepErrors=" + Arrays.toString(stepErrors)
+        + ", stepMultipliers=" + Arrays.toString(stepMultipliers) + ", function=" + function + "]";
+  }
+
+  /**
+   * Parses the tuners of the {@code balance} section of mechanics.json.
+   * Invalid tuners are logged and skipped; with adaptive difficulty off,
+   * there are none.
+   */
+  public static List<TunerSpec> fromBalanceConfig(JsonObject balance) {
+    List<TunerSpec> specs = new ArrayList<>();
+    if (!getBoolean(balance, "adaptiveDifficulty", false) || !balance.has("tuners")) {
+      return specs;
+    }
+
+    double defaultRate = getNumber(balance, "tuningRate", 0.1);
+    for (JsonElement element : balance.getAsJsonArray("tuners")) {
+      try {
+        specs.add(fromJson(element.getAsJsonObject(), defaultRate));
+      } catch (RuntimeException e) {
+        EntomologyMod.LOGGER.error("Skipping invalid balance tuner {}: {}", element, e.getMessage());
+      }
+    }
+    return specs;
+  }
+
+  /**
+   * Parses a tuner from a {@code balance.tuners} entry of mechanics.json.
+   *
+   * @param json        tuner object
+   * @param defaultRate rate for tuners that don't set one (PID defaults to 1.0)
+   */
+  public static TunerSpec fromJson(JsonObject json, double defaultRate) {
+    Identifier id = Identifier.of(requireString(json, "id"));
+    TuningStrategy strategy = json.has("strategy")
+        ? TuningStrategy.valueOf(json.get("strategy").getAsString().toUpperCase(Locale.ROOT))
+        : TuningStrategy.LINEAR;
+
+    double[] stepErrors = new double[0];
+    double[] stepMultipliers = new double[0];
+    if (json.has("steps")) {
+      JsonArray steps = json.getAsJsonArray("steps");
+      JsonObject[] sorted = new JsonObject[steps.size()];
+      for (int i = 0; i < sorted.length; i++) {
+        sorted[i] = steps.get(i).getAsJsonObject();
+      }
+      Arrays.sort(sorted, Comparator.comparingDouble(step -> step.get("error").getAsDouble()));
+      stepErrors = new double[sorted.length];
+      stepMultipliers = new double[sorted.length];
+      for (int i = 0; i < sorted.length; i++) {
+        stepErrors[i] = sorted[i].get("error").getAsDouble();
+        stepMultipliers[i] = sorted[i].get("multiplier").getAsDouble();
+      }
+    }
+
+    return new TunerSpec(
+        id,
+        Identifier.of(requireString(json, "parameter")),
+        requireString(json, "metric"),
+        requireNumber(json, "target"),
+        strategy,
+        getBoolean(json, "inverted", false),
+        getNumber(json, "gain", 1.0),
+        getNumber(json, "rate", strategy == TuningStrategy.PID ? 1.0 : defaultRate),
+        getNumber(json, "minMultiplier", 0.5),
+        getNumber(json, "maxMultiplier", 2.0),
+        getNumber(json, "kp", 1.0),
+        getNumber(json, "ki", 0.0),
+        getNumber(json, "kd", 0.0),
+        stepErrors,
+        stepMultipliers,
+        json.has("function") ? Identifier.of(json.get("function").getAsString()) : null);
+  }
+
+  private static String requireString(JsonObject json, String key) {
+    JsonElement element = json.get(key);
+    if (element == null || element.isJsonNull()) {
+      throw new IllegalArgumentException("Tuner is missing required field: " + key);
+    }
+    return element.getAsString();
+  }
+
+  private static double requireNumber(JsonObject json, String key) {
+    JsonElement element = json.get(key);
+    if (element == null || element.isJsonNull()) {
+      throw new IllegalArgumentException("Tuner is missing required field: " + key);
+    }
+    return element.getAsDouble();
+  }
+
+  private static double getNumber(JsonObject json, String key, double defaultValue) {
+    return json.has(key) ? json.get(key).getAsDouble() : defaultValue;
+  }
+
+  private static boolean getBoolean(JsonObject json, String key, boolean defaultValue) {
+    return json.has(key) ? json.get(key).getAsBoolean() : defaultValue;
+  }
+}
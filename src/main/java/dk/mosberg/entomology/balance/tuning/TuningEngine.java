@@ -0,0 +1,464 @@
+package dk.mosberg.entomology.balance.tuning;
+
+import dk.mosberg.entomology.EntomologyMod;
+import dk.mosberg.entomology.api.balance.IBalanceTuner.ITelemetryData;
+import dk.mosberg.entomology.api.balance.IBalanceTuner.TuningStrategy;
+import dk.mosberg.entomology.balance.TelemetrySystem;
+import net.minecraft.util.Identifier;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Evaluates all balance tuners in one pass and publishes their multipliers.
+ *
+ * Tuners are compiled into a structure of primitive arrays, ordered by
+ * strategy, so each strategy runs as one tight loop over a contiguous range.
+ * Updates run on the engine's own thread from a telemetry snapshot; results
+ * are published as one immutable {@link Result}, and {@link TelemetrySystem}
+ * starts a new balance cycle afterwards so cached adjustments pick them up.
+ * Reading a multiplier is a volatile read and a map lookup.
+ *
+ * Each tuner is registered with the TelemetrySystem, so callers use
+ * {@link TelemetrySystem#getAdjustedValue} as with any other tuner.
+ */
+public class TuningEngine implements AutoCloseable {
+  private static final double MIN_SCALE = 1.0e-9;
+  private static final TuningStrategy[] STRATEGIES = TuningStrategy.values();
+
+  private final TelemetrySystem telemetry;
+  private final Map<Identifier, CustomTuningFunction> functions = new ConcurrentHashMap<>();
+  private final AtomicBoolean updateQueued = new AtomicBoolean();
+  private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "Entomology Tuning Engine");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  // Guards program state; held by updates and reconfiguration only
+  private final Object lock = new Object();
+  private Program program = Program.compile(List.of(), Map.of(), null);
+  private long lastUpdateNanos;
+  private volatile Result result = Result.EMPTY;
+
+  public TuningEngine(TelemetrySystem telemetry) {
+    this.telemetry = telemetry;
+  }
+
+  /**
+   * Registers a function for tuners with the {@code custom} strategy.
+   */
+  public void registerFunction(Identifier id, CustomTuningFunction function) {
+    functions.put(id, function);
+  }
+
+  /**
+   * Replaces all tuners. Tuners that keep their id keep their current
+   * multiplier and PID state, so a config reload doesn't cause a jump.
+   */
+  public void configure(List<TunerSpec> specs) {
+    List<EngineTuner> added = new ArrayList<>();
+    List<Identifier> removed = new ArrayList<>();
+
+    synchronized (lock) {
+      Program previous = program;
+      program = Program.compile(specs, functions, previous);
+      result = program.publish(result.generation() + 1);
+
+      Map<Identifier, TunerSpec> current = new HashMap<>();
+      for (TunerSpec spec : program.specs) {
+        current.put(spec.id(), spec);
+        added.add(new EngineTuner(this, spec));
+      }
+      for (TunerSpec spec : previous.specs) {
+        if (!current.containsKey(spec.id())) {
+          removed.add(spec.id());
+        }
+      }
+    }
+
+    removed.forEach(telemetry::unregisterTuner);
+    added.forEach(telemetry::registerTuner);
+    EntomologyMod.LOGGER.debug("Configured {} balance tuners", added.size());
+  }
+
+  /**
+   * Replaces or adds a single tuner.
+   */
+  public void configure(TunerSpec spec) {
+    Map<Identifier, TunerSpec> specs = new LinkedHashMap<>();
+    synchronized (lock) {
+      for (TunerSpec existing : program.specs) {
+        specs.put(existing.id(), existing);
+      }
+    }
+    specs.put(spec.id(), spec);
+    configure(new ArrayList<>(specs.values()));
+  }
+
+  /**
+   * Schedules an update on the engine thread; does nothing if one is
+   * already pending. Safe to call every tick.
+   */
+  public void requestUpdate() {
+    if (!updateQueued.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      executor.execute(() -> {
+        try {
+          update(telemetry.captureTelemetry());
+        } catch (Exception e) {
+          EntomologyMod.LOGGER.error("Balance tuning update failed", e);
+        } finally {
+          updateQueued.set(false);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      updateQueued.set(false);
+    }
+  }
+
+  /**
+   * Runs one update with the time since the previous update.
+   */
+  public void update(ITelemetryData data) {
+    long now = System.nanoTime();
+    double elapsed;
+    synchronized (lock) {
+      elapsed = lastUpdateNanos == 0 ? 0.0 : (now - lastUpdateNanos) / 1.0e9;
+      lastUpdateNanos = now;
+    }
+    update(data, elapsed);
+  }
+
+  /**
+   * Runs one update on the calling thread and publishes the results.
+   *
+   * @param data           telemetry snapshot
+   * @param elapsedSeconds time since the previous update, for PID terms;
+   *                       0 skips integral and derivative terms
+   */
+  public void update(ITelemetryData data, double elapsedSeconds) {
+    synchronized (lock) {
+      program.evaluate(data, elapsedSeconds);
+      result = program.publish(result.generation() + 1);
+    }
+    telemetry.updateBalancing();
+  }
+
+  /**
+   * Gets the current multiplier of a parameter, or 1.0 if no tuner drives it.
+   */
+  public double getMultiplier(Identifier parameter) {
+    return result.get(parameter);
+  }
+
+  /**
+   * Gets the latest published results.
+   */
+  public Result getResult() {
+    return result;
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Immutable multipliers of one update.
+   */
+  public static final class Result {
+    static final Result EMPTY = new Result(0L, Map.of(), new double[0]);
+
+    private final long generation;
+    private final Map<Identifier, Integer> index;
+    // Owned by this result; never handed out
+    private final double[] multipliers;
+
+    Result(long generation, Map<Identifier, Integer> index, double[] multipliers) {
+      this.generation = generation;
+      this.index = index;
+      this.multipliers = multipliers;
+    }
+
+    /**
+     * Gets the update counter, incremented on every publish.
+     */
+    public long generation() {
+      return generation;
+    }
+
+    /**
+     * Gets the multiplier of a parameter, or 1 if no tuner targets it.
+     */
+    public double get(Identifier parameter) {
+      Integer slot = index.get(parameter);
+      return slot != null ? multipliers[slot] : 1.0;
+    }
+  }
+
+  /**
+   * Compiled tuners: configuration and state as parallel primitive arrays,
+   * sorted by strategy. Only used under the engine lock.
+   */
+  static final class Program {
+    final TunerSpec[] specs;
+    final int count;
+    // Tuners of strategy s occupy [strategyStart[s], strategyStart[s + 1])
+    final int[] strategyStart = new int[STRATEGIES.length + 1];
+
+    final double[] target;
+    final double[] scale;
+    final double[] sign;
+    final double[] gain;
+    final double[] rate;
+    final double[] min;
+    final double[] max;
+    final double[] kp;
+    final double[] ki;
+    final double[] kd;
+    final int[] stepOffset;
+    final int[] stepCount;
+    final double[] stepErrors;
+    final double[] stepMultipliers;
+    final CustomTuningFunction[] custom;
+    final Map<Identifier, Integer> parameterIndex;
+
+    // State carried between updates
+    final double[] multiplier;
+    final double[] integral;
+    final double[] previousError;
+    final boolean[] hasPrevious;
+
+    // Scratch
+    final double[] observed;
+    final double[] error;
+    final double[] desired;
+    final boolean[] active;
+
+    private Program(TunerSpec[] specs, Map<Identifier, CustomTuningFunction> functions) {
+      this.specs = specs;
+      this.count = specs.length;
+      target = new double[count];
+      scale = new double[count];
+      sign = new double[count];
+      gain = new double[count];
+      rate = new double[count];
+      min = new double[count];
+      max = new double[count];
+      kp = new double[count];
+      ki = new double[count];
+      kd = new double[count];
+      stepOffset = new int[count];
+      stepCount = new int[count];
+      custom = new CustomTuningFunction[count];
+      multiplier = new double[count];
+      integral = new double[count];
+      previousError = new double[count];
+      hasPrevious = new boolean[count];
+      observed = new double[count];
+      error = new double[count];
+      desired = new double[count];
+      active = new boolean[count];
+
+      int totalSteps = 0;
+      for (TunerSpec spec : specs) {
+        totalSteps += spec.stepErrors().length;
+      }
+      stepErrors = new double[totalSteps];
+      stepMultipliers = new double[totalSteps];
+
+      Map<Identifier, Integer> index = new HashMap<>();
+      int step = 0;
+      for (int i = 0; i < count; i++) {
+        TunerSpec spec = specs[i];
+        target[i] = spec.target();
+        scale[i] = Math.max(Math.abs(spec.target()), MIN_SCALE);
+        sign[i] = spec.inverted() ? -1.0 : 1.0;
+        gain[i] = spec.gain();
+        rate[i] = spec.rate();
+        min[i] = spec.minMultiplier();
+        max[i] = spec.maxMultiplier();
+        kp[i] = spec.kp();
+        ki[i] = spec.ki();
+        kd[i] = spec.kd();
+        stepOffset[i] = step;
+        stepCount[i] = spec.stepErrors().length;
+        System.arraycopy(spec.stepErrors(), 0, stepErrors, step, stepCount[i]);
+        System.arraycopy(spec.stepMultipliers(), 0, stepMultipliers, step, stepCount[i]);
+        step += stepCount[i];
+        if (spec.strategy() == TuningStrategy.CUSTOM) {
+          custom[i] = functions.get(spec.function());
+          if (custom[i] == null) {
+            EntomologyMod.LOGGER.warn("Unknown tuning function {} for tuner {}", spec.function(), spec.id());
+          }
+        }
+        multiplier[i] = clamp(1.0, min[i], max[i]);
+        index.put(spec.parameter(), i);
+      }
+      parameterIndex = Map.copyOf(index);
+    }
+
+    static Program compile(List<TunerSpec> specs, Map<Identifier, CustomTuningFunction> functions,
+        Program previous) {
+      // Later tuners win when several target the same parameter
+      Map<Identifier, TunerSpec> byParameter = new LinkedHashMap<>();
+      for (TunerSpec spec : specs) {
+        byParameter.remove(spec.parameter());
+        byParameter.put(spec.parameter(), spec);
+      }
+      TunerSpec[] sorted = byParameter.values().toArray(new TunerSpec[0]);
+      Arrays.sort(sorted, Comparator.comparingInt(spec -> spec.strategy().ordinal()));
+
+      Program program = new Program(sorted, functions);
+      int i = 0;
+      for (int s = 0; s < STRATEGIES.length; s++) {
+        program.strategyStart[s] = i;
+        while (i < sorted.length && sorted[i].strategy().ordinal() == s) {
+          i++;
+        }
+      }
+      program.strategyStart[STRATEGIES.length] = sorted.length;
+
+      if (previous != null) {
+        program.carryStateFrom(previous);
+      }
+      return program;
+    }
+
+    private void carryStateFrom(Program previous) {
+      Map<Identifier, Integer> previousById = new HashMap<>();
+      for (int i = 0; i < previous.count; i++) {
+        previousById.put(previous.specs[i].id(), i);
+      }
+      for (int i = 0; i < count; i++) {
+        Integer old = previousById.get(specs[i].id());
+        if (old != null) {
+          multiplier[i] = clamp(previous.multiplier[old], min[i], max[i]);
+          integral[i] = previous.integral[old];
+          previousError[i] = previous.previousError[old];
+          hasPrevious[i] = previous.hasPrevious[old];
+        }
+      }
+    }
+
+    void evaluate(ITelemetryData data, double dt) {
+      // Gather: metrics without recent samples hold their multiplier
+      for (int i = 0; i < count; i++) {
+        String metric = specs[i].metric();
+        active[i] = data.getWindow(metric).getCount() > 0;
+        observed[i] = active[i] ? data.getMetric(metric) : target[i];
+      }
+
+      for (int i = 0; i < count; i++) {
+        error[i] = sign[i] * (target[i] - observed[i]) / scale[i];
+      }
+
+      range(TuningStrategy.LINEAR, (from, to) -> {
+        for (int i = from; i < to; i++) {
+          desired[i] = 1.0 + gain[i] * error[i];
+        }
+      });
+      range(TuningStrategy.EXPONENTIAL, (from, to) -> {
+        for (int i = from; i < to; i++) {
+          desired[i] = Math.exp(gain[i] * error[i]);
+        }
+      });
+      range(TuningStrategy.LOGARITHMIC, (from, to) -> {
+        for (int i = from; i < to; i++) {
+          desired[i] = 1.0 + gain[i] * Math.signum(error[i]) * Math.log1p(Math.abs(error[i]));
+        }
+      });
+      range(TuningStrategy.STEPPED, (from, to) -> {
+        for (int i = from; i < to; i++) {
+          double value = 1.0;
+          int end = stepOffset[i] + stepCount[i];
+          for (int s = stepOffset[i]; s < end && stepErrors[s] <= error[i]; s++) {
+            value = stepMultipliers[s];
+          }
+          desired[i] = value;
+        }
+      });
+      range(TuningStrategy.PID, (from, to) -> {
+        for (int i = from; i < to; i++) {
+          desired[i] = pid(i, dt);
+        }
+      });
+      range(TuningStrategy.CUSTOM, (from, to) -> {
+        for (int i = from; i < to; i++) {
+          desired[i] = custom[i] != null
+              ? custom[i].compute(observed[i], target[i], error[i])
+              : multiplier[i];
+        }
+      });
+
+      // Move towards the desired value at the tuner's rate, within bounds
+      for (int i = 0; i < count; i++) {
+        if (active[i] && Double.isFinite(desired[i])) {
+          double next = multiplier[i] + rate[i] * (desired[i] - multiplier[i]);
+          multiplier[i] = clamp(next, min[i], max[i]);
+        }
+      }
+    }
+
+    /**
+     * PID output around a multiplier of 1.0. Anti-windup by conditional
+     * integration: the integral only grows while the output is not
+     * saturated in the direction of the error.
+     */
+    private double pid(int i, double dt) {
+      if (!active[i]) {
+        return multiplier[i];
+      }
+      double e = error[i];
+      double derivative = hasPrevious[i] && dt > 0.0 ? (e - previousError[i]) / dt : 0.0;
+      previousError[i] = e;
+      hasPrevious[i] = true;
+
+      double proportional = 1.0 + kp[i] * e + kd[i] * derivative;
+      double candidate = integral[i] + e * dt;
+      double output = proportional + ki[i] * candidate;
+      boolean saturatedHigh = output > max[i] && e > 0.0;
+      boolean saturatedLow = output < min[i] && e < 0.0;
+      if (saturatedHigh || saturatedLow) {
+        output = proportional + ki[i] * integral[i];
+      } else {
+        integral[i] = candidate;
+      }
+      return output;
+    }
+
+    private void range(TuningStrategy strategy, RangeLoop loop) {
+      int from = strategyStart[strategy.ordinal()];
+      int to = strategyStart[strategy.ordinal() + 1];
+      if (from < to) {
+        loop.run(from, to);
+      }
+    }
+
+    Result publish(long generation) {
+      return new Result(generation, parameterIndex, multiplier.clone());
+    }
+
+    private static double clamp(double value, double min, double max) {
+      return Math.max(min, Math.min(max, value));
+    }
+  }
+
+  @FunctionalInterface
+  private interface RangeLoop {
+    void run(int from, int to);
+  }
+}
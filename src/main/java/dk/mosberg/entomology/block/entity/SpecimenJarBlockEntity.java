@@ -1,14 +1,20 @@
 package dk.mosberg.entomology.block.entity;
 
 import dk.mosberg.entomology.EntomologyMod;
+import dk.mosberg.entomology.api.mechanics.IMechanicContext;
 import dk.mosberg.entomology.data.DataDrivenRegistry;
 import dk.mosberg.entomology.data.SpecimenDefinition;
+import dk.mosberg.entomology.integration.SystemIntegration;
+import dk.mosberg.entomology.mechanics.MechanicContext;
+import dk.mosberg.entomology.mechanics.environment.EnvironmentalScheduler;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.entity.BlockEntity;
 import net.minecraft.registry.RegistryWrapper;
 import net.minecraft.storage.ReadView;
 import net.minecraft.storage.WriteView;
 import net.minecraft.nbt.NbtCompound;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Identifier;
 import net.minecraft.util.math.BlockPos;
 
 /**
@@ -16,6 +22,7 @@ import net.minecraft.util.math.BlockPos;
  */
 public class SpecimenJarBlockEntity extends BlockEntity {
   private String specimenId;
+  private double environmentSuitability = -1.0; // Not persisted; refreshed by the scheduler
 
   public SpecimenJarBlockEntity(BlockPos pos, BlockState state) {
     super(EntomologyMod.specimenJarBe, pos, state);
@@ -30,6 +37,56 @@ public class SpecimenJarBlockEntity extends BlockEntity {
     return specimenId;
   }
 
+  /**
+   * Gets the last environmental suitability score (0-1), or -1 if not yet
+   * evaluated.
+   */
+  public double getEnvironmentSuitability() {
+    return environmentSuitability;
+  }
+
+  /**
+   * Registers this jar for staggered environmental checks.
+   */
+  public void scheduleEnvironmentChecks(ServerWorld world) {
+    EnvironmentalScheduler.getInstance().register(this, pos.asLong(),
+        () -> evaluateEnvironment(world));
+  }
+
+  /**
+   * Submits an environmental check for the stored specimen.
+   *
+   * @return false once the jar is removed, to unregister it
+   */
+  private boolean evaluateEnvironment(ServerWorld world) {
+    if (isRemoved()) {
+      return false;
+    }
+    if (specimenId == null) {
+      return true;
+    }
+
+    Identifier id = specimenId.indexOf(':') >= 0
+        ? Identifier.tryParse(specimenId)
+        : EntomologyMod.id(specimenId);
+    if (id == null) {
+      return true;
+    }
+
+    IMechanicContext context = MechanicContext.builder()
+        .world(world)
+        .position(pos)
+        .specimenId(id)
+        .type(IMechanicContext.ContextType.ENVIRONMENTAL)
+        .build();
+    SystemIntegration.getInstance().getDispatcher().submit(context, (mechanic, result) -> {
+      if (result.isSuccess() && result.getData("suitability").orElse(null) instanceof Number score) {
+        environmentSuitability = score.doubleValue();
+      }
+    });
+    return true;
+  }
+
   public SpecimenDefinition getSpecimen() {
     return specimenId != null ? DataDrivenRegistry.getSpecimen(specimenId) : null;
   }
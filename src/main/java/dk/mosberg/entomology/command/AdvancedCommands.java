@@ -4,16 +4,25 @@ import com.mojang.brigadier.CommandDispatcher;
 import com.mojang.brigadier.context.CommandContext;
 import dk.mosberg.entomology.balance.TelemetrySystem;
 import dk.mosberg.entomology.integration.SystemIntegration;
+import dk.mosberg.entomology.profiler.ProfileReport;
+import dk.mosberg.entomology.profiler.TickProfiler;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.command.CommandManager;
 import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.text.Text;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Map;
 
 /**
  * Advanced commands for system management.
  */
 public class AdvancedCommands {
+  private static final int MAX_REPORTED_ISSUES = 10;
+  private static final Path PROFILE_DIRECTORY = Paths.get("debug");
+
   public static void register(CommandDispatcher<ServerCommandSource> dispatcher) {
     dispatcher.register(CommandManager.literal("entomology")
         .then(CommandManager.literal("reload")
@@ -24,7 +33,15 @@ public class AdvancedCommands {
             .executes(AdvancedCommands::showStats))
         .then(CommandManager.literal("validate")
             .requires(source -> source.hasPermissionLevel(2))
-            .executes(AdvancedCommands::validate)));
+            .executes(AdvancedCommands::validate))
+        .then(CommandManager.literal("profile")
+            .requires(source -> source.hasPermissionLevel(2))
+            .then(CommandManager.literal("start")
+                .executes(AdvancedCommands::startProfile))
+            .then(CommandManager.literal("stop")
+                .executes(AdvancedCommands::stopProfile))
+            .then(CommandManager.literal("dump")
+                .executes(AdvancedCommands::dumpProfile))));
   }
 
   private static int reload(CommandContext<ServerCommandSource> context) {
@@ -73,29 +90,85 @@ public class AdvancedCommands {
     return 1;
   }
 
-  private static int validate(CommandContext<ServerCommandSource> context) {
+  private static int startProfile(CommandContext<ServerCommandSource> context) {
+    TickProfiler.getInstance().start();
     context.getSource().sendFeedback(
+        () -> Text.literal("§aEntomology tick profiling started"),
+        true);
+    return 1;
+  }
+
+  private static int stopProfile(CommandContext<ServerCommandSource> context) {
+    TickProfiler profiler = TickProfiler.getInstance();
+    if (!profiler.isRunning()) {
+      context.getSource().sendError(Text.literal("§cTick profiling is not running"));
+      return 0;
+    }
+
+    ProfileReport report = profiler.stop();
+    context.getSource().sendFeedback(
+        () -> Text.literal(String.format("§aProfiled %d ticks: §f%.3f ms/tick, %.1f%% of the tick budget",
+            report.ticks(),
+            report.windowTicks() == 0 ? 0.0 : report.getWindowNanos() / 1.0e6 / report.windowTicks(),
+            report.getBudgetShare() * 100.0)),
+        true);
+    return dumpProfile(context);
+  }
+
+  private static int dumpProfile(CommandContext<ServerCommandSource> context) {
+    try {
+      Path file = TickProfiler.getInstance().dump(PROFILE_DIRECTORY);
+      context.getSource().sendFeedback(
+          () -> Text.literal("§eProfile written to " + file),
+          false);
+      return 1;
+    } catch (IOException e) {
+      context.getSource().sendError(
+          Text.literal("§cFailed to write profile: " + e.getMessage()));
+      return 0;
+    }
+  }
+
+  private static int validate(CommandContext<ServerCommandSource> context) {
+    ServerCommandSource source = context.getSource();
+    source.sendFeedback(
         () -> Text.literal("§eValidating configurations..."),
         false);
 
+    boolean mechanicsValid;
     try {
-      // Validate all system configurations
-      boolean valid = SystemIntegration.getInstance().validate();
-
-      if (valid) {
-        context.getSource().sendFeedback(
-            () -> Text.literal("§aValidation complete! All configurations valid."),
-            false);
-        return 1;
-      } else {
-        context.getSource().sendError(
-            Text.literal("§cValidation failed: One or more configurations invalid"));
-        return 0;
-      }
+      mechanicsValid = SystemIntegration.getInstance().validate();
     } catch (Exception e) {
-      context.getSource().sendError(
+      source.sendError(
           Text.literal("§cValidation failed: " + e.getMessage()));
       return 0;
     }
+    if (!mechanicsValid) {
+      source.sendError(
+          Text.literal("§cValidation failed: One or more configurations invalid"));
+      return 0;
+    }
+
+    // Data pack validation runs off the server thread; report back on it
+    MinecraftServer server = source.getServer();
+    SystemIntegration.getInstance().validateDataPack(server.getResourceManager())
+        .whenComplete((report, error) -> server.execute(() -> {
+          if (error != null) {
+            source.sendError(
+                Text.literal("§cValidation failed: " + error.getMessage()));
+          } else if (report.isValid()) {
+            source.sendFeedback(
+                () -> Text.literal("§aValidation complete! " + report.summary()),
+                false);
+          } else {
+            source.sendError(Text.literal("§c" + report.summary()));
+            report.issues().stream().limit(MAX_REPORTED_ISSUES).forEach(issue ->
+                source.sendError(Text.literal("§c- " + issue)));
+            if (report.issues().size() > MAX_REPORTED_ISSUES) {
+              source.sendError(Text.literal("§c... see the server log for the full report"));
+            }
+          }
+        }));
+    return 1;
   }
 }
@@ -0,0 +1,103 @@
+package dk.mosberg.entomology.config;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.function.Function;
+
+/**
+ * Precompiled, typed handle to one configuration value.
+ *
+ * The dotted path is split once at construction, and the parsed value is
+ * cached until the next configuration change, so {@link #get()} on an
+ * unchanged configuration is a volatile read and a version compare.
+ *
+ * Usage:
+ * <pre>{@code
+ * private static final ConfigKey<Double> BASE_CHANCE =
+ *     ConfigKey.ofDouble("mechanics", "breeding.baseChance", 0.25);
+ *
+ * double chance = BASE_CHANCE.get();
+ * }</pre>
+ *
+ * @param <T> value type
+ */
+public final class ConfigKey<T> {
+  private final String configName;
+  private final String path;
+  private final String[] parts;
+  private final T defaultValue;
+  private final Function<JsonElement, T> parser;
+  private volatile Cached<T> cached;
+
+  private ConfigKey(String configName, String path, T defaultValue, Function<JsonElement, T> parser) {
+    if (defaultValue == null) {
+      throw new IllegalArgumentException("Default value is required for " + configName + ":" + path);
+    }
+    this.configName = configName;
+    this.path = path;
+    this.parts = ConfigManager.splitPath(path);
+    this.defaultValue = defaultValue;
+    this.parser = parser;
+  }
+
+  public static ConfigKey<Boolean> ofBoolean(String configName, String path, boolean defaultValue) {
+    return new ConfigKey<>(configName, path, defaultValue, JsonElement::getAsBoolean);
+  }
+
+  public static ConfigKey<Integer> ofInt(String configName, String path, int defaultValue) {
+    return new ConfigKey<>(configName, path, defaultValue, JsonElement::getAsInt);
+  }
+
+  public static ConfigKey<Double> ofDouble(String configName, String path, double defaultValue) {
+    return new ConfigKey<>(configName, path, defaultValue, JsonElement::getAsDouble);
+  }
+
+  public static ConfigKey<String> ofString(String configName, String path, String defaultValue) {
+    return new ConfigKey<>(configName, path, defaultValue, JsonElement::getAsString);
+  }
+
+  /**
+   * Gets the current value from the global {@link ConfigManager}.
+   */
+  public T get() {
+    return ConfigManager.getInstance().get(this);
+  }
+
+  public String getConfigName() {
+    return configName;
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  public T getDefaultValue() {
+    return defaultValue;
+  }
+
+  /**
+   * Gets the cached value if it was resolved for the given snapshot version.
+   */
+  T cached(long version) {
+    Cached<T> current = cached;
+    return current != null && current.version == version ? current.value : null;
+  }
+
+  /**
+   * Resolves the value from a configuration and caches it for a version.
+   */
+  T resolve(long version, JsonObject config) {
+    T value = ConfigManager.convert(ConfigManager.walk(config, parts), parser, defaultValue, path);
+    cached = new Cached<>(version, value);
+    return value;
+  }
+
+  @Override
+  public String toString() {
+    return configName + ":" + path;
+  }
+
+  private record Cached<T>(long version, T value) {
+  }
+}
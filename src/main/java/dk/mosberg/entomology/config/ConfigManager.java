@@ -9,42 +9,72 @@ import dk.mosberg.entomology.EntomologyMod;
 
 import java.io.IOException;
 import java.io.Reader;
-import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
 
 /**
  * Manages mod configuration with hot-reload support.
  * Configuration is hierarchical: default -> file -> runtime overrides
  *
- * Thread Safety: All methods are synchronized for thread-safe access
+ * Thread Safety: reads are lock-free. All configurations are published as
+ * one immutable snapshot through a volatile reference; writers copy the
+ * affected configuration, modify the copy and publish a new snapshot under
+ * a write lock. Configuration objects handed out by {@link #get},
+ * {@link #loadConfig} and listeners belong to a snapshot and must be treated
+ * as read-only. Prefer {@link ConfigKey} handles for repeated reads.
+ *
+ * Saves are written behind: the snapshot updates immediately, while the
+ * file is written shortly after on a background thread, coalescing bursts
+ * of changes to the same configuration into one write.
  */
 public class ConfigManager {
   private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
-  private static ConfigManager instance;
+  private static final Map<String, String[]> SPLIT_PATHS = new ConcurrentHashMap<>();
+  private static volatile ConfigManager instance;
 
   private final Path configDir;
-  private final Map<String, JsonObject> configs = new HashMap<>();
-  private final Map<String, List<ConfigListener>> listeners = new HashMap<>();
+  private final Object writeLock = new Object();
+  private final WriteBehindWriter writer =
+      new WriteBehindWriter("Entomology Config Writer", WriteBehindWriter.DEFAULT_DELAY_MILLIS);
+  private volatile Snapshot snapshot = new Snapshot(Map.of(), 0L);
+  private final Map<String, List<ConfigListener>> listeners = new ConcurrentHashMap<>();
 
   private ConfigManager(Path configDir) {
     this.configDir = configDir;
   }
 
-  public static synchronized ConfigManager getInstance() {
-    if (instance == null) {
-      Path configPath = Paths.get("config", EntomologyMod.MODID);
-      instance = new ConfigManager(configPath);
-      instance.initialize();
+  public static ConfigManager getInstance() {
+    ConfigManager current = instance;
+    if (current != null) {
+      return current;
+    }
+    synchronized (ConfigManager.class) {
+      if (instance == null) {
+        Path configPath = Paths.get("config", EntomologyMod.MODID);
+        ConfigManager created = new ConfigManager(configPath);
+        created.initialize();
+        instance = created;
+      }
+      return instance;
     }
-    return instance;
+  }
+
+  /**
+   * Immutable view of all loaded configurations.
+   *
+   * @param configs configurations by name
+   * @param version incremented on every change
+   */
+  record Snapshot(Map<String, JsonObject> configs, long version) {
   }
 
   private void initialize() {
@@ -57,18 +87,32 @@ public class ConfigManager {
   }
 
   /**
-   * Loads all configuration files from disk.
+   * Loads all configuration files from disk. Readers keep seeing the
+   * previous snapshot until every file has been read.
    */
-  public synchronized void loadAllConfigs() {
-    configs.clear();
-
-    try (DirectoryStream<Path> stream = Files.newDirectoryStream(configDir, "*.json")) {
-      for (Path file : stream) {
-        String name = file.getFileName().toString().replace(".json", "");
-        loadConfig(name);
+  public void loadAllConfigs() {
+    synchronized (writeLock) {
+      writer.flush();
+
+      Map<String, JsonObject> configs = new HashMap<>();
+      try (DirectoryStream<Path> stream = Files.newDirectoryStream(configDir, "*.json")) {
+        for (Path file : stream) {
+          String name = file.getFileName().toString().replace(".json", "");
+          try {
+            JsonObject config = readFile(file);
+            if (config != null) {
+              configs.put(name, config);
+            }
+          } catch (IOException | JsonParseException e) {
+            EntomologyMod.LOGGER.error("Failed to load config: " + name, e);
+          }
+        }
+      } catch (IOException e) {
+        EntomologyMod.LOGGER.error("Failed to load configs", e);
       }
-    } catch (IOException e) {
-      EntomologyMod.LOGGER.error("Failed to load configs", e);
+
+      publish(configs);
+      configs.forEach(this::notifyListeners);
     }
   }
 
@@ -79,45 +123,60 @@ public class ConfigManager {
    * @param name config name without .json extension
    * @return the loaded configuration
    */
-  public synchronized JsonObject loadConfig(String name) {
+  public JsonObject loadConfig(String name) {
     Path file = configDir.resolve(name + ".json");
 
-    try {
-      if (!Files.exists(file)) {
-        JsonObject defaults = getDefaultConfig(name);
-        saveConfig(name, defaults);
-        return defaults;
-      }
+    synchronized (writeLock) {
+      try {
+        // Read back what we last saved, not an older file
+        writer.flush(file);
+        if (!Files.exists(file)) {
+          JsonObject defaults = getDefaultConfig(name);
+          saveConfig(name, defaults);
+          return defaults;
+        }
 
-      try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
-        JsonObject config = GSON.fromJson(reader, JsonObject.class);
-        configs.put(name, config);
+        JsonObject config = readFile(file);
+        put(name, config);
         notifyListeners(name, config);
         return config;
+      } catch (IOException | JsonParseException e) {
+        EntomologyMod.LOGGER.error("Failed to load config: " + name, e);
+        return new JsonObject();
       }
-    } catch (IOException | JsonParseException e) {
-      EntomologyMod.LOGGER.error("Failed to load config: " + name, e);
-      return new JsonObject();
+    }
+  }
+
+  private static JsonObject readFile(Path file) throws IOException {
+    try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      return GSON.fromJson(reader, JsonObject.class);
     }
   }
 
   /**
-   * Saves a configuration to disk.
+   * Saves a configuration. The snapshot is updated immediately and the file
+   * is written in the background; see {@link #flush()}.
+   * The manager keeps the given object; callers must not modify it afterwards.
    *
    * @param name   config name
    * @param config config data
    */
-  public synchronized void saveConfig(String name, JsonObject config) {
+  public void saveConfig(String name, JsonObject config) {
     Path file = configDir.resolve(name + ".json");
 
-    try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
-      GSON.toJson(config, writer);
-      configs.put(name, config);
-    } catch (IOException e) {
-      EntomologyMod.LOGGER.error("Failed to save config: " + name, e);
+    synchronized (writeLock) {
+      put(name, config);
+      writer.write(file, () -> GSON.toJson(config).getBytes(StandardCharsets.UTF_8));
     }
   }
 
+  /**
+   * Writes all pending configuration changes to disk now.
+   */
+  public void flush() {
+    writer.flush();
+  }
+
   /**
    * Gets a configuration value.
    *
@@ -126,78 +185,91 @@ public class ConfigManager {
    * @param defaultValue default if not found
    * @return the value or default
    */
-  public synchronized <T> T get(String configName, String path, T defaultValue) {
-    JsonObject config = configs.get(configName);
+  public <T> T get(String configName, String path, T defaultValue) {
+    JsonObject config = snapshot.configs().get(configName);
     if (config == null) {
       config = loadConfig(configName);
     }
 
-    String[] parts = path.split("\\.");
-    JsonElement current = config;
-
-    for (String part : parts) {
-      if (current == null || !current.isJsonObject()) {
-        return defaultValue;
-      }
-      current = current.getAsJsonObject().get(part);
-    }
+    JsonElement current = walk(config, splitPath(path));
+    // Type-safe casting based on runtime type checking
+    @SuppressWarnings("unchecked")
+    Function<JsonElement, T> parser = element -> (T) switch (defaultValue) {
+      case Boolean b -> Boolean.valueOf(element.getAsBoolean());
+      case Integer i -> Integer.valueOf(element.getAsInt());
+      case Double d -> Double.valueOf(element.getAsDouble());
+      case String s -> element.getAsString();
+      default -> defaultValue;
+    };
+    return convert(current, parser, defaultValue, path);
+  }
 
-    if (current == null) {
-      return defaultValue;
+  /**
+   * Gets a configuration value through a precompiled handle.
+   * Wait-free and allocation-free unless the configuration changed since
+   * the handle was last read.
+   */
+  public <T> T get(ConfigKey<T> key) {
+    Snapshot current = snapshot;
+    T value = key.cached(current.version());
+    if (value != null) {
+      return value;
     }
 
-    try {
-      // Type-safe casting based on runtime type checking
-      @SuppressWarnings("unchecked")
-      T result = (T) switch (defaultValue) {
-        case Boolean b -> Boolean.valueOf(current.getAsBoolean());
-        case Integer i -> Integer.valueOf(current.getAsInt());
-        case Double d -> Double.valueOf(current.getAsDouble());
-        case String s -> current.getAsString();
-        default -> defaultValue;
-      };
-      return result;
-    } catch (Exception e) {
-      EntomologyMod.LOGGER.warn("Failed to parse config value at " + path, e);
+    JsonObject config = current.configs().get(key.getConfigName());
+    if (config == null) {
+      loadConfig(key.getConfigName());
+      current = snapshot;
+      config = current.configs().get(key.getConfigName());
     }
+    return key.resolve(current.version(), config);
+  }
 
-    return defaultValue;
+  /**
+   * Gets the version of the current snapshot; incremented on every change.
+   */
+  public long getVersion() {
+    return snapshot.version();
   }
 
   /**
-   * Sets a configuration value and saves immediately.
+   * Sets a configuration value and schedules a save.
    *
    * @param configName config file name
    * @param path       dot-separated path
    * @param value      the value to set
    */
-  public synchronized void set(String configName, String path, Object value) {
-    JsonObject config = configs.computeIfAbsent(configName, k -> new JsonObject());
-
-    String[] parts = path.split("\\.");
-    JsonObject current = config;
+  public void set(String configName, String path, Object value) {
+    synchronized (writeLock) {
+      JsonObject existing = snapshot.configs().get(configName);
+      // Copy-on-write: published snapshots are never modified
+      JsonObject config = existing != null ? existing.deepCopy() : new JsonObject();
+
+      String[] parts = splitPath(path);
+      JsonObject current = config;
+
+      for (int i = 0; i < parts.length - 1; i++) {
+        String part = parts[i];
+        if (!current.has(part) || !current.get(part).isJsonObject()) {
+          current.add(part, new JsonObject());
+        }
+        current = current.getAsJsonObject(part);
+      }
 
-    for (int i = 0; i < parts.length - 1; i++) {
-      String part = parts[i];
-      if (!current.has(part) || !current.get(part).isJsonObject()) {
-        current.add(part, new JsonObject());
+      String lastKey = parts[parts.length - 1];
+      if (value instanceof Boolean) {
+        current.addProperty(lastKey, (Boolean) value);
+      } else if (value instanceof Number) {
+        current.addProperty(lastKey, (Number) value);
+      } else if (value instanceof String) {
+        current.addProperty(lastKey, (String) value);
+      } else {
+        current.add(lastKey, GSON.toJsonTree(value));
       }
-      current = current.getAsJsonObject(part);
-    }
 
-    String lastKey = parts[parts.length - 1];
-    if (value instanceof Boolean) {
-      current.addProperty(lastKey, (Boolean) value);
-    } else if (value instanceof Number) {
-      current.addProperty(lastKey, (Number) value);
-    } else if (value instanceof String) {
-      current.addProperty(lastKey, (String) value);
-    } else {
-      current.add(lastKey, GSON.toJsonTree(value));
+      saveConfig(configName, config);
+      notifyListeners(configName, config);
     }
-
-    saveConfig(configName, config);
-    notifyListeners(configName, config);
   }
 
   /**
@@ -206,8 +278,8 @@ public class ConfigManager {
    * @param configName config file to watch
    * @param listener   callback invoked on changes
    */
-  public synchronized void addListener(String configName, ConfigListener listener) {
-    listeners.computeIfAbsent(configName, k -> new ArrayList<>()).add(listener);
+  public void addListener(String configName, ConfigListener listener) {
+    listeners.computeIfAbsent(configName, k -> new CopyOnWriteArrayList<>()).add(listener);
   }
 
   private void notifyListeners(String configName, JsonObject config) {
@@ -223,6 +295,55 @@ public class ConfigManager {
     }
   }
 
+  /**
+   * Publishes a snapshot with one configuration replaced. Caller holds the write lock.
+   */
+  private void put(String name, JsonObject config) {
+    Map<String, JsonObject> configs = new HashMap<>(snapshot.configs());
+    configs.put(name, config);
+    publish(configs);
+  }
+
+  private void publish(Map<String, JsonObject> configs) {
+    snapshot = new Snapshot(Map.copyOf(configs), snapshot.version() + 1);
+  }
+
+  /**
+   * Splits a dotted path, caching the result.
+   */
+  static String[] splitPath(String path) {
+    return SPLIT_PATHS.computeIfAbsent(path, p -> p.split("\\."));
+  }
+
+  /**
+   * Walks a configuration tree; returns null if any segment is missing.
+   */
+  static JsonElement walk(JsonObject config, String[] parts) {
+    JsonElement current = config;
+    for (String part : parts) {
+      if (current == null || !current.isJsonObject()) {
+        return null;
+      }
+      current = current.getAsJsonObject().get(part);
+    }
+    return current;
+  }
+
+  /**
+   * Parses a configuration value, falling back to the default on absence or error.
+   */
+  static <T> T convert(JsonElement element, Function<JsonElement, T> parser, T defaultValue, String path) {
+    if (element == null || element.isJsonNull()) {
+      return defaultValue;
+    }
+    try {
+      return parser.apply(element);
+    } catch (Exception e) {
+      EntomologyMod.LOGGER.warn("Failed to parse config value at " + path, e);
+      return defaultValue;
+    }
+  }
+
   private JsonObject getDefaultConfig(String name) {
     JsonObject config = new JsonObject();
 
@@ -30,6 +30,21 @@ public class EntomologyConfig {
 
   public static boolean debugMode = false;
 
+  // Reuse parsed data-pack definitions from a binary cache when the JSON is unchanged
+  public static boolean useCompiledDataCache = true;
+
+  // Hot-reload config/entomology files when they change on disk
+  public static boolean watchConfigFiles = true;
+
+  // Prometheus endpoint for telemetry; 0 disables it
+  public static int metricsPort = 0;
+  public static String metricsBindAddress = "127.0.0.1";
+
+  // Telemetry snapshots appended to logs/entomology-telemetry.jsonl; 0 disables it
+  public static int telemetryLogIntervalSeconds = 0;
+  public static int telemetryLogMaxMegabytes = 16;
+  public static int telemetryLogMaxFiles = 5;
+
   /**
    * Load configuration from file or create default if not exists.
    */
@@ -65,6 +80,13 @@ public class EntomologyConfig {
       data.netCaptureChance = netCaptureChance;
       data.specimenJarMaxAge = specimenJarMaxAge;
       data.debugMode = debugMode;
+      data.useCompiledDataCache = useCompiledDataCache;
+      data.watchConfigFiles = watchConfigFiles;
+      data.metricsPort = metricsPort;
+      data.metricsBindAddress = metricsBindAddress;
+      data.telemetryLogIntervalSeconds = telemetryLogIntervalSeconds;
+      data.telemetryLogMaxMegabytes = telemetryLogMaxMegabytes;
+      data.telemetryLogMaxFiles = telemetryLogMaxFiles;
 
       String json = GSON.toJson(data);
       Files.createDirectories(CONFIG_PATH.getParent());
@@ -84,6 +106,13 @@ public class EntomologyConfig {
     netCaptureChance = data.netCaptureChance;
     specimenJarMaxAge = data.specimenJarMaxAge;
     debugMode = data.debugMode;
+    useCompiledDataCache = data.useCompiledDataCache;
+    watchConfigFiles = data.watchConfigFiles;
+    metricsPort = data.metricsPort;
+    metricsBindAddress = data.metricsBindAddress;
+    telemetryLogIntervalSeconds = data.telemetryLogIntervalSeconds;
+    telemetryLogMaxMegabytes = data.telemetryLogMaxMegabytes;
+    telemetryLogMaxFiles = data.telemetryLogMaxFiles;
   }
 
   /**
@@ -98,5 +127,12 @@ public class EntomologyConfig {
     double netCaptureChance = 0.8;
     int specimenJarMaxAge = 72000;
     boolean debugMode = false;
+    boolean useCompiledDataCache = true;
+    boolean watchConfigFiles = true;
+    int metricsPort = 0;
+    String metricsBindAddress = "127.0.0.1";
+    int telemetryLogIntervalSeconds = 0;
+    int telemetryLogMaxMegabytes = 16;
+    int telemetryLogMaxFiles = 5;
   }
 }
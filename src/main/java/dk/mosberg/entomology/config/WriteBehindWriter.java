@@ -0,0 +1,123 @@
+package dk.mosberg.entomology.config;
+
+import dk.mosberg.entomology.EntomologyMod;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind persistence for configuration files.
+ *
+ * Writes to the same file within the coalescing window collapse into one;
+ * only the latest content is serialized and written. Writes run on a single
+ * background thread and replace the file atomically via a temp file, so
+ * readers never see a half-written config. Call {@link #flush(Path)} before
+ * reading a file back and {@link #close()} on shutdown.
+ */
+public class WriteBehindWriter implements AutoCloseable {
+  /**
+   * Default coalescing window.
+   */
+  public static final long DEFAULT_DELAY_MILLIS = 200;
+
+  private final Map<Path, Supplier<byte[]>> pending = new ConcurrentHashMap<>();
+  // Held while a file is written so flushes never interleave with the background thread
+  private final Object ioLock = new Object();
+  private final ScheduledExecutorService executor;
+  private final long delayMillis;
+
+  public WriteBehindWriter(String name, long delayMillis) {
+    this.delayMillis = delayMillis;
+    this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, name);
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Schedules a write, replacing any write of the same file still pending.
+   *
+   * @param file    target file
+   * @param content serializes the content; called on the writer thread, so
+   *                it must only capture data that is no longer modified
+   */
+  public void write(Path file, Supplier<byte[]> content) {
+    if (pending.put(file, content) == null) {
+      try {
+        executor.schedule(() -> writeNow(file), delayMillis, TimeUnit.MILLISECONDS);
+      } catch (RuntimeException e) {
+        // Shut down; persist on the caller instead of dropping the write
+        writeNow(file);
+      }
+    }
+  }
+
+  /**
+   * Writes a file now if a write is pending.
+   */
+  public void flush(Path file) {
+    if (pending.containsKey(file)) {
+      writeNow(file);
+    }
+  }
+
+  /**
+   * Writes all pending files now.
+   */
+  public void flush() {
+    for (Path file : new ArrayList<>(pending.keySet())) {
+      writeNow(file);
+    }
+  }
+
+  public boolean hasPendingWrites() {
+    return !pending.isEmpty();
+  }
+
+  /**
+   * Flushes pending writes and stops the writer thread.
+   */
+  @Override
+  public void close() {
+    executor.shutdown();
+    flush();
+  }
+
+  private void writeNow(Path file) {
+    synchronized (ioLock) {
+      Supplier<byte[]> content = pending.remove(file);
+      if (content == null) {
+        return;
+      }
+
+      Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+      try {
+        Files.createDirectories(file.getParent());
+        Files.write(temp, content.get());
+        try {
+          Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+          Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+      } catch (IOException | RuntimeException e) {
+        EntomologyMod.LOGGER.error("Failed to write config {}", file, e);
+        try {
+          Files.deleteIfExists(temp);
+        } catch (IOException ignored) {
+          // Best effort
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,218 @@
+package dk.mosberg.entomology.config.advanced;
+
+import dk.mosberg.entomology.EntomologyMod;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background watcher that hot-reloads configurations when their files change.
+ *
+ * Watches the config and schema roots of a {@link SchemaConfigManager}.
+ * Events for the same file are debounced, so an editor's save burst causes
+ * one reload. Reading, hashing and validation happen on the watcher thread;
+ * only validated configurations are handed to the publish executor (the
+ * server thread), where listeners are notified. Files whose content hash is
+ * unchanged, including the manager's own writes, are skipped.
+ */
+public class ConfigFileWatcher implements AutoCloseable {
+  /**
+   * Quiet period after the last event for a file before it is reloaded.
+   */
+  public static final long DEBOUNCE_MILLIS = 250;
+
+  private final SchemaConfigManager manager;
+  private final Executor publishExecutor;
+  private final Path configRoot;
+  private final Path schemaRoot;
+
+  // Only touched by the watcher thread
+  private final Map<Path, Long> pending = new HashMap<>();
+
+  private WatchService watchService;
+  private Thread thread;
+
+  /**
+   * @param manager         configurations to reload
+   * @param publishExecutor executor that publishes validated configurations
+   */
+  public ConfigFileWatcher(SchemaConfigManager manager, Executor publishExecutor) {
+    this.manager = manager;
+    this.publishExecutor = publishExecutor;
+    this.configRoot = manager.getConfigRoot().toAbsolutePath().normalize();
+    this.schemaRoot = manager.getSchemaRoot().toAbsolutePath().normalize();
+  }
+
+  /**
+   * Starts watching. Does nothing if already running.
+   */
+  public synchronized void start() throws IOException {
+    if (thread != null) {
+      return;
+    }
+
+    watchService = FileSystems.getDefault().newWatchService();
+    register(configRoot);
+    if (!schemaRoot.equals(configRoot)) {
+      register(schemaRoot);
+    }
+
+    thread = new Thread(this::run, "Entomology Config Watcher");
+    thread.setDaemon(true);
+    thread.start();
+    EntomologyMod.LOGGER.debug("Watching {} for configuration changes", configRoot);
+  }
+
+  /**
+   * Stops watching and waits briefly for the watcher thread to exit.
+   */
+  @Override
+  public synchronized void close() {
+    if (thread == null) {
+      return;
+    }
+
+    try {
+      watchService.close();
+    } catch (IOException e) {
+      EntomologyMod.LOGGER.warn("Failed to close config watch service", e);
+    }
+    thread.interrupt();
+    try {
+      thread.join(1000);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    thread = null;
+    watchService = null;
+  }
+
+  public synchronized boolean isRunning() {
+    return thread != null;
+  }
+
+  private void register(Path directory) throws IOException {
+    Files.createDirectories(directory);
+    directory.register(watchService,
+        StandardWatchEventKinds.ENTRY_CREATE,
+        StandardWatchEventKinds.ENTRY_MODIFY);
+  }
+
+  private void run() {
+    WatchService service = watchService;
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        WatchKey key;
+        if (pending.isEmpty()) {
+          key = service.take();
+        } else {
+          long wait = nextDeadline() - System.currentTimeMillis();
+          key = wait > 0 ? service.poll(wait, TimeUnit.MILLISECONDS) : service.poll();
+        }
+
+        if (key != null) {
+          collect(key);
+        }
+        processDue();
+      }
+    } catch (InterruptedException | ClosedWatchServiceException e) {
+      // Stopped
+    } catch (RuntimeException e) {
+      EntomologyMod.LOGGER.error("Config watcher stopped unexpectedly", e);
+    }
+  }
+
+  private void collect(WatchKey key) {
+    Path directory = ((Path) key.watchable()).toAbsolutePath().normalize();
+    long deadline = System.currentTimeMillis() + DEBOUNCE_MILLIS;
+
+    for (WatchEvent<?> event : key.pollEvents()) {
+      if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+        // Events were lost; recheck everything in this directory
+        queueAll(directory, deadline);
+        continue;
+      }
+      Path file = directory.resolve((Path) event.context());
+      if (file.getFileName().toString().endsWith(".json")) {
+        pending.put(file, deadline);
+      }
+    }
+    key.reset();
+  }
+
+  private void queueAll(Path directory, long deadline) {
+    try (var files = Files.list(directory)) {
+      files.filter(file -> file.getFileName().toString().endsWith(".json"))
+          .forEach(file -> pending.put(file, deadline));
+    } catch (IOException e) {
+      EntomologyMod.LOGGER.warn("Failed to list {}", directory, e);
+    }
+  }
+
+  private long nextDeadline() {
+    long next = Long.MAX_VALUE;
+    for (long deadline : pending.values()) {
+      next = Math.min(next, deadline);
+    }
+    return next;
+  }
+
+  private void processDue() {
+    long now = System.currentTimeMillis();
+    List<Path> due = new ArrayList<>();
+    Iterator<Map.Entry<Path, Long>> iterator = pending.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<Path, Long> entry = iterator.next();
+      if (entry.getValue() <= now) {
+        due.add(entry.getKey());
+        iterator.remove();
+      }
+    }
+
+    for (Path file : due) {
+      try {
+        process(file);
+      } catch (Exception e) {
+        EntomologyMod.LOGGER.error("Failed to hot-reload {}", file, e);
+      }
+    }
+  }
+
+  private void process(Path file) {
+    Path directory = file.getParent();
+    if (directory.equals(schemaRoot)) {
+      // A schema edit can change the verdict for unchanged configs
+      manager.getSchemaCache().invalidate(file);
+      for (String name : manager.getConfigsUsingSchema(file)) {
+        reload(name, true);
+      }
+    } else if (directory.equals(configRoot)) {
+      String fileName = file.getFileName().toString();
+      String name = fileName.substring(0, fileName.length() - ".json".length());
+      if (manager.isLoaded(name)) {
+        reload(name, false);
+      }
+    }
+  }
+
+  private void reload(String name, boolean force) {
+    SchemaConfigManager.PendingReload reload = manager.prepareReload(name, force);
+    if (reload != null) {
+      publishExecutor.execute(() -> manager.applyReload(reload));
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package dk.mosberg.entomology.config.advanced;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.Map;
+
+/**
+ * Converts Gson trees to the org.json types the everit validator expects,
+ * without serializing to a string and parsing it again.
+ *
+ * Numbers are converted to the same concrete types org.json's own parser
+ * would produce, so integer/number schema checks behave as before.
+ */
+public final class GsonJsonAdapter {
+  private GsonJsonAdapter() {
+  }
+
+  /**
+   * Converts a Gson object.
+   */
+  public static JSONObject toJson(JsonObject object) {
+    JSONObject result = new JSONObject();
+    for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+      result.put(entry.getKey(), toJsonValue(entry.getValue()));
+    }
+    return result;
+  }
+
+  /**
+   * Converts any Gson element to an org.json value.
+   */
+  public static Object toJsonValue(JsonElement element) {
+    if (element == null || element.isJsonNull()) {
+      return JSONObject.NULL;
+    }
+    if (element.isJsonObject()) {
+      return toJson(element.getAsJsonObject());
+    }
+    if (element.isJsonArray()) {
+      JsonArray array = element.getAsJsonArray();
+      JSONArray result = new JSONArray();
+      for (JsonElement item : array) {
+        result.put(toJsonValue(item));
+      }
+      return result;
+    }
+
+    JsonPrimitive primitive = element.getAsJsonPrimitive();
+    if (primitive.isBoolean()) {
+      return primitive.getAsBoolean();
+    }
+    if (primitive.isNumber()) {
+      Number number = primitive.getAsNumber();
+      if (number instanceof Integer || number instanceof Long || number instanceof Double) {
+        return number;
+      }
+      // Parsed numbers are lazy; resolve them the way org.json would
+      return JSONObject.stringToValue(number.toString());
+    }
+    return primitive.getAsString();
+  }
+}
@@ -0,0 +1,126 @@
+package dk.mosberg.entomology.config.advanced;
+
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.loader.SchemaLoader;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32C;
+
+/**
+ * Cache of compiled JSON schemas keyed by file path.
+ *
+ * A cached schema is reused while the file's modification time and size are
+ * unchanged. When they change the file is re-read, and the schema is only
+ * recompiled if the content checksum differs as well, so touching a file
+ * without editing it stays cheap. Compiled everit schemas are immutable and
+ * can be shared between threads.
+ *
+ * Schemas are compiled as draft 7, the newest draft everit supports; the
+ * {@code $schema} keyword of the bundled schemas names a later draft.
+ */
+public class SchemaCache {
+  private final Map<Path, Entry> entries = new ConcurrentHashMap<>();
+  private final Map<String, Schema> resources = new ConcurrentHashMap<>();
+  private int compileCount;
+
+  /**
+   * Gets the compiled schema for a file, compiling it if needed.
+   */
+  public Schema get(Path schemaFile) throws IOException {
+    Path key = schemaFile.toAbsolutePath().normalize();
+    BasicFileAttributes attributes = Files.readAttributes(key, BasicFileAttributes.class);
+    long modified = attributes.lastModifiedTime().toMillis();
+    long size = attributes.size();
+
+    Entry cached = entries.get(key);
+    if (cached != null && cached.modified == modified && cached.size == size) {
+      return cached.schema;
+    }
+
+    byte[] bytes = Files.readAllBytes(key);
+    long checksum = checksum(bytes);
+    Schema schema;
+    if (cached != null && cached.checksum == checksum) {
+      schema = cached.schema;
+    } else {
+      schema = compile(bytes);
+    }
+    entries.put(key, new Entry(schema, modified, size, checksum));
+    return schema;
+  }
+
+  /**
+   * Gets the compiled schema for a classpath resource, such as a schema
+   * bundled with the mod. Resources don't change while running, so each is
+   * compiled once.
+   */
+  public Schema getResource(String resource) throws IOException {
+    Schema cached = resources.get(resource);
+    if (cached != null) {
+      return cached;
+    }
+
+    try (InputStream in = SchemaCache.class.getResourceAsStream(resource)) {
+      if (in == null) {
+        throw new NoSuchFileException(resource);
+      }
+      Schema schema = compile(in.readAllBytes());
+      resources.put(resource, schema);
+      return schema;
+    }
+  }
+
+  /**
+   * Drops a cached schema.
+   */
+  public void invalidate(Path schemaFile) {
+    entries.remove(schemaFile.toAbsolutePath().normalize());
+  }
+
+  /**
+   * Drops all cached schemas.
+   */
+  public void clear() {
+    entries.clear();
+    resources.clear();
+  }
+
+  /**
+   * Gets the number of schema compilations so far.
+   */
+  public synchronized int getCompileCount() {
+    return compileCount;
+  }
+
+  private Schema compile(byte[] bytes) {
+    Schema schema = SchemaLoader.builder()
+        .schemaJson(new JSONObject(new JSONTokener(new ByteArrayInputStream(bytes))))
+        .draftV7Support()
+        .build()
+        .load()
+        .build();
+    synchronized (this) {
+      compileCount++;
+    }
+    return schema;
+  }
+
+  private static long checksum(byte[] bytes) {
+    CRC32C crc = new CRC32C();
+    crc.update(bytes);
+    return crc.getValue();
+  }
+
+  private record Entry(Schema schema, long modified, long size, long checksum) {
+  }
+}
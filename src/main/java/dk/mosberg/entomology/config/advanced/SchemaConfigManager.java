@@ -5,14 +5,10 @@ import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import dk.mosberg.entomology.EntomologyMod;
+import dk.mosberg.entomology.config.WriteBehindWriter;
 import org.everit.json.schema.Schema;
 import org.everit.json.schema.ValidationException;
-import org.everit.json.schema.loader.SchemaLoader;
-import org.json.JSONObject;
-import org.json.JSONTokener;
 
-import java.io.IOException;
-import java.io.InputStream;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -22,16 +18,25 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.CRC32C;
 
 /**
  * Advanced configuration system with JSON schema validation.
- * Supports versioning, migration, and hot-reload.
+ * Supports versioning, migration, and hot-reload; see {@link ConfigFileWatcher}
+ * for reloading on file changes.
  */
 public class SchemaConfigManager {
   private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+  private static final String BUNDLED_SCHEMAS = "/data/" + EntomologyMod.MODID + "/schema/";
 
   private final Map<String, ConfigEntry> configs = new ConcurrentHashMap<>();
   private final Map<String, Schema> schemas = new ConcurrentHashMap<>();
+  private final Map<String, Path> schemaFiles = new ConcurrentHashMap<>();
+  private final Map<String, Long> contentHashes = new ConcurrentHashMap<>();
+  private final SchemaCache schemaCache = new SchemaCache();
+  private final WriteBehindWriter writer =
+      new WriteBehindWriter("Entomology Schema Config Writer", WriteBehindWriter.DEFAULT_DELAY_MILLIS);
   private final Map<String, List<ConfigListener>> listeners = new ConcurrentHashMap<>();
   private final Path configRoot;
   private final Path schemaRoot;
@@ -42,18 +47,23 @@ public class SchemaConfigManager {
   }
 
   /**
-   * Loads a configuration with schema validation.
+   * Loads a configuration with schema validation. A schema file in the
+   * schema root overrides the one bundled with the mod.
    */
   public JsonObject loadConfig(String name, String schemaPath) {
     try {
       Path configFile = configRoot.resolve(name + ".json");
       Path schemaFile = schemaRoot.resolve(schemaPath);
 
-      // Load schema
-      Schema schema = loadSchema(schemaFile);
+      // Load schema (compiled once per file version)
+      Schema schema = Files.exists(schemaFile)
+          ? schemaCache.get(schemaFile)
+          : schemaCache.getResource(BUNDLED_SCHEMAS + schemaPath);
       schemas.put(name, schema);
+      schemaFiles.put(name, schemaFile.toAbsolutePath().normalize());
 
-      // Load config
+      // Load config, including a save that is still pending
+      writer.flush(configFile);
       JsonObject config;
       if (Files.exists(configFile)) {
         try (Reader reader = Files.newBufferedReader(configFile, StandardCharsets.UTF_8)) {
@@ -94,9 +104,7 @@ public class SchemaConfigManager {
    */
   public ValidationResult validateConfig(JsonObject config, Schema schema) {
     try {
-      // Convert Gson JsonObject to org.json.JSONObject
-      JSONObject jsonObject = new JSONObject(config.toString());
-      schema.validate(jsonObject);
+      schema.validate(GsonJsonAdapter.toJson(config));
       return ValidationResult.success();
     } catch (ValidationException e) {
       List<String> errors = new ArrayList<>();
@@ -109,55 +117,134 @@ public class SchemaConfigManager {
   }
 
   /**
-   * Saves a configuration to disk.
+   * Saves a configuration. Listeners are notified immediately; the file is
+   * written in the background, coalescing repeated saves (see {@link #flush()}).
+   * Callers must not modify the config afterwards.
    */
   public void saveConfig(String name, JsonObject config) {
-    try {
-      Path configFile = configRoot.resolve(name + ".json");
-      Files.createDirectories(configFile.getParent());
-
-      String json = GSON.toJson(config);
-      Files.writeString(configFile, json, StandardCharsets.UTF_8);
+    Path configFile = configRoot.resolve(name + ".json");
+    configs.put(name, new ConfigEntry(config, schemas.get(name)));
+    writer.write(configFile, () -> {
+      byte[] json = GSON.toJson(config).getBytes(StandardCharsets.UTF_8);
+      // Remember what we wrote so the file watcher ignores our own change
+      contentHashes.put(name, checksum(json));
+      return json;
+    });
+    notifyListeners(name, config);
+  }
 
-      configs.put(name, new ConfigEntry(config, schemas.get(name)));
-      notifyListeners(name, config);
-    } catch (IOException e) {
-      EntomologyMod.LOGGER.error("Failed to save config: " + name, e);
-    }
+  /**
+   * Writes all pending configuration changes to disk now.
+   */
+  public void flush() {
+    writer.flush();
   }
 
   /**
    * Reloads a configuration and notifies listeners.
    */
   public void reloadConfig(String name) {
+    PendingReload reload = prepareReload(name, true);
+    if (reload != null) {
+      applyReload(reload);
+    }
+  }
+
+  /**
+   * Reads and validates a configuration file without publishing it.
+   *
+   * Safe to call off the server thread; returns null if the file is
+   * missing, invalid, or (unless forced) unchanged since it was last loaded.
+   *
+   * @param name  configuration name
+   * @param force reload even if the content hash is unchanged
+   */
+  PendingReload prepareReload(String name, boolean force) {
     try {
       Path configFile = configRoot.resolve(name + ".json");
+      writer.flush(configFile);
       if (!Files.exists(configFile)) {
-        return;
+        return null;
       }
 
-      try (Reader reader = Files.newBufferedReader(configFile, StandardCharsets.UTF_8)) {
-        JsonObject config = GSON.fromJson(reader, JsonObject.class);
-
-        Schema schema = schemas.get(name);
-        if (schema != null) {
-          ValidationResult result = validateConfig(config, schema);
-          if (!result.isValid()) {
-            EntomologyMod.LOGGER.error("Reload validation failed for {}: {}",
-                name, result.getErrors());
-            return;
-          }
-        }
+      byte[] bytes = Files.readAllBytes(configFile);
+      long checksum = checksum(bytes);
+      Long previous = contentHashes.get(name);
+      if (!force && previous != null && previous == checksum) {
+        EntomologyMod.LOGGER.debug("Configuration {} unchanged, skipping reload", name);
+        return null;
+      }
+
+      JsonObject config = GSON.fromJson(new String(bytes, StandardCharsets.UTF_8), JsonObject.class);
+      if (config == null) {
+        EntomologyMod.LOGGER.error("Reload failed for {}: empty file", name);
+        return null;
+      }
 
-        configs.put(name, new ConfigEntry(config, schema));
-        notifyListeners(name, config);
-        EntomologyMod.LOGGER.info("Reloaded configuration: {}", name);
+      // Pick up schema edits as well; the cache recompiles only on change
+      Path schemaFile = schemaFiles.get(name);
+      Schema schema = schemaFile != null && Files.exists(schemaFile)
+          ? schemaCache.get(schemaFile)
+          : schemas.get(name);
+      if (schema != null) {
+        ValidationResult result = validateConfig(config, schema);
+        if (!result.isValid()) {
+          EntomologyMod.LOGGER.error("Reload validation failed for {}: {}",
+              name, result.getErrors());
+          return null;
+        }
       }
+
+      return new PendingReload(name, config, schema, checksum);
     } catch (Exception e) {
       EntomologyMod.LOGGER.error("Failed to reload config: " + name, e);
+      return null;
     }
   }
 
+  /**
+   * Publishes a validated configuration and notifies listeners.
+   */
+  void applyReload(PendingReload reload) {
+    String name = reload.name();
+    if (reload.schema() != null) {
+      schemas.put(name, reload.schema());
+    }
+    contentHashes.put(name, reload.checksum());
+    configs.put(name, new ConfigEntry(reload.config(), reload.schema()));
+    notifyListeners(name, reload.config());
+    EntomologyMod.LOGGER.info("Reloaded configuration: {}", name);
+  }
+
+  /**
+   * Gets the names of loaded configurations validated by a schema file.
+   */
+  List<String> getConfigsUsingSchema(Path schemaFile) {
+    Path key = schemaFile.toAbsolutePath().normalize();
+    List<String> names = new ArrayList<>();
+    schemaFiles.forEach((name, file) -> {
+      if (file.equals(key)) {
+        names.add(name);
+      }
+    });
+    return names;
+  }
+
+  /**
+   * Checks whether a configuration has been loaded.
+   */
+  public boolean isLoaded(String name) {
+    return configs.containsKey(name);
+  }
+
+  public Path getConfigRoot() {
+    return configRoot;
+  }
+
+  public Path getSchemaRoot() {
+    return schemaRoot;
+  }
+
   /**
    * Reloads all configurations.
    */
@@ -195,25 +282,27 @@ public class SchemaConfigManager {
       return;
     }
 
-    setElement(entry.config, path, value);
+    // Modify a copy so a rejected change, or a write still pending, never sees it
+    JsonObject config = entry.config.deepCopy();
+    setElement(config, path, value);
 
     // Validate after modification
     if (entry.schema != null) {
-      ValidationResult result = validateConfig(entry.config, entry.schema);
+      ValidationResult result = validateConfig(config, entry.schema);
       if (!result.isValid()) {
         EntomologyMod.LOGGER.error("Modified config is invalid: {}", result.getErrors());
         return;
       }
     }
 
-    saveConfig(configName, entry.config);
+    saveConfig(configName, config);
   }
 
   /**
    * Registers a configuration listener.
    */
   public void addListener(String configName, ConfigListener listener) {
-    listeners.computeIfAbsent(configName, k -> new ArrayList<>()).add(listener);
+    listeners.computeIfAbsent(configName, k -> new CopyOnWriteArrayList<>()).add(listener);
   }
 
   /**
@@ -233,13 +322,10 @@ public class SchemaConfigManager {
   }
 
   /**
-   * Loads a JSON schema from file.
+   * Gets the cache of compiled schemas.
    */
-  private Schema loadSchema(Path schemaFile) throws IOException {
-    try (InputStream input = Files.newInputStream(schemaFile)) {
-      JSONObject rawSchema = new JSONObject(new JSONTokener(input));
-      return SchemaLoader.load(rawSchema);
-    }
+  public SchemaCache getSchemaCache() {
+    return schemaCache;
   }
 
   /**
@@ -331,6 +417,18 @@ public class SchemaConfigManager {
     }
   }
 
+  private static long checksum(byte[] bytes) {
+    CRC32C crc = new CRC32C();
+    crc.update(bytes);
+    return crc.getValue();
+  }
+
+  /**
+   * A validated configuration waiting to be published.
+   */
+  record PendingReload(String name, JsonObject config, Schema schema, long checksum) {
+  }
+
   /**
    * Configuration entry with schema.
    */
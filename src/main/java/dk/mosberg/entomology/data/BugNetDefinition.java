@@ -1,11 +1,8 @@
 package dk.mosberg.entomology.data;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
 import net.minecraft.util.Identifier;
 
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 
@@ -27,39 +24,29 @@ public class BugNetDefinition {
   private final Identifier repairIngredient;
   private final SpecialAbilities specialAbilities;
 
-  public BugNetDefinition(JsonObject json) {
-    this.id = json.get("id").getAsString();
-    this.tier = json.get("tier").getAsString();
-    this.type = json.get("type").getAsString();
-
-    // Parse capture targets
-    this.captureTargets = new HashSet<>();
-    JsonArray targets = json.getAsJsonArray("capture_targets");
-    for (int i = 0; i < targets.size(); i++) {
-      captureTargets.add(Identifier.of(targets.get(i).getAsString()));
-    }
-
-    this.durability = json.get("durability").getAsInt();
-    this.maxStackSize = json.get("max_stack_size").getAsInt();
-    this.durabilityPerCapture = json.get("durability_per_capture").getAsInt();
-    this.catchRate = json.get("catchRate").getAsFloat();
-    this.range = json.get("range").getAsFloat();
-    this.speedBonus = json.get("speedBonus").getAsFloat();
-
-    // Parse rarity bonuses
-    this.rarityBonus = new HashMap<>();
-    JsonObject bonus = json.getAsJsonObject("rarityBonus");
-    bonus.entrySet().forEach(e -> rarityBonus.put(e.getKey(), e.getValue().getAsFloat()));
-
-    this.fireproof = json.has("fireproof") && json.get("fireproof").getAsBoolean();
-    this.enchantable = !json.has("enchantable") || json.get("enchantable").getAsBoolean();
-    this.enchantability = json.get("enchantability").getAsInt();
-    this.repairIngredient = Identifier.of(json.get("repairIngredient").getAsString());
-
-    // Parse special abilities
-    this.specialAbilities = json.has("special_abilities")
-        ? new SpecialAbilities(json.getAsJsonObject("special_abilities"))
-        : new SpecialAbilities();
+  /**
+   * Creates a definition from values decoded from JSON or the compiled data cache.
+   */
+  public BugNetDefinition(String id, String tier, String type, Set<Identifier> captureTargets, int durability,
+      int maxStackSize, int durabilityPerCapture, float catchRate, float range, float speedBonus,
+      Map<String, Float> rarityBonus, boolean fireproof, boolean enchantable, int enchantability,
+      Identifier repairIngredient, SpecialAbilities specialAbilities) {
+    this.id = id;
+    this.tier = tier;
+    this.type = type;
+    this.captureTargets = captureTargets;
+    this.durability = durability;
+    this.maxStackSize = maxStackSize;
+    this.durabilityPerCapture = durabilityPerCapture;
+    this.catchRate = catchRate;
+    this.range = range;
+    this.speedBonus = speedBonus;
+    this.rarityBonus = rarityBonus;
+    this.fireproof = fireproof;
+    this.enchantable = enchantable;
+    this.enchantability = enchantability;
+    this.repairIngredient = repairIngredient;
+    this.specialAbilities = specialAbilities;
   }
 
   // Getters
@@ -107,6 +94,10 @@ public class BugNetDefinition {
     return rarityBonus.getOrDefault(rarity.toLowerCase(), 1.0f);
   }
 
+  public Map<String, Float> getRarityBonuses() {
+    return Collections.unmodifiableMap(rarityBonus);
+  }
+
   public boolean isFireproof() {
     return fireproof;
   }
@@ -147,12 +138,13 @@ public class BugNetDefinition {
       this.captureBoss = false;
     }
 
-    public SpecialAbilities(JsonObject json) {
-      this.autoCapture = json.has("auto_capture") && json.get("auto_capture").getAsBoolean();
-      this.captureRadius = json.has("capture_radius") ? json.get("capture_radius").getAsFloat() : 0.0f;
-      this.multiCapture = json.has("multi_capture") && json.get("multi_capture").getAsBoolean();
-      this.maxCaptures = json.has("max_captures") ? json.get("max_captures").getAsInt() : 1;
-      this.captureBoss = json.has("capture_boss") && json.get("capture_boss").getAsBoolean();
+    public SpecialAbilities(boolean autoCapture, float captureRadius, boolean multiCapture, int maxCaptures,
+        boolean captureBoss) {
+      this.autoCapture = autoCapture;
+      this.captureRadius = captureRadius;
+      this.multiCapture = multiCapture;
+      this.maxCaptures = maxCaptures;
+      this.captureBoss = captureBoss;
     }
 
     public boolean isAutoCapture() {
@@ -1,25 +1,26 @@
 package dk.mosberg.entomology.data;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonObject;
+import dk.mosberg.entomology.profiler.TickProfiler;
 import net.fabricmc.fabric.api.resource.SimpleSynchronousResourceReloadListener;
 import net.minecraft.resource.ResourceManager;
 import net.minecraft.util.Identifier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
+import java.io.InputStream;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 public class BugNetReloader implements SimpleSynchronousResourceReloadListener {
   private static final Logger LOGGER = LoggerFactory.getLogger("Entomology");
-  private static final Gson GSON = new Gson();
   private static final Map<String, BugNetDefinition> BUG_NETS = new HashMap<>();
   private static final Identifier ID = Identifier.of("entomology", "bug_nets");
 
+  private final DataDrivenRegistry.FileCache<BugNetDefinition> cache =
+      new DataDrivenRegistry.FileCache<>("bug_nets", DefinitionCodecs.BUG_NET);
+
   @Override
   public Identifier getFabricId() {
     return ID;
@@ -27,17 +28,35 @@ public class BugNetReloader implements SimpleSynchronousResourceReloadListener {
 
   @Override
   public void reload(ResourceManager manager) {
+    TickProfiler.getInstance().run(DataDrivenRegistry.RELOAD_SECTION, ID, () -> load(manager));
+  }
+
+  private void load(ResourceManager manager) {
     BUG_NETS.clear();
 
+    cache.seed();
     var resources = manager.findResources("items",
         path -> path.getPath().endsWith("_bug_net.json"));
+    Map<Identifier, DataDrivenRegistry.ParsedFile<BugNetDefinition>> loaded = new LinkedHashMap<>();
+    int unchanged = 0;
 
-    resources.forEach((id, resource) -> {
-      try (BufferedReader reader = new BufferedReader(
-          new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+    for (var entry : resources.entrySet()) {
+      Identifier id = entry.getKey();
+      try (InputStream stream = entry.getValue().getInputStream()) {
+        byte[] bytes = stream.readAllBytes();
+        long checksum = DataDrivenRegistry.checksum(bytes);
 
-        JsonObject json = GSON.fromJson(reader, JsonObject.class);
-        BugNetDefinition def = new BugNetDefinition(json);
+        // Reuse the previous result when the file is byte-identical
+        var parsed = cache.get(id, checksum);
+        if (parsed != null) {
+          unchanged++;
+        } else {
+          parsed = new DataDrivenRegistry.ParsedFile<>(checksum,
+              DefinitionDecoders.decode(bytes, DefinitionDecoders::bugNet));
+        }
+        loaded.put(id, parsed);
+
+        BugNetDefinition def = parsed.value();
         BUG_NETS.put(def.getId(), def);
 
         LOGGER.info("Loaded bug net: {} (tier: {}, catch rate: {}, range: {}, durability: {})",
@@ -46,9 +65,13 @@ public class BugNetReloader implements SimpleSynchronousResourceReloadListener {
       } catch (Exception e) {
         LOGGER.error("Failed to load bug net data from {}", id, e);
       }
-    });
+    }
+
+    var directory = new DataDrivenRegistry.ParsedDirectory<>(Collections.unmodifiableMap(loaded), unchanged);
+    cache.persist(directory);
+    cache.update(directory);
 
-    LOGGER.info("Loaded {} bug net definitions", BUG_NETS.size());
+    LOGGER.info("Loaded {} bug net definitions ({} unchanged)", BUG_NETS.size(), unchanged);
   }
 
   public static BugNetDefinition get(String id) {
@@ -0,0 +1,300 @@
+package dk.mosberg.entomology.data;
+
+import dk.mosberg.entomology.EntomologyMod;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.util.Identifier;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Binary cache of parsed data-pack definitions.
+ *
+ * Each data directory ("section") is stored in its own file as a list of
+ * (file id, CRC32C of the JSON bytes, encoded definition) entries. Reloaders
+ * seed their per-file caches from it on first load, so definitions whose JSON
+ * is byte-identical to the last run are decoded from the cache instead of
+ * being parsed; any other file falls back to JSON. Files are read into memory
+ * in one go, so no handle stays open while the reload replaces them, and are
+ * written atomically via a temporary file.
+ *
+ * A missing, truncated or corrupt cache file is treated as empty, as is one
+ * written with another layout, codec version or mod version: a mod update may
+ * change decoding or defaults for byte-identical JSON. Counts and lengths are
+ * checked against the bytes left before anything is allocated for them.
+ */
+final class CompiledDataCache {
+  private static final int MAGIC = 0x454E5443; // "ENTC"
+  private static final int FORMAT_VERSION = 2;
+  private static final String MOD_VERSION = FabricLoader.getInstance()
+      .getModContainer(EntomologyMod.MODID)
+      .map(mod -> mod.getMetadata().getVersion().getFriendlyString())
+      .orElse("unknown");
+
+  private static final Path CACHE_DIR = FabricLoader.getInstance()
+      .getGameDir().resolve(".cache").resolve(EntomologyMod.MODID);
+
+  private CompiledDataCache() {
+  }
+
+  /**
+   * Encodes and decodes one definition type.
+   */
+  interface Codec<T> {
+    void write(Output out, T value) throws IOException;
+
+    T read(Input in);
+
+    static <T> Codec<T> of(Writer<T> writer, Function<Input, T> reader) {
+      return new Codec<>() {
+        @Override
+        public void write(Output out, T value) throws IOException {
+          writer.write(out, value);
+        }
+
+        @Override
+        public T read(Input in) {
+          return reader.apply(in);
+        }
+      };
+    }
+  }
+
+  /**
+   * Writes one value; the encoding half of a {@link Codec}.
+   */
+  @FunctionalInterface
+  interface Writer<T> {
+    void write(Output out, T value) throws IOException;
+  }
+
+  /**
+   * Reads the cached entries of a section.
+   *
+   * @return entries keyed by file id, or an empty map if there is no usable cache
+   */
+  static <T> Map<Identifier, DataDrivenRegistry.ParsedFile<T>> read(String section, Codec<T> codec) {
+    Path file = pathFor(section);
+    if (!Files.isRegularFile(file)) {
+      return Map.of();
+    }
+
+    try {
+      Input in = new Input(ByteBuffer.wrap(Files.readAllBytes(file)));
+      if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION
+          || in.readInt() != DefinitionCodecs.VERSION || !MOD_VERSION.equals(in.readString())
+          || !section.equals(in.readString())) {
+        EntomologyMod.LOGGER.info("Ignoring outdated compiled data cache {}", file);
+        return Map.of();
+      }
+
+      int count = in.readLength();
+      Map<Identifier, DataDrivenRegistry.ParsedFile<T>> entries = new LinkedHashMap<>(count * 2);
+      for (int i = 0; i < count; i++) {
+        Identifier id = in.readIdentifier();
+        long checksum = in.readLong();
+        entries.put(id, new DataDrivenRegistry.ParsedFile<>(checksum, codec.read(in)));
+      }
+      return Collections.unmodifiableMap(entries);
+    } catch (IOException | RuntimeException e) {
+      EntomologyMod.LOGGER.warn("Failed to read compiled data cache {}, falling back to JSON", file, e);
+      return Map.of();
+    }
+  }
+
+  /**
+   * Replaces the cached entries of a section.
+   */
+  static <T> void write(String section, Map<Identifier, DataDrivenRegistry.ParsedFile<T>> entries,
+      Codec<T> codec) {
+    Path file = pathFor(section);
+    Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+    try {
+      Files.createDirectories(CACHE_DIR);
+      try (DataOutputStream stream = new DataOutputStream(
+          new BufferedOutputStream(Files.newOutputStream(temp)))) {
+        Output out = new Output(stream);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(DefinitionCodecs.VERSION);
+        out.writeString(MOD_VERSION);
+        out.writeString(section);
+        out.writeInt(entries.size());
+        for (Map.Entry<Identifier, DataDrivenRegistry.ParsedFile<T>> entry : entries.entrySet()) {
+          out.writeIdentifier(entry.getKey());
+          out.writeLong(entry.getValue().checksum());
+          codec.write(out, entry.getValue().value());
+        }
+      }
+
+      try {
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException | RuntimeException e) {
+      EntomologyMod.LOGGER.warn("Failed to write compiled data cache {}", file, e);
+      try {
+        Files.deleteIfExists(temp);
+      } catch (IOException ignored) {
+        // Best effort
+      }
+    }
+  }
+
+  private static Path pathFor(String section) {
+    return CACHE_DIR.resolve(section + ".bin");
+  }
+
+  /**
+   * Sequential writer for cache entries.
+   */
+  static final class Output {
+    private final DataOutputStream stream;
+
+    private Output(DataOutputStream stream) {
+      this.stream = stream;
+    }
+
+    void writeInt(int value) throws IOException {
+      stream.writeInt(value);
+    }
+
+    void writeLong(long value) throws IOException {
+      stream.writeLong(value);
+    }
+
+    void writeFloat(float value) throws IOException {
+      stream.writeFloat(value);
+    }
+
+    void writeDouble(double value) throws IOException {
+      stream.writeDouble(value);
+    }
+
+    void writeBoolean(boolean value) throws IOException {
+      stream.writeBoolean(value);
+    }
+
+    /**
+     * Writes a nullable string as a length-prefixed UTF-8 sequence.
+     */
+    void writeString(String value) throws IOException {
+      if (value == null) {
+        stream.writeInt(-1);
+        return;
+      }
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      stream.writeInt(bytes.length);
+      stream.write(bytes);
+    }
+
+    void writeIdentifier(Identifier id) throws IOException {
+      writeString(id.toString());
+    }
+
+    /**
+     * Writes a presence flag; returns true if the value should follow.
+     */
+    boolean writePresent(Object value) throws IOException {
+      stream.writeBoolean(value != null);
+      return value != null;
+    }
+
+    <E> void writeList(List<E> values, Writer<E> writer) throws IOException {
+      stream.writeInt(values.size());
+      for (E value : values) {
+        writer.write(this, value);
+      }
+    }
+  }
+
+  /**
+   * Sequential reader over a cache file's contents.
+   */
+  static final class Input {
+    private final ByteBuffer buffer;
+
+    private Input(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    int readInt() {
+      return buffer.getInt();
+    }
+
+    long readLong() {
+      return buffer.getLong();
+    }
+
+    float readFloat() {
+      return buffer.getFloat();
+    }
+
+    double readDouble() {
+      return buffer.getDouble();
+    }
+
+    boolean readBoolean() {
+      return buffer.get() != 0;
+    }
+
+    String readString() {
+      int length = buffer.getInt();
+      if (length == -1) {
+        return null;
+      }
+      checkLength(length);
+      byte[] bytes = new byte[length];
+      buffer.get(bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    Identifier readIdentifier() {
+      return Identifier.of(readString());
+    }
+
+    boolean readPresent() {
+      return readBoolean();
+    }
+
+    <E> List<E> readList(Function<Input, E> reader) {
+      int size = readLength();
+      List<E> values = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        values.add(reader.apply(this));
+      }
+      return values;
+    }
+
+    /**
+     * Reads a count or length; each counted item takes at least one byte.
+     */
+    int readLength() {
+      int length = buffer.getInt();
+      checkLength(length);
+      return length;
+    }
+
+    private void checkLength(int length) {
+      if (length < 0 || length > buffer.remaining()) {
+        throw new UncheckedIOException(new IOException(
+            "Corrupt length " + length + " with " + buffer.remaining() + " bytes left"));
+      }
+    }
+  }
+}
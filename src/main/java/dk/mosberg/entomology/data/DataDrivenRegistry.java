@@ -7,20 +7,30 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 import com.google.gson.JsonParser;
-import net.fabricmc.fabric.api.resource.SimpleSynchronousResourceReloadListener;
+import com.google.gson.stream.JsonReader;
+import net.fabricmc.fabric.api.resource.SimpleResourceReloadListener;
 import net.minecraft.entity.EntityType;
+import net.minecraft.registry.Registries;
+import net.minecraft.resource.Resource;
 import net.minecraft.resource.ResourceManager;
 import net.minecraft.util.Identifier;
 import dk.mosberg.entomology.EntomologyMod;
+import dk.mosberg.entomology.config.EntomologyConfig;
+import dk.mosberg.entomology.profiler.TickProfiler;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32C;
 
 /**
  * Central registry for all JSON-driven definitions.
@@ -33,13 +43,13 @@ public final class DataDrivenRegistry {
   public static final Identifier SPECIMEN_RELOADER_ID = EntomologyMod.id("specimen_loader");
   public static final Identifier DEFINITION_RELOADER_ID = EntomologyMod.id("definition_loader");
   public static final Identifier MECHANICS_RELOADER_ID = EntomologyMod.id("mechanics_loader");
+  // Profiler section of the reloaders' apply stage
+  static final String RELOAD_SECTION = "reload";
 
-  private static final Map<String, ItemDefinition> ITEMS = new HashMap<>();
-  private static final Map<String, BlockDefinition> BLOCKS = new HashMap<>();
-  private static final Map<String, SpecimenDefinition> SPECIMENS = new HashMap<>();
-  private static final Map<String, ResearchEntryDefinition> RESEARCH = new HashMap<>();
-  private static BreedingConfigDefinition breedingConfig;
-  private static MechanicsConfigDefinition mechanicsConfig;
+  // Immutable snapshots, replaced atomically at the end of each reload
+  private static volatile SpecimenSnapshot specimens = SpecimenSnapshot.EMPTY;
+  private static volatile DefinitionSnapshot definitions = DefinitionSnapshot.EMPTY;
+  private static volatile MechanicsSnapshot mechanics = MechanicsSnapshot.EMPTY;
 
   private DataDrivenRegistry() {
   }
@@ -49,195 +59,251 @@ public final class DataDrivenRegistry {
   }
 
   public static ItemDefinition getItem(String id) {
-    return ITEMS.get(id);
+    return definitions.items().get(id);
   }
 
   public static BlockDefinition getBlock(String id) {
-    return BLOCKS.get(id);
+    return definitions.blocks().get(id);
   }
 
   public static SpecimenDefinition getSpecimen(String id) {
-    return SPECIMENS.get(id);
+    return specimens.specimens().get(id);
   }
 
   public static Collection<ResearchEntryDefinition> getResearchEntries() {
-    return RESEARCH.values();
+    return specimens.research().values();
   }
 
   public static BreedingConfigDefinition getBreedingConfig() {
-    return breedingConfig;
+    return mechanics.breedingConfig();
   }
 
   public static MechanicsConfigDefinition getMechanicsConfig() {
-    return mechanicsConfig;
+    return mechanics.mechanicsConfig();
   }
 
+  /**
+   * Gets the specimen for an entity type via the index built on reload.
+   */
   public static SpecimenDefinition getSpecimenByEntityType(EntityType<?> type) {
-    @SuppressWarnings("deprecation") // getRegistryEntry required for dynamic entity type lookup
-    var key = type.getRegistryEntry().registryKey().getValue();
-    for (SpecimenDefinition def : SPECIMENS.values()) {
-      if (def.entityType().equals(key)) {
-        return def;
-      }
-    }
-    return null;
+    return specimens.byEntityType().get(type);
+  }
+
+  private record SpecimenSnapshot(Map<String, SpecimenDefinition> specimens,
+      Map<String, ResearchEntryDefinition> research,
+      Map<EntityType<?>, SpecimenDefinition> byEntityType) {
+    static final SpecimenSnapshot EMPTY = new SpecimenSnapshot(Map.of(), Map.of(), Map.of());
+  }
+
+  private record DefinitionSnapshot(Map<String, ItemDefinition> items,
+      Map<String, BlockDefinition> blocks) {
+    static final DefinitionSnapshot EMPTY = new DefinitionSnapshot(Map.of(), Map.of());
+  }
+
+  private record MechanicsSnapshot(BreedingConfigDefinition breedingConfig,
+      MechanicsConfigDefinition mechanicsConfig) {
+    static final MechanicsSnapshot EMPTY = new MechanicsSnapshot(null, null);
   }
 
   /**
    * Reloader for specimens and research entries.
    */
-  @SuppressWarnings("deprecation") // SimpleSynchronousResourceReloadListener still in use
-  public static final class SpecimenReloader implements SimpleSynchronousResourceReloadListener {
+  @SuppressWarnings("deprecation") // SimpleResourceReloadListener still in use
+  public static final class SpecimenReloader implements SimpleResourceReloadListener<SpecimenReloader.Prepared> {
+    private final FileCache<SpecimenDefinition> specimenCache =
+        new FileCache<>("specimens", DefinitionCodecs.SPECIMEN);
+    private final FileCache<ResearchEntryDefinition> researchCache =
+        new FileCache<>("research", DefinitionCodecs.RESEARCH);
+
+    record Prepared(ParsedDirectory<SpecimenDefinition> specimens,
+        ParsedDirectory<ResearchEntryDefinition> research) {
+    }
+
     @Override
     public Identifier getFabricId() {
       return SPECIMEN_RELOADER_ID;
     }
 
     @Override
-    public void reload(ResourceManager manager) {
-      SPECIMENS.clear();
-      RESEARCH.clear();
-
-      loadJsonDirectory(manager, "specimens", obj -> {
-        String id = requireString(obj, "id");
-        String entity = requireString(obj, "entity_type");
-        String nameKey = requireString(obj, "display_name_key");
-        String descKey = requireString(obj, "description_key");
-
-        // Optional fields with defaults
-        String rarity = obj.has("rarity") ? obj.get("rarity").getAsString() : "common";
-        double size = obj.has("size") ? obj.get("size").getAsDouble() : 1.0;
-        int expValue = obj.has("experience_value") ? obj.get("experience_value").getAsInt() : 5;
-        boolean canBreed = !obj.has("can_breed") || obj.get("can_breed").getAsBoolean();
-
-        SpecimenDefinition def = new SpecimenDefinition(
-            id,
-            Identifier.of(entity),
-            nameKey,
-            descKey,
-            rarity,
-            size,
-            expValue,
-            canBreed);
-        SPECIMENS.put(id, def);
-      });
+    public CompletableFuture<Prepared> load(ResourceManager manager, Executor executor) {
+      var specimenFuture = loadJsonDirectory(manager, "specimens", specimenCache,
+          DefinitionDecoders::specimen, executor);
+      var researchFuture = loadJsonDirectory(manager, "research", researchCache,
+          DefinitionDecoders::research, executor);
+      return specimenFuture.thenCombine(researchFuture, Prepared::new);
+    }
 
-      loadJsonDirectory(manager, "research", obj -> {
-        String id = requireString(obj, "id");
-        String specimenId = requireString(obj, "specimen_id");
-        String pageKey = requireString(obj, "page_key");
-        if (!SPECIMENS.containsKey(specimenId)) {
-          EntomologyMod.LOGGER.warn("Research '{}' refers to unknown specimen '{}'", id, specimenId);
-          return;
+    @Override
+    public CompletableFuture<Void> apply(Prepared prepared, ResourceManager manager, Executor executor) {
+      return CompletableFuture.runAsync(() -> TickProfiler.getInstance().run(RELOAD_SECTION, SPECIMEN_RELOADER_ID, () -> {
+        Map<String, SpecimenDefinition> specimenMap = new LinkedHashMap<>();
+        for (SpecimenDefinition def : prepared.specimens().values()) {
+          specimenMap.put(def.id(), def);
+        }
+
+        Map<String, ResearchEntryDefinition> researchMap = new LinkedHashMap<>();
+        for (ResearchEntryDefinition entry : prepared.research().values()) {
+          if (!specimenMap.containsKey(entry.specimenId())) {
+            EntomologyMod.LOGGER.warn("Research '{}' refers to unknown specimen '{}'",
+                entry.id(), entry.specimenId());
+            continue;
+          }
+          researchMap.put(entry.id(), entry);
         }
-        RESEARCH.put(id, new ResearchEntryDefinition(id, specimenId, pageKey));
-      });
 
-      EntomologyMod.LOGGER.info("Loaded {} specimens and {} research entries",
-          SPECIMENS.size(), RESEARCH.size());
+        specimens = new SpecimenSnapshot(Collections.unmodifiableMap(specimenMap),
+            Collections.unmodifiableMap(researchMap), indexByEntityType(specimenMap.values()));
+        specimenCache.update(prepared.specimens());
+        researchCache.update(prepared.research());
+
+        EntomologyMod.LOGGER.info("Loaded {} specimens and {} research entries ({} files unchanged)",
+            specimenMap.size(), researchMap.size(),
+            prepared.specimens().unchanged() + prepared.research().unchanged());
+      }), executor);
+    }
+
+    /**
+     * Builds the reverse index used by {@link #getSpecimenByEntityType}.
+     * The first specimen declaring an entity type wins.
+     */
+    private static Map<EntityType<?>, SpecimenDefinition> indexByEntityType(
+        Collection<SpecimenDefinition> defs) {
+      Map<EntityType<?>, SpecimenDefinition> index = new IdentityHashMap<>();
+      for (SpecimenDefinition def : defs) {
+        var type = Registries.ENTITY_TYPE.getOptionalValue(def.entityType());
+        if (type.isEmpty()) {
+          EntomologyMod.LOGGER.warn("Specimen '{}' refers to unknown entity type '{}'",
+              def.id(), def.entityType());
+          continue;
+        }
+        index.putIfAbsent(type.get(), def);
+      }
+      return Collections.unmodifiableMap(index);
     }
   }
 
   /**
    * Reloader for item/block definitions.
    */
-  @SuppressWarnings("deprecation") // SimpleSynchronousResourceReloadListener still in use
-  public static final class DefinitionReloader implements SimpleSynchronousResourceReloadListener {
+  @SuppressWarnings("deprecation") // SimpleResourceReloadListener still in use
+  public static final class DefinitionReloader implements SimpleResourceReloadListener<DefinitionReloader.Prepared> {
+    private final FileCache<ItemDefinition> itemCache = new FileCache<>("items", DefinitionCodecs.ITEM);
+    private final FileCache<BlockDefinition> blockCache = new FileCache<>("blocks", DefinitionCodecs.BLOCK);
+
+    record Prepared(ParsedDirectory<ItemDefinition> items, ParsedDirectory<BlockDefinition> blocks) {
+    }
+
     @Override
     public Identifier getFabricId() {
       return DEFINITION_RELOADER_ID;
     }
 
     @Override
-    public void reload(ResourceManager manager) {
-      ITEMS.clear();
-      BLOCKS.clear();
-
-      // Items
-      loadJsonDirectory(manager, "items", obj -> {
-        String id = requireString(obj, "id");
-        String type = requireString(obj, "type");
-        int durability = obj.has("durability") ? obj.get("durability").getAsInt() : 0;
-        List<Identifier> targets = new ArrayList<>();
-        if (obj.has("capture_targets")) {
-          JsonArray arr = obj.getAsJsonArray("capture_targets");
-          for (JsonElement el : arr) {
-            targets.add(Identifier.of(el.getAsString()));
-          }
-        }
-
-        // schema validation: ensure specific items have expected fields
-        if ("bug_net".equals(id)) {
-          if (!obj.has("capture_targets")) {
-            throw new JsonParseException("bug_net requires capture_targets");
-          }
-          if (durability <= 0) {
-            throw new JsonParseException("bug_net must have positive durability");
-          }
-        }
-
-        ITEMS.put(id, new ItemDefinition(id, type, targets, durability));
-      });
+    public CompletableFuture<Prepared> load(ResourceManager manager, Executor executor) {
+      var itemFuture = loadJsonDirectory(manager, "items", itemCache,
+          DefinitionDecoders::item, executor);
+      var blockFuture = loadJsonDirectory(manager, "blocks", blockCache,
+          DefinitionDecoders::block, executor);
+      return itemFuture.thenCombine(blockFuture, Prepared::new);
+    }
 
-      // Blocks
-      loadJsonDirectory(manager, "blocks", obj -> {
-        String id = requireString(obj, "id");
-        int capacity = obj.has("capacity") ? obj.get("capacity").getAsInt() : 0;
-        boolean displayEntity = obj.has("display_entity") && obj.get("display_entity").getAsBoolean();
-        List<String> inputs = readStringList(obj, "inputs");
-        List<String> outputs = readStringList(obj, "outputs");
-
-        // schema validation for known ids
-        if ("specimen_jar".equals(id)) {
-          if (capacity <= 0) {
-            throw new JsonParseException("specimen_jar capacity must be > 0");
-          }
+    @Override
+    public CompletableFuture<Void> apply(Prepared prepared, ResourceManager manager, Executor executor) {
+      return CompletableFuture.runAsync(() -> TickProfiler.getInstance().run(RELOAD_SECTION, DEFINITION_RELOADER_ID, () -> {
+        Map<String, ItemDefinition> itemMap = new LinkedHashMap<>();
+        for (ItemDefinition def : prepared.items().values()) {
+          itemMap.put(def.id(), def);
         }
-        if ("research_station".equals(id)) {
-          if (!inputs.contains("specimen_jar") || !inputs.contains("field_guide")) {
-            throw new JsonParseException("research_station inputs must contain specimen_jar and field_guide");
-          }
-          if (!outputs.contains("research_entry")) {
-            throw new JsonParseException("research_station outputs must contain research_entry");
-          }
+        Map<String, BlockDefinition> blockMap = new LinkedHashMap<>();
+        for (BlockDefinition def : prepared.blocks().values()) {
+          blockMap.put(def.id(), def);
         }
 
-        BLOCKS.put(id, new BlockDefinition(id, capacity, displayEntity, inputs, outputs));
-      });
+        definitions = new DefinitionSnapshot(Collections.unmodifiableMap(itemMap),
+            Collections.unmodifiableMap(blockMap));
+        itemCache.update(prepared.items());
+        blockCache.update(prepared.blocks());
 
-      EntomologyMod.LOGGER.info("Loaded {} items and {} blocks", ITEMS.size(), BLOCKS.size());
+        EntomologyMod.LOGGER.info("Loaded {} items and {} blocks ({} files unchanged)",
+            itemMap.size(), blockMap.size(),
+            prepared.items().unchanged() + prepared.blocks().unchanged());
+      }), executor);
     }
   }
 
   /**
    * Reloader for mechanics configuration files.
    */
-  @SuppressWarnings("deprecation") // SimpleSynchronousResourceReloadListener still in use
-  public static final class MechanicsReloader implements SimpleSynchronousResourceReloadListener {
+  @SuppressWarnings("deprecation") // SimpleResourceReloadListener still in use
+  public static final class MechanicsReloader implements SimpleResourceReloadListener<ParsedDirectory<MechanicsReloader.MechanicsFile>> {
+    private final FileCache<MechanicsFile> cache = new FileCache<>("mechanics", DefinitionCodecs.MECHANICS_FILE);
+
+    /**
+     * Parsed contents of one mechanics file; either part may be null.
+     */
+    record MechanicsFile(BreedingConfigDefinition breedingConfig, MechanicsConfigDefinition mechanicsConfig) {
+    }
+
     @Override
     public Identifier getFabricId() {
       return MECHANICS_RELOADER_ID;
     }
 
     @Override
-    public void reload(ResourceManager manager) {
-      // Load breeding configuration
-      loadJsonDirectory(manager, "mechanics", obj -> {
-        if (obj.has("breeding_pairs")) {
-          breedingConfig = parseBreedingConfig(obj);
-          EntomologyMod.LOGGER.info("Loaded breeding config with {} pairs",
-              breedingConfig.breedingPairs().size());
+    public CompletableFuture<ParsedDirectory<MechanicsFile>> load(ResourceManager manager, Executor executor) {
+      return loadJsonDirectory(manager, "mechanics", cache, MechanicsReloader::decodeMechanicsFile, executor);
+    }
+
+    @Override
+    public CompletableFuture<Void> apply(ParsedDirectory<MechanicsFile> prepared, ResourceManager manager,
+        Executor executor) {
+      return CompletableFuture.runAsync(() -> TickProfiler.getInstance().run(RELOAD_SECTION, MECHANICS_RELOADER_ID, () -> {
+        // Later files win, matching the previous sequential load order
+        BreedingConfigDefinition breeding = null;
+        MechanicsConfigDefinition general = null;
+        for (MechanicsFile file : prepared.values()) {
+          if (file.breedingConfig() != null) {
+            breeding = file.breedingConfig();
+          }
+          if (file.mechanicsConfig() != null) {
+            general = file.mechanicsConfig();
+          }
         }
 
-        // Load general mechanics config
-        if (obj.has("breeding") || obj.has("environment") || obj.has("research")) {
-          mechanicsConfig = parseMechanicsConfig(obj);
+        mechanics = new MechanicsSnapshot(breeding, general);
+        cache.update(prepared);
+
+        if (breeding != null) {
+          EntomologyMod.LOGGER.info("Loaded breeding config with {} pairs",
+              breeding.breedingPairs().size());
+        }
+        if (general != null) {
           EntomologyMod.LOGGER.info("Loaded mechanics config");
         }
-      });
+      }), executor);
+    }
+
+    /**
+     * Mechanics files are small and deeply nested, so they are still read as
+     * a tree rather than streamed.
+     */
+    private static MechanicsFile decodeMechanicsFile(JsonReader in) {
+      JsonElement root = JsonParser.parseReader(in);
+      if (!root.isJsonObject()) {
+        throw DefinitionDecoders.error(in, "Root is not an object");
+      }
+      return parseMechanicsFile(root.getAsJsonObject());
+    }
+
+    private static MechanicsFile parseMechanicsFile(JsonObject obj) {
+      BreedingConfigDefinition breeding = obj.has("breeding_pairs") ? parseBreedingConfig(obj) : null;
+      MechanicsConfigDefinition general = obj.has("breeding") || obj.has("environment") || obj.has("research")
+          ? parseMechanicsConfig(obj)
+          : null;
+      return new MechanicsFile(breeding, general);
     }
 
-    private BreedingConfigDefinition parseBreedingConfig(JsonObject obj) {
+    private static BreedingConfigDefinition parseBreedingConfig(JsonObject obj) {
       List<BreedingConfigDefinition.BreedingPair> pairs = new ArrayList<>();
 
       if (obj.has("breeding_pairs")) {
@@ -301,7 +367,7 @@ public final class DataDrivenRegistry {
       return new BreedingConfigDefinition(pairs);
     }
 
-    private MechanicsConfigDefinition parseMechanicsConfig(JsonObject obj) {
+    private static MechanicsConfigDefinition parseMechanicsConfig(JsonObject obj) {
       // Parse each section with defaults
       MechanicsConfigDefinition.BreedingConfig breeding = new MechanicsConfigDefinition.BreedingConfig();
       if (obj.has("breeding")) {
@@ -388,23 +454,140 @@ public final class DataDrivenRegistry {
     }
   }
 
-  private interface JsonConsumer {
-    void accept(JsonObject obj);
+  /**
+   * Parsed file contents together with the CRC32C of the bytes they came from.
+   */
+  record ParsedFile<T>(long checksum, T value) {
   }
 
-  private static void loadJsonDirectory(ResourceManager manager, String dir, JsonConsumer consumer) {
-    String base = EntomologyMod.MODID + "/" + dir;
-    manager.findResources(base, path -> path.getPath().endsWith(".json")).forEach((identifier, resource) -> {
-      try (var stream = resource.getInputStream();
-          var reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
-        JsonElement root = JsonParser.parseReader(reader);
-        if (!root.isJsonObject()) {
-          throw new JsonParseException("Root is not an object for " + identifier);
-        }
-        consumer.accept(root.getAsJsonObject());
-      } catch (Exception e) {
-        EntomologyMod.LOGGER.error("Failed to load JSON {}", identifier, e);
+  /**
+   * Result of loading one directory: parsed files in identifier order.
+   */
+  record ParsedDirectory<T>(Map<Identifier, ParsedFile<T>> files, int unchanged) {
+    Collection<T> values() {
+      List<T> values = new ArrayList<>(files.size());
+      for (ParsedFile<T> file : files.values()) {
+        values.add(file.value());
+      }
+      return values;
+    }
+  }
+
+  /**
+   * Parsed files from the previous reload, used to skip unchanged content.
+   * Written in the apply phase and read in the next prepare phase.
+   *
+   * When {@link EntomologyConfig#useCompiledDataCache} is set, the first load
+   * is seeded from the {@link CompiledDataCache} and every load that parsed
+   * or dropped files writes the section back.
+   */
+  static final class FileCache<T> {
+    private final String section;
+    private final CompiledDataCache.Codec<T> codec;
+    private volatile Map<Identifier, ParsedFile<T>> files = Map.of();
+    private volatile boolean seeded;
+
+    FileCache(String section, CompiledDataCache.Codec<T> codec) {
+      this.section = section;
+      this.codec = codec;
+    }
+
+    /**
+     * Loads the compiled cache the first time this is called.
+     */
+    void seed() {
+      if (seeded) {
+        return;
+      }
+      seeded = true;
+      if (EntomologyConfig.useCompiledDataCache && files.isEmpty()) {
+        files = CompiledDataCache.read(section, codec);
+      }
+    }
+
+    ParsedFile<T> get(Identifier id, long checksum) {
+      ParsedFile<T> cached = files.get(id);
+      return cached != null && cached.checksum() == checksum ? cached : null;
+    }
+
+    /**
+     * Writes a freshly loaded directory to the compiled cache if it differs
+     * from the cached one. Call before {@link #update}.
+     */
+    void persist(ParsedDirectory<T> directory) {
+      if (!EntomologyConfig.useCompiledDataCache) {
+        return;
+      }
+      int size = directory.files().size();
+      if (directory.unchanged() != size || files.size() != size) {
+        CompiledDataCache.write(section, directory.files(), codec);
+      }
+    }
+
+    void update(ParsedDirectory<T> directory) {
+      files = directory.files();
+    }
+  }
+
+  /**
+   * Computes the checksum used to detect unchanged files.
+   */
+  static long checksum(byte[] bytes) {
+    CRC32C crc = new CRC32C();
+    crc.update(bytes);
+    return crc.getValue();
+  }
+
+  /**
+   * Reads and decodes every JSON file of a data directory in parallel on the
+   * given executor. Files whose checksum matches the previous reload reuse
+   * the earlier result; files that fail to parse are logged and skipped.
+   */
+  private static <T> CompletableFuture<ParsedDirectory<T>> loadJsonDirectory(ResourceManager manager,
+      String dir, FileCache<T> cache, DefinitionDecoders.Decoder<T> decoder, Executor executor) {
+    return CompletableFuture.supplyAsync(() -> {
+      cache.seed();
+      String base = EntomologyMod.MODID + "/" + dir;
+      return new TreeMap<>(manager.findResources(base, path -> path.getPath().endsWith(".json")));
+    }, executor).thenCompose(resources -> {
+      List<Identifier> ids = new ArrayList<>(resources.keySet());
+      List<CompletableFuture<ParsedFile<T>>> futures = new ArrayList<>(ids.size());
+      AtomicInteger unchanged = new AtomicInteger();
+
+      for (Identifier identifier : ids) {
+        Resource resource = resources.get(identifier);
+        futures.add(CompletableFuture.supplyAsync(() -> {
+          try (InputStream stream = resource.getInputStream()) {
+            byte[] bytes = stream.readAllBytes();
+            long checksum = checksum(bytes);
+
+            ParsedFile<T> cached = cache.get(identifier, checksum);
+            if (cached != null) {
+              unchanged.incrementAndGet();
+              return cached;
+            }
+
+            return new ParsedFile<>(checksum, DefinitionDecoders.decode(bytes, decoder));
+          } catch (Exception e) {
+            EntomologyMod.LOGGER.error("Failed to load JSON {}", identifier, e);
+            return null;
+          }
+        }, executor));
       }
+
+      return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+        Map<Identifier, ParsedFile<T>> files = new LinkedHashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+          ParsedFile<T> parsed = futures.get(i).join();
+          if (parsed != null) {
+            files.put(ids.get(i), parsed);
+          }
+        }
+        ParsedDirectory<T> directory =
+            new ParsedDirectory<>(Collections.unmodifiableMap(files), unchanged.get());
+        cache.persist(directory);
+        return directory;
+      });
     });
   }
 
@@ -0,0 +1,266 @@
+package dk.mosberg.entomology.data;
+
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.ValidationException;
+import org.everit.json.schema.loader.SchemaLoader;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Validates every JSON file of the entomology data namespace against the
+ * matching schema in {@code schema/}.
+ *
+ * Files are validated in parallel on a bounded ForkJoin pool owned by the
+ * validator; each schema is compiled once per run. Input is a map of paths
+ * relative to {@code data/entomology/} (e.g. {@code specimen/bee.json}), so
+ * the same pipeline serves the in-game command, which reads the active data
+ * packs, and the {@code validateData} Gradle task, which reads the source
+ * tree through {@link #main(String[])}.
+ *
+ * This class deliberately has no Minecraft dependencies.
+ */
+public class DataPackValidator implements AutoCloseable {
+  /**
+   * Top-level data directories that have a schema.
+   */
+  public static final List<String> DIRECTORIES = List.of(
+      "specimen", "research", "items", "blocks", "mechanics",
+      "advancement", "recipe", "loot_table", "tags", "damage_type", "worldgen");
+
+  private static final String SCHEMA_DIR = "schema/";
+  private static final String SCHEMA_SUFFIX = ".schema.json";
+
+  private final ForkJoinPool pool;
+
+  /**
+   * Creates a validator with a default bounded parallelism.
+   */
+  public DataPackValidator() {
+    this(Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1)));
+  }
+
+  public DataPackValidator(int parallelism) {
+    this.pool = new ForkJoinPool(Math.max(1, parallelism));
+  }
+
+  /**
+   * Opens the contents of one file.
+   */
+  @FunctionalInterface
+  public interface Source {
+    InputStream open() throws IOException;
+  }
+
+  /**
+   * Validates asynchronously on the validator's pool.
+   */
+  public CompletableFuture<Report> validateAsync(Map<String, Source> files) {
+    return CompletableFuture.supplyAsync(() -> validate(files), pool);
+  }
+
+  /**
+   * Validates all files and aggregates the results.
+   *
+   * @param files file sources keyed by path relative to {@code data/entomology/};
+   *              entries under {@code schema/} provide the schemas
+   */
+  public Report validate(Map<String, Source> files) {
+    long start = System.nanoTime();
+    Map<String, Schema> schemas = new ConcurrentHashMap<>();
+    Map<String, String> schemaErrors = new ConcurrentHashMap<>();
+
+    List<Callable<FileResult>> tasks = new ArrayList<>();
+    int skipped = 0;
+    for (Map.Entry<String, Source> entry : files.entrySet()) {
+      String path = entry.getKey();
+      if (path.startsWith(SCHEMA_DIR)) {
+        continue;
+      }
+      String schemaName = schemaFor(path);
+      if (schemaName == null) {
+        skipped++;
+        continue;
+      }
+      Source source = entry.getValue();
+      tasks.add(() -> validateFile(path, source, schemaName, files, schemas, schemaErrors));
+    }
+
+    List<Issue> issues = new ArrayList<>();
+    for (Future<FileResult> future : pool.invokeAll(tasks)) {
+      FileResult result = join(future);
+      if (result.issue() != null) {
+        issues.add(result.issue());
+      }
+    }
+    issues.sort(Comparator.comparing(Issue::path));
+
+    long elapsed = (System.nanoTime() - start) / 1_000_000L;
+    return new Report(tasks.size(), skipped, List.copyOf(issues), elapsed);
+  }
+
+  @Override
+  public void close() {
+    pool.shutdown();
+  }
+
+  /**
+   * Gets the schema name (without suffix) for a data file, or null if the
+   * file has none.
+   */
+  public static String schemaFor(String path) {
+    int slash = path.indexOf('/');
+    if (slash < 0 || !path.endsWith(".json")) {
+      return null;
+    }
+    String dir = path.substring(0, slash);
+    String file = path.substring(path.lastIndexOf('/') + 1);
+    return switch (dir) {
+      case "specimen", "specimens" -> "specimen";
+      case "research" -> "research";
+      case "items" -> file.endsWith("_bug_net.json") ? "bug_net" : "item";
+      case "blocks" -> "block";
+      case "mechanics" -> file.equals("breeding_config.json") ? "breeding_config" : "mechanics";
+      case "advancement" -> "advancement";
+      case "recipe" -> "recipe";
+      case "loot_table" -> "loot_table";
+      case "tags" -> "tag";
+      case "damage_type" -> "damage_type";
+      case "worldgen" -> path.startsWith("worldgen/biome/") ? "worldgen_biome" : null;
+      default -> null;
+    };
+  }
+
+  /**
+   * Collects all JSON files below a {@code data/entomology} directory.
+   */
+  public static Map<String, Source> scanDirectory(Path root) throws IOException {
+    Map<String, Source> files = new TreeMap<>();
+    try (Stream<Path> paths = Files.walk(root)) {
+      paths.filter(Files::isRegularFile)
+          .filter(path -> path.toString().endsWith(".json"))
+          .forEach(path -> files.put(root.relativize(path).toString().replace('\\', '/'),
+              () -> Files.newInputStream(path)));
+    }
+    return files;
+  }
+
+  private static FileResult validateFile(String path, Source source, String schemaName,
+      Map<String, Source> files, Map<String, Schema> schemas, Map<String, String> schemaErrors) {
+    Schema schema = schemas.get(schemaName);
+    if (schema == null) {
+      String schemaPath = SCHEMA_DIR + schemaName + SCHEMA_SUFFIX;
+      String error = schemaErrors.get(schemaName);
+      if (error == null) {
+        try {
+          schema = schemas.computeIfAbsent(schemaName, name -> compileSchema(files.get(schemaPath)));
+        } catch (RuntimeException e) {
+          error = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+          schemaErrors.putIfAbsent(schemaName, error);
+        }
+      }
+      if (schema == null) {
+        return new FileResult(new Issue(path, schemaName, "Schema " + schemaPath + " unavailable: " + error));
+      }
+    }
+
+    try (InputStream input = source.open()) {
+      Object json = new JSONTokener(input).nextValue();
+      schema.validate(json);
+      return FileResult.OK;
+    } catch (ValidationException e) {
+      return new FileResult(new Issue(path, schemaName, String.join("; ", e.getAllMessages())));
+    } catch (Exception e) {
+      return new FileResult(new Issue(path, schemaName, "Malformed JSON: " + e.getMessage()));
+    }
+  }
+
+  private static Schema compileSchema(Source source) {
+    if (source == null) {
+      throw new IllegalStateException("not found");
+    }
+    try (InputStream input = source.open()) {
+      return SchemaLoader.load(new JSONObject(new JSONTokener(input)));
+    } catch (IOException e) {
+      throw new IllegalStateException(e.getMessage(), e);
+    }
+  }
+
+  private static FileResult join(Future<FileResult> future) {
+    try {
+      return future.get();
+    } catch (Exception e) {
+      return new FileResult(new Issue("?", "?", "Validation task failed: " + e.getMessage()));
+    }
+  }
+
+  private record FileResult(Issue issue) {
+    static final FileResult OK = new FileResult(null);
+  }
+
+  /**
+   * A file that failed validation.
+   */
+  public record Issue(String path, String schema, String message) {
+    @Override
+    public String toString() {
+      return path + " (" + schema + "): " + message;
+    }
+  }
+
+  /**
+   * Aggregated result of one validation run.
+   *
+   * @param checked  number of files validated against a schema
+   * @param skipped  number of JSON files without a matching schema
+   * @param issues   failures, sorted by path
+   * @param elapsedMillis wall time of the run
+   */
+  public record Report(int checked, int skipped, List<Issue> issues, long elapsedMillis) {
+    public boolean isValid() {
+      return issues.isEmpty();
+    }
+
+    public String summary() {
+      return String.format("Validated %d files (%d without schema) in %d ms: %d invalid",
+          checked, skipped, elapsedMillis, issues.size());
+    }
+  }
+
+  /**
+   * Validates a source tree; used by the {@code validateData} Gradle task.
+   *
+   * @param args path to a {@code data/entomology} directory
+   */
+  public static void main(String[] args) throws IOException {
+    Path root = Paths.get(args.length > 0 ? args[0] : "src/main/resources/data/entomology");
+    Report report;
+    try (DataPackValidator validator = new DataPackValidator()) {
+      report = validator.validate(scanDirectory(root));
+    }
+
+    System.out.println(report.summary());
+    for (Issue issue : report.issues()) {
+      System.out.println("  " + issue);
+    }
+    if (!report.isValid()) {
+      System.exit(1);
+    }
+  }
+}
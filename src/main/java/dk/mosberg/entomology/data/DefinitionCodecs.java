@@ -0,0 +1,326 @@
+package dk.mosberg.entomology.data;
+
+import dk.mosberg.entomology.data.CompiledDataCache.Codec;
+import dk.mosberg.entomology.data.CompiledDataCache.Input;
+import dk.mosberg.entomology.data.CompiledDataCache.Output;
+import net.minecraft.util.Identifier;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Binary codecs for the definitions stored in the {@link CompiledDataCache}.
+ *
+ * Field order is part of the cache format; bump {@link #VERSION} when
+ * changing any codec or the defaults applied while decoding.
+ */
+final class DefinitionCodecs {
+  /** Stored in the cache header; files with another version are ignored. */
+  static final int VERSION = 1;
+
+  private DefinitionCodecs() {
+  }
+
+  static final Codec<SpecimenDefinition> SPECIMEN = Codec.of(
+      (out, def) -> {
+        out.writeString(def.id());
+        out.writeIdentifier(def.entityType());
+        out.writeString(def.displayNameKey());
+        out.writeString(def.descriptionKey());
+        out.writeString(def.rarity());
+        out.writeDouble(def.size());
+        out.writeInt(def.experienceValue());
+        out.writeBoolean(def.canBreed());
+      },
+      in -> new SpecimenDefinition(
+          in.readString(),
+          in.readIdentifier(),
+          in.readString(),
+          in.readString(),
+          in.readString(),
+          in.readDouble(),
+          in.readInt(),
+          in.readBoolean()));
+
+  static final Codec<ResearchEntryDefinition> RESEARCH = Codec.of(
+      (out, def) -> {
+        out.writeString(def.id());
+        out.writeString(def.specimenId());
+        out.writeString(def.pageKey());
+      },
+      in -> new ResearchEntryDefinition(in.readString(), in.readString(), in.readString()));
+
+  static final Codec<ItemDefinition> ITEM = Codec.of(
+      (out, def) -> {
+        out.writeString(def.id());
+        out.writeString(def.type());
+        out.writeList(def.captureTargets(), Output::writeIdentifier);
+        out.writeInt(def.durability());
+      },
+      in -> new ItemDefinition(
+          in.readString(),
+          in.readString(),
+          in.readList(Input::readIdentifier),
+          in.readInt()));
+
+  static final Codec<BlockDefinition> BLOCK = Codec.of(
+      (out, def) -> {
+        out.writeString(def.id());
+        out.writeInt(def.capacity());
+        out.writeBoolean(def.displayEntity());
+        out.writeList(def.inputs(), Output::writeString);
+        out.writeList(def.outputs(), Output::writeString);
+      },
+      in -> new BlockDefinition(
+          in.readString(),
+          in.readInt(),
+          in.readBoolean(),
+          in.readList(Input::readString),
+          in.readList(Input::readString)));
+
+  static final Codec<BreedingConfigDefinition> BREEDING_CONFIG = Codec.of(
+      (out, def) -> out.writeList(def.breedingPairs(), DefinitionCodecs::writePair),
+      in -> new BreedingConfigDefinition(in.readList(DefinitionCodecs::readPair)));
+
+  static final Codec<MechanicsConfigDefinition> MECHANICS_CONFIG = Codec.of(
+      DefinitionCodecs::writeMechanicsConfig,
+      DefinitionCodecs::readMechanicsConfig);
+
+  static final Codec<DataDrivenRegistry.MechanicsReloader.MechanicsFile> MECHANICS_FILE = Codec.of(
+      (out, file) -> {
+        if (out.writePresent(file.breedingConfig())) {
+          BREEDING_CONFIG.write(out, file.breedingConfig());
+        }
+        if (out.writePresent(file.mechanicsConfig())) {
+          MECHANICS_CONFIG.write(out, file.mechanicsConfig());
+        }
+      },
+      in -> new DataDrivenRegistry.MechanicsReloader.MechanicsFile(
+          in.readPresent() ? BREEDING_CONFIG.read(in) : null,
+          in.readPresent() ? MECHANICS_CONFIG.read(in) : null));
+
+  static final Codec<BugNetDefinition> BUG_NET = Codec.of(
+      (out, def) -> {
+        out.writeString(def.getId());
+        out.writeString(def.getTier());
+        out.writeString(def.getType());
+        out.writeList(List.copyOf(def.getCaptureTargets()), Output::writeIdentifier);
+        out.writeInt(def.getDurability());
+        out.writeInt(def.getMaxStackSize());
+        out.writeInt(def.getDurabilityPerCapture());
+        out.writeFloat(def.getCatchRate());
+        out.writeFloat(def.getRange());
+        out.writeFloat(def.getSpeedBonus());
+        Map<String, Float> bonuses = def.getRarityBonuses();
+        out.writeInt(bonuses.size());
+        for (Map.Entry<String, Float> entry : bonuses.entrySet()) {
+          out.writeString(entry.getKey());
+          out.writeFloat(entry.getValue());
+        }
+        out.writeBoolean(def.isFireproof());
+        out.writeBoolean(def.isEnchantable());
+        out.writeInt(def.getEnchantability());
+        out.writeIdentifier(def.getRepairIngredient());
+        BugNetDefinition.SpecialAbilities abilities = def.getSpecialAbilities();
+        out.writeBoolean(abilities.isAutoCapture());
+        out.writeFloat(abilities.getCaptureRadius());
+        out.writeBoolean(abilities.isMultiCapture());
+        out.writeInt(abilities.getMaxCaptures());
+        out.writeBoolean(abilities.canCaptureBoss());
+      },
+      in -> {
+        String id = in.readString();
+        String tier = in.readString();
+        String type = in.readString();
+        Set<Identifier> targets = new HashSet<>(in.readList(Input::readIdentifier));
+        int durability = in.readInt();
+        int maxStackSize = in.readInt();
+        int durabilityPerCapture = in.readInt();
+        float catchRate = in.readFloat();
+        float range = in.readFloat();
+        float speedBonus = in.readFloat();
+        int bonusCount = in.readInt();
+        Map<String, Float> bonuses = new HashMap<>();
+        for (int i = 0; i < bonusCount; i++) {
+          bonuses.put(in.readString(), in.readFloat());
+        }
+        boolean fireproof = in.readBoolean();
+        boolean enchantable = in.readBoolean();
+        int enchantability = in.readInt();
+        Identifier repairIngredient = in.readIdentifier();
+        BugNetDefinition.SpecialAbilities abilities = new BugNetDefinition.SpecialAbilities(
+            in.readBoolean(), in.readFloat(), in.readBoolean(), in.readInt(), in.readBoolean());
+        return new BugNetDefinition(id, tier, type, targets, durability, maxStackSize,
+            durabilityPerCapture, catchRate, range, speedBonus, bonuses, fireproof, enchantable,
+            enchantability, repairIngredient, abilities);
+      });
+
+  private static void writePair(Output out, BreedingConfigDefinition.BreedingPair pair) throws IOException {
+    out.writeString(pair.parent1());
+    out.writeString(pair.parent2());
+    out.writeList(pair.offspring(), Output::writeString);
+    out.writeDouble(pair.chance());
+    out.writeList(pair.mutations(), DefinitionCodecs::writeMutation);
+    BreedingConfigDefinition.Requirements req = pair.requirements();
+    if (out.writePresent(req)) {
+      writeNullableInt(out, req.minLightLevel());
+      writeNullableInt(out, req.maxLightLevel());
+      writeNullableDouble(out, req.minTemperature());
+      writeNullableDouble(out, req.maxTemperature());
+      writeNullableBoolean(out, req.underground());
+      writeNullableBoolean(out, req.requiresWaterNearby());
+      writeNullableBoolean(out, req.requiresFlowersNearby());
+      writeNullableBoolean(out, req.requiresLogsNearby());
+    }
+  }
+
+  private static BreedingConfigDefinition.BreedingPair readPair(Input in) {
+    String parent1 = in.readString();
+    String parent2 = in.readString();
+    List<String> offspring = in.readList(Input::readString);
+    double chance = in.readDouble();
+    List<BreedingConfigDefinition.Mutation> mutations = in.readList(DefinitionCodecs::readMutation);
+    BreedingConfigDefinition.Requirements requirements = null;
+    if (in.readPresent()) {
+      requirements = new BreedingConfigDefinition.Requirements(
+          readNullableInt(in),
+          readNullableInt(in),
+          readNullableDouble(in),
+          readNullableDouble(in),
+          readNullableBoolean(in),
+          readNullableBoolean(in),
+          readNullableBoolean(in),
+          readNullableBoolean(in));
+    }
+    return new BreedingConfigDefinition.BreedingPair(parent1, parent2, offspring, chance, mutations,
+        requirements);
+  }
+
+  private static void writeMutation(Output out, BreedingConfigDefinition.Mutation mutation) throws IOException {
+    out.writeString(mutation.result());
+    out.writeDouble(mutation.chance());
+    BreedingConfigDefinition.MutationConditions conditions = mutation.conditions();
+    if (out.writePresent(conditions)) {
+      out.writeString(conditions.biome());
+      out.writeString(conditions.moonPhase());
+      out.writeString(conditions.weather());
+      if (out.writePresent(conditions.requiredBlocksNearby())) {
+        out.writeList(conditions.requiredBlocksNearby(), Output::writeString);
+      }
+    }
+  }
+
+  private static BreedingConfigDefinition.Mutation readMutation(Input in) {
+    String result = in.readString();
+    double chance = in.readDouble();
+    BreedingConfigDefinition.MutationConditions conditions = null;
+    if (in.readPresent()) {
+      conditions = new BreedingConfigDefinition.MutationConditions(
+          in.readString(),
+          in.readString(),
+          in.readString(),
+          in.readPresent() ? in.readList(Input::readString) : null);
+    }
+    return new BreedingConfigDefinition.Mutation(result, chance, conditions);
+  }
+
+  private static void writeMechanicsConfig(Output out, MechanicsConfigDefinition def) throws IOException {
+    var breeding = def.breeding();
+    out.writeBoolean(breeding.enabled());
+    out.writeDouble(breeding.baseChance());
+    out.writeDouble(breeding.mutationChance());
+    out.writeInt(breeding.cooldownTicks());
+
+    var environment = def.environment();
+    out.writeBoolean(environment.enabled());
+    out.writeBoolean(environment.affectHealth());
+    out.writeBoolean(environment.affectBehavior());
+    out.writeInt(environment.updateInterval());
+
+    var research = def.research();
+    out.writeBoolean(research.enabled());
+    out.writeInt(research.baseResearchTime());
+    out.writeDouble(research.experienceMultiplier());
+    out.writeBoolean(research.requireFieldGuide());
+
+    var capture = def.capture();
+    out.writeBoolean(capture.enabled());
+    out.writeDouble(capture.baseChance());
+    out.writeBoolean(capture.consumeDurability());
+    out.writeBoolean(capture.allowRecapture());
+
+    var spawning = def.spawning();
+    out.writeBoolean(spawning.enabled());
+    out.writeDouble(spawning.spawnRateMultiplier());
+    out.writeBoolean(spawning.respectBiomeRequirements());
+    out.writeInt(spawning.maxEntitiesPerChunk());
+
+    var display = def.display();
+    out.writeBoolean(display.enabled());
+    out.writeBoolean(display.showParticles());
+    out.writeBoolean(display.showLabels());
+    out.writeDouble(display.entityScale());
+
+    var difficulty = def.difficulty();
+    out.writeString(difficulty.mode());
+    var scaling = difficulty.scaling();
+    out.writeDouble(scaling.captureChanceMultiplier());
+    out.writeDouble(scaling.breedingChanceMultiplier());
+    out.writeDouble(scaling.mutationChanceMultiplier());
+    out.writeInt(scaling.researchTimeMultiplier());
+  }
+
+  private static MechanicsConfigDefinition readMechanicsConfig(Input in) {
+    var breeding = new MechanicsConfigDefinition.BreedingConfig(
+        in.readBoolean(), in.readDouble(), in.readDouble(), in.readInt());
+    var environment = new MechanicsConfigDefinition.EnvironmentConfig(
+        in.readBoolean(), in.readBoolean(), in.readBoolean(), in.readInt());
+    var research = new MechanicsConfigDefinition.ResearchConfig(
+        in.readBoolean(), in.readInt(), in.readDouble(), in.readBoolean());
+    var capture = new MechanicsConfigDefinition.CaptureConfig(
+        in.readBoolean(), in.readDouble(), in.readBoolean(), in.readBoolean());
+    var spawning = new MechanicsConfigDefinition.SpawningConfig(
+        in.readBoolean(), in.readDouble(), in.readBoolean(), in.readInt());
+    var display = new MechanicsConfigDefinition.DisplayConfig(
+        in.readBoolean(), in.readBoolean(), in.readBoolean(), in.readDouble());
+    String mode = in.readString();
+    var scaling = new MechanicsConfigDefinition.DifficultyScaling(
+        in.readDouble(), in.readDouble(), in.readDouble(), in.readInt());
+    return new MechanicsConfigDefinition(breeding, environment, research, capture, spawning, display,
+        new MechanicsConfigDefinition.DifficultyConfig(mode, scaling));
+  }
+
+  private static void writeNullableInt(Output out, Integer value) throws IOException {
+    if (out.writePresent(value)) {
+      out.writeInt(value);
+    }
+  }
+
+  private static Integer readNullableInt(Input in) {
+    return in.readPresent() ? in.readInt() : null;
+  }
+
+  private static void writeNullableDouble(Output out, Double value) throws IOException {
+    if (out.writePresent(value)) {
+      out.writeDouble(value);
+    }
+  }
+
+  private static Double readNullableDouble(Input in) {
+    return in.readPresent() ? in.readDouble() : null;
+  }
+
+  private static void writeNullableBoolean(Output out, Boolean value) throws IOException {
+    if (out.writePresent(value)) {
+      out.writeBoolean(value);
+    }
+  }
+
+  private static Boolean readNullableBoolean(Input in) {
+    return in.readPresent() ? in.readBoolean() : null;
+  }
+}
@@ -0,0 +1,320 @@
+package dk.mosberg.entomology.data;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import net.minecraft.util.Identifier;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streaming decoders for data-pack definitions.
+ *
+ * Fields are read straight from a {@link JsonReader} into the definition
+ * records without building a JsonObject tree; unknown fields are skipped.
+ * Errors carry the line, column and JSON path of the offending value.
+ */
+final class DefinitionDecoders {
+  private DefinitionDecoders() {
+  }
+
+  /**
+   * Decodes a single definition from a reader positioned at the document root.
+   */
+  @FunctionalInterface
+  interface Decoder<T> {
+    T decode(JsonReader in) throws IOException;
+  }
+
+  /**
+   * Decodes one complete JSON document.
+   */
+  static <T> T decode(byte[] bytes, Decoder<T> decoder) throws IOException {
+    JsonReader in = new JsonReader(new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8));
+    in.setLenient(true);
+    try (in) {
+      T value = decoder.decode(in);
+      if (in.peek() != JsonToken.END_DOCUMENT) {
+        throw error(in, "Unexpected content after root object");
+      }
+      return value;
+    } catch (NumberFormatException e) {
+      // nextInt/nextDouble don't report where the bad number was
+      throw error(in, "Invalid number: " + e.getMessage());
+    }
+  }
+
+  static SpecimenDefinition specimen(JsonReader in) throws IOException {
+    String id = null;
+    String entity = null;
+    String nameKey = null;
+    String descKey = null;
+    // Optional fields with defaults
+    String rarity = "common";
+    double size = 1.0;
+    int expValue = 5;
+    boolean canBreed = true;
+
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case "id" -> id = in.nextString();
+        case "entity_type" -> entity = in.nextString();
+        case "display_name_key" -> nameKey = in.nextString();
+        case "description_key" -> descKey = in.nextString();
+        case "rarity" -> rarity = in.nextString();
+        case "size" -> size = in.nextDouble();
+        case "experience_value" -> expValue = in.nextInt();
+        case "can_breed" -> canBreed = in.nextBoolean();
+        default -> in.skipValue();
+      }
+    }
+    in.endObject();
+
+    return new SpecimenDefinition(
+        require(in, id, "id"),
+        Identifier.of(require(in, entity, "entity_type")),
+        require(in, nameKey, "display_name_key"),
+        require(in, descKey, "description_key"),
+        rarity,
+        size,
+        expValue,
+        canBreed);
+  }
+
+  static ResearchEntryDefinition research(JsonReader in) throws IOException {
+    String id = null;
+    String specimenId = null;
+    String pageKey = null;
+
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case "id" -> id = in.nextString();
+        case "specimen_id" -> specimenId = in.nextString();
+        case "page_key" -> pageKey = in.nextString();
+        default -> in.skipValue();
+      }
+    }
+    in.endObject();
+
+    return new ResearchEntryDefinition(
+        require(in, id, "id"),
+        require(in, specimenId, "specimen_id"),
+        require(in, pageKey, "page_key"));
+  }
+
+  static ItemDefinition item(JsonReader in) throws IOException {
+    String id = null;
+    String type = null;
+    int durability = 0;
+    List<Identifier> targets = null;
+
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case "id" -> id = in.nextString();
+        case "type" -> type = in.nextString();
+        case "durability" -> durability = in.nextInt();
+        case "capture_targets" -> targets = readIdentifierList(in);
+        default -> in.skipValue();
+      }
+    }
+    in.endObject();
+
+    id = require(in, id, "id");
+    type = require(in, type, "type");
+
+    // schema validation: ensure specific items have expected fields
+    if ("bug_net".equals(id)) {
+      if (targets == null) {
+        throw error(in, "bug_net requires capture_targets");
+      }
+      if (durability <= 0) {
+        throw error(in, "bug_net must have positive durability");
+      }
+    }
+
+    return new ItemDefinition(id, type, targets != null ? targets : new ArrayList<>(), durability);
+  }
+
+  static BlockDefinition block(JsonReader in) throws IOException {
+    String id = null;
+    int capacity = 0;
+    boolean displayEntity = false;
+    List<String> inputs = new ArrayList<>();
+    List<String> outputs = new ArrayList<>();
+
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case "id" -> id = in.nextString();
+        case "capacity" -> capacity = in.nextInt();
+        case "display_entity" -> displayEntity = in.nextBoolean();
+        case "inputs" -> inputs = readStringList(in);
+        case "outputs" -> outputs = readStringList(in);
+        default -> in.skipValue();
+      }
+    }
+    in.endObject();
+
+    id = require(in, id, "id");
+
+    // schema validation for known ids
+    if ("specimen_jar".equals(id)) {
+      if (capacity <= 0) {
+        throw error(in, "specimen_jar capacity must be > 0");
+      }
+    }
+    if ("research_station".equals(id)) {
+      if (!inputs.contains("specimen_jar") || !inputs.contains("field_guide")) {
+        throw error(in, "research_station inputs must contain specimen_jar and field_guide");
+      }
+      if (!outputs.contains("research_entry")) {
+        throw error(in, "research_station outputs must contain research_entry");
+      }
+    }
+
+    return new BlockDefinition(id, capacity, displayEntity, inputs, outputs);
+  }
+
+  static BugNetDefinition bugNet(JsonReader in) throws IOException {
+    String id = null;
+    String tier = null;
+    String type = null;
+    Set<Identifier> targets = null;
+    Integer durability = null;
+    Integer maxStackSize = null;
+    Integer durabilityPerCapture = null;
+    Float catchRate = null;
+    Float range = null;
+    Float speedBonus = null;
+    Map<String, Float> rarityBonus = null;
+    boolean fireproof = false;
+    boolean enchantable = true;
+    Integer enchantability = null;
+    String repairIngredient = null;
+    BugNetDefinition.SpecialAbilities abilities = new BugNetDefinition.SpecialAbilities();
+
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case "id" -> id = in.nextString();
+        case "tier" -> tier = in.nextString();
+        case "type" -> type = in.nextString();
+        case "capture_targets" -> targets = new HashSet<>(readIdentifierList(in));
+        case "durability" -> durability = in.nextInt();
+        case "max_stack_size" -> maxStackSize = in.nextInt();
+        case "durability_per_capture" -> durabilityPerCapture = in.nextInt();
+        case "catchRate" -> catchRate = (float) in.nextDouble();
+        case "range" -> range = (float) in.nextDouble();
+        case "speedBonus" -> speedBonus = (float) in.nextDouble();
+        case "rarityBonus" -> rarityBonus = readFloatMap(in);
+        case "fireproof" -> fireproof = in.nextBoolean();
+        case "enchantable" -> enchantable = in.nextBoolean();
+        case "enchantability" -> enchantability = in.nextInt();
+        case "repairIngredient" -> repairIngredient = in.nextString();
+        case "special_abilities" -> abilities = specialAbilities(in);
+        default -> in.skipValue();
+      }
+    }
+    in.endObject();
+
+    return new BugNetDefinition(
+        require(in, id, "id"),
+        require(in, tier, "tier"),
+        require(in, type, "type"),
+        require(in, targets, "capture_targets"),
+        require(in, durability, "durability"),
+        require(in, maxStackSize, "max_stack_size"),
+        require(in, durabilityPerCapture, "durability_per_capture"),
+        require(in, catchRate, "catchRate"),
+        require(in, range, "range"),
+        require(in, speedBonus, "speedBonus"),
+        require(in, rarityBonus, "rarityBonus"),
+        fireproof,
+        enchantable,
+        require(in, enchantability, "enchantability"),
+        Identifier.of(require(in, repairIngredient, "repairIngredient")),
+        abilities);
+  }
+
+  private static BugNetDefinition.SpecialAbilities specialAbilities(JsonReader in) throws IOException {
+    boolean autoCapture = false;
+    float captureRadius = 0.0f;
+    boolean multiCapture = false;
+    int maxCaptures = 1;
+    boolean captureBoss = false;
+
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case "auto_capture" -> autoCapture = in.nextBoolean();
+        case "capture_radius" -> captureRadius = (float) in.nextDouble();
+        case "multi_capture" -> multiCapture = in.nextBoolean();
+        case "max_captures" -> maxCaptures = in.nextInt();
+        case "capture_boss" -> captureBoss = in.nextBoolean();
+        default -> in.skipValue();
+      }
+    }
+    in.endObject();
+
+    return new BugNetDefinition.SpecialAbilities(autoCapture, captureRadius, multiCapture, maxCaptures,
+        captureBoss);
+  }
+
+  private static List<String> readStringList(JsonReader in) throws IOException {
+    List<String> list = new ArrayList<>();
+    in.beginArray();
+    while (in.hasNext()) {
+      list.add(in.nextString());
+    }
+    in.endArray();
+    return list;
+  }
+
+  private static List<Identifier> readIdentifierList(JsonReader in) throws IOException {
+    List<Identifier> list = new ArrayList<>();
+    in.beginArray();
+    while (in.hasNext()) {
+      list.add(Identifier.of(in.nextString()));
+    }
+    in.endArray();
+    return list;
+  }
+
+  private static Map<String, Float> readFloatMap(JsonReader in) throws IOException {
+    Map<String, Float> map = new HashMap<>();
+    in.beginObject();
+    while (in.hasNext()) {
+      map.put(in.nextName(), (float) in.nextDouble());
+    }
+    in.endObject();
+    return map;
+  }
+
+  private static <T> T require(JsonReader in, T value, String key) {
+    if (value == null) {
+      throw error(in, "Missing required field: " + key);
+    }
+    return value;
+  }
+
+  /**
+   * Creates a parse error carrying the reader's current location.
+   */
+  static JsonParseException error(JsonReader in, String message) {
+    // JsonReader.toString() is "JsonReader at line L column C path P"
+    String location = in.toString().substring(in.getClass().getSimpleName().length());
+    return new JsonParseException(message + location);
+  }
+}
@@ -0,0 +1,180 @@
+package dk.mosberg.entomology.integration;
+
+import dk.mosberg.entomology.EntomologyMod;
+import dk.mosberg.entomology.api.mechanics.IAdvancedMechanic;
+import dk.mosberg.entomology.api.mechanics.IMechanicContext;
+import dk.mosberg.entomology.api.mechanics.IMechanicResult;
+import dk.mosberg.entomology.profiler.TickProfiler;
+import dk.mosberg.entomology.registry.advanced.ComponentRegistry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Collects mechanic contexts submitted during a tick and executes them in
+ * batches grouped by {@link IMechanicContext.ContextType}.
+ *
+ * On {@link #tick()} each mechanic indexed for a type, in priority order,
+ * receives the pending contexts of that type it applies to through
+ * {@link IAdvancedMechanic#executeBatch(List, IMechanicResult[])}, and the
+ * callback of every context is invoked with each result.
+ *
+ * Thread Safety: {@link #submit} may be called from any thread;
+ * {@link #tick()} must only be called from the server thread.
+ */
+public class MechanicDispatcher {
+  private final ComponentRegistry registry;
+  private final Map<IMechanicContext.ContextType, Queue> queues =
+      new EnumMap<>(IMechanicContext.ContextType.class);
+
+  // Scratch buffers reused across ticks (server thread only)
+  private final List<IMechanicContext> batch = new ArrayList<>();
+  private int[] batchIndices = new int[64];
+  private IMechanicResult[] results = new IMechanicResult[64];
+
+  public MechanicDispatcher(ComponentRegistry registry) {
+    this.registry = registry;
+    for (IMechanicContext.ContextType type : IMechanicContext.ContextType.values()) {
+      queues.put(type, new Queue());
+    }
+  }
+
+  /**
+   * Queues a context for execution on the next tick.
+   *
+   * @param context  execution context
+   * @param callback receives each applicable mechanic and its result
+   */
+  public void submit(IMechanicContext context,
+      BiConsumer<IAdvancedMechanic, IMechanicResult> callback) {
+    queues.get(context.getType()).add(context, callback);
+  }
+
+  /**
+   * Gets the number of contexts waiting for the next tick.
+   */
+  public int getPendingCount() {
+    int pending = 0;
+    for (Queue queue : queues.values()) {
+      pending += queue.size();
+    }
+    return pending;
+  }
+
+  /**
+   * Executes all pending contexts.
+   */
+  public void tick() {
+    for (Map.Entry<IMechanicContext.ContextType, Queue> entry : queues.entrySet()) {
+      Queue.Drained drained = entry.getValue().drain();
+      if (drained.size() == 0) {
+        continue;
+      }
+      try {
+        // Cached by the registry: no sorting or copying per tick
+        dispatch(registry.getMechanics(entry.getKey()), drained);
+      } finally {
+        drained.clear();
+      }
+    }
+  }
+
+  /**
+   * Runs every applicable mechanic over one group of contexts.
+   */
+  private void dispatch(List<IAdvancedMechanic> mechanics, Queue.Drained drained) {
+    int size = drained.size();
+    ensureCapacity(size);
+
+    for (IAdvancedMechanic mechanic : mechanics) {
+      batch.clear();
+      for (int i = 0; i < size; i++) {
+        IMechanicContext context = drained.contexts.get(i);
+        if (mechanic.appliesTo(context)) {
+          batchIndices[batch.size()] = i;
+          batch.add(context);
+        }
+      }
+      if (batch.isEmpty()) {
+        continue;
+      }
+
+      int count = batch.size();
+      TickProfiler profiler = TickProfiler.getInstance();
+      profiler.push(mechanic.getId());
+      try {
+        try {
+          mechanic.executeBatch(batch, results);
+        } catch (Exception e) {
+          EntomologyMod.LOGGER.error("Batch execution failed for mechanic {}", mechanic.getId(), e);
+          Arrays.fill(results, 0, count,
+              IMechanicResult.failure("Execution failed: " + e.getMessage()));
+        }
+
+        for (int k = 0; k < count; k++) {
+          try {
+            drained.callbacks.get(batchIndices[k]).accept(mechanic, results[k]);
+          } catch (Exception e) {
+            EntomologyMod.LOGGER.error("Mechanic result callback failed for {}", mechanic.getId(), e);
+          }
+        }
+      } finally {
+        profiler.pop();
+        Arrays.fill(results, 0, count, null);
+      }
+    }
+    batch.clear();
+  }
+
+  private void ensureCapacity(int size) {
+    if (results.length < size) {
+      int capacity = Math.max(size, results.length * 2);
+      results = new IMechanicResult[capacity];
+      batchIndices = new int[capacity];
+    }
+  }
+
+  /**
+   * Double-buffered queue; submitters append to one buffer while the tick
+   * drains the other.
+   */
+  private static class Queue {
+    private Drained pending = new Drained();
+    private Drained spare = new Drained();
+
+    synchronized void add(IMechanicContext context,
+        BiConsumer<IAdvancedMechanic, IMechanicResult> callback) {
+      pending.contexts.add(context);
+      pending.callbacks.add(callback);
+    }
+
+    synchronized int size() {
+      return pending.size();
+    }
+
+    synchronized Drained drain() {
+      Drained drained = pending;
+      pending = spare;
+      spare = drained;
+      return drained;
+    }
+
+    private static class Drained {
+      final List<IMechanicContext> contexts = new ArrayList<>();
+      final List<BiConsumer<IAdvancedMechanic, IMechanicResult>> callbacks = new ArrayList<>();
+
+      int size() {
+        return contexts.size();
+      }
+
+      void clear() {
+        contexts.clear();
+        callbacks.clear();
+      }
+    }
+  }
+}
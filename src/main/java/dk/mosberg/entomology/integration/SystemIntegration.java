@@ -3,23 +3,53 @@ package dk.mosberg.entomology.integration;
 import dk.mosberg.entomology.EntomologyMod;
 import dk.mosberg.entomology.api.mechanics.IAdvancedMechanic;
 import dk.mosberg.entomology.balance.TelemetrySystem;
+import dk.mosberg.entomology.balance.export.JsonLinesExporter;
+import dk.mosberg.entomology.balance.export.PrometheusExporter;
+import dk.mosberg.entomology.balance.export.TelemetrySnapshot;
+import dk.mosberg.entomology.balance.tuning.TunerSpec;
+import dk.mosberg.entomology.balance.tuning.TuningEngine;
+import dk.mosberg.entomology.config.EntomologyConfig;
+import dk.mosberg.entomology.config.advanced.ConfigFileWatcher;
 import dk.mosberg.entomology.config.advanced.SchemaConfigManager;
+import dk.mosberg.entomology.data.DataPackValidator;
+import dk.mosberg.entomology.mechanics.environment.EnvironmentalScheduler;
 import dk.mosberg.entomology.mechanics.impl.AdvancedBreedingMechanic;
+import dk.mosberg.entomology.profiler.TickProfiler;
 import dk.mosberg.entomology.registry.advanced.ComponentRegistry;
+import com.google.gson.JsonObject;
+import net.minecraft.resource.ResourceManager;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Integration manager for initializing the advanced systems.
  * Coordinates component registry, configuration, and telemetry.
  */
 public class SystemIntegration {
+  private static final int TICKS_PER_SECOND = 20;
+  private static final long BYTES_PER_MEGABYTE = 1024L * 1024L;
+
   private static SystemIntegration instance;
 
   private final ComponentRegistry registry;
   private final SchemaConfigManager configManager;
   private final TelemetrySystem telemetry;
+  private final MechanicDispatcher dispatcher;
+  private final TuningEngine tuningEngine;
+  private ConfigFileWatcher configWatcher;
+  private PrometheusExporter metricsExporter;
+  private volatile JsonLinesExporter telemetryLog;
+  private int telemetryLogTicks;
+  private long tickCount;
+  private volatile int balanceUpdateTicks = 100;
   private boolean initialized = false;
 
   private SystemIntegration() {
@@ -30,6 +60,8 @@ public class SystemIntegration {
     this.configManager = new SchemaConfigManager(configRoot, schemaRoot);
 
     this.telemetry = TelemetrySystem.getInstance();
+    this.dispatcher = new MechanicDispatcher(registry);
+    this.tuningEngine = new TuningEngine(telemetry);
   }
 
   public static synchronized SystemIntegration getInstance() {
@@ -109,6 +141,7 @@ public class SystemIntegration {
     configManager.addListener("mechanics", config -> {
       EntomologyMod.LOGGER.info("Mechanics configuration changed, reloading...");
       configureMechanics();
+      configureTuning();
     });
   }
 
@@ -151,11 +184,79 @@ public class SystemIntegration {
 
     telemetry.setEnabled(telemetryEnabled);
 
+    // Balancing looks at a rolling window of recent telemetry
+    int windowSeconds = configManager.get("mechanics", "balance.windowSeconds", Integer.class, 300);
+    int slotSeconds = configManager.get("mechanics", "balance.windowSlotSeconds", Integer.class, 5);
+    try {
+      telemetry.configureWindow(windowSeconds, slotSeconds);
+    } catch (IllegalArgumentException e) {
+      EntomologyMod.LOGGER.warn("{}; keeping {}s window", e.getMessage(), telemetry.getWindowSeconds());
+    }
+
     if (telemetryEnabled) {
       EntomologyMod.LOGGER.info("Telemetry system enabled");
     } else {
       EntomologyMod.LOGGER.info("Telemetry system disabled");
     }
+
+    configureTuning();
+  }
+
+  /**
+   * Configures the balance tuners from {@code balance.tuners}; see
+   * {@link TunerSpec#fromBalanceConfig}.
+   */
+  private void configureTuning() {
+    balanceUpdateTicks = Math.max(1,
+        configManager.get("mechanics", "balance.updateIntervalTicks", Integer.class, 100));
+
+    JsonObject balance = configManager.get("mechanics", "balance", JsonObject.class, new JsonObject());
+    try {
+      tuningEngine.configure(TunerSpec.fromBalanceConfig(balance));
+    } catch (RuntimeException e) {
+      EntomologyMod.LOGGER.error("Failed to configure balance tuners; keeping the previous ones", e);
+    }
+  }
+
+  /**
+   * Runs per-tick work; called at the end of every server tick.
+   */
+  public void tick() {
+    if (!initialized) {
+      return;
+    }
+    TickProfiler profiler = TickProfiler.getInstance();
+
+    // Scheduled checks submit to the dispatcher, so they run first
+    profiler.push("environment");
+    try {
+      EnvironmentalScheduler.getInstance().tick();
+    } finally {
+      profiler.pop();
+    }
+    profiler.push("mechanics");
+    try {
+      dispatcher.tick();
+    } finally {
+      profiler.pop();
+    }
+
+    profiler.push("telemetry");
+    try {
+      // One balance cycle per telemetry window slot; tuners evaluate off-thread
+      // and start the cycle once their results are published
+      if (++tickCount % balanceUpdateTicks == 0) {
+        tuningEngine.requestUpdate();
+      }
+
+      JsonLinesExporter log = telemetryLog;
+      if (log != null && tickCount % telemetryLogTicks == 0) {
+        // Captured on the writer thread, like the Prometheus scrape
+        log.requestCapture();
+      }
+    } finally {
+      profiler.pop();
+    }
   }
 
   /**
@@ -166,10 +267,96 @@ public class SystemIntegration {
 
     configManager.reloadAll();
     configureMechanics();
+    configureTuning();
 
     EntomologyMod.LOGGER.info("Reload complete");
   }
 
+  /**
+   * Starts hot-reloading configuration files as they change on disk.
+   *
+   * @param serverExecutor executor for the server thread, where validated
+   *                       configurations are published to listeners
+   */
+  public synchronized void startConfigWatcher(Executor serverExecutor) {
+    if (!EntomologyConfig.watchConfigFiles || configWatcher != null) {
+      return;
+    }
+    ConfigFileWatcher watcher = new ConfigFileWatcher(configManager, serverExecutor);
+    try {
+      watcher.start();
+      configWatcher = watcher;
+    } catch (Exception e) {
+      EntomologyMod.LOGGER.warn("Config hot-reload unavailable", e);
+    }
+  }
+
+  /**
+   * Stops the configuration file watcher, if running.
+   */
+  public synchronized void stopConfigWatcher() {
+    if (configWatcher != null) {
+      configWatcher.close();
+      configWatcher = null;
+    }
+  }
+
+  /**
+   * Captures telemetry and mechanic performance for export.
+   */
+  public TelemetrySnapshot captureTelemetry() {
+    return TelemetrySnapshot.capture(telemetry, registry.getAllMechanics());
+  }
+
+  /**
+   * Starts the telemetry exporters enabled in the mod configuration: the
+   * Prometheus endpoint and the JSON-lines log under {@code logs/}.
+   */
+  public synchronized void startExporters() {
+    if (EntomologyConfig.metricsPort > 0 && metricsExporter == null) {
+      try {
+        PrometheusExporter exporter = new PrometheusExporter(
+            EntomologyConfig.metricsBindAddress, EntomologyConfig.metricsPort, this::captureTelemetry);
+        exporter.start();
+        metricsExporter = exporter;
+      } catch (IOException | RuntimeException e) {
+        EntomologyMod.LOGGER.warn("Metrics endpoint unavailable on {}:{}",
+            EntomologyConfig.metricsBindAddress, EntomologyConfig.metricsPort, e);
+      }
+    }
+
+    if (EntomologyConfig.telemetryLogIntervalSeconds > 0 && telemetryLog == null) {
+      try {
+        JsonLinesExporter log = new JsonLinesExporter(Paths.get("logs"), "entomology-telemetry",
+            EntomologyConfig.telemetryLogMaxMegabytes * BYTES_PER_MEGABYTE,
+            EntomologyConfig.telemetryLogMaxFiles, this::captureTelemetry);
+        log.start();
+        telemetryLogTicks = EntomologyConfig.telemetryLogIntervalSeconds * TICKS_PER_SECOND;
+        telemetryLog = log;
+      } catch (IllegalArgumentException e) {
+        EntomologyMod.LOGGER.warn("Telemetry log disabled: {}", e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Stops the telemetry exporters, writing any queued snapshots.
+   */
+  public synchronized void stopExporters() {
+    if (metricsExporter != null) {
+      metricsExporter.close();
+      metricsExporter = null;
+    }
+    if (telemetryLog != null) {
+      JsonLinesExporter log = telemetryLog;
+      telemetryLog = null;
+      if (log.getDroppedCount() > 0) {
+        EntomologyMod.LOGGER.warn("Telemetry log dropped {} snapshots", log.getDroppedCount());
+      }
+      log.close();
+    }
+  }
+
   /**
    * Validate all system configurations.
    *
@@ -200,13 +387,46 @@ public class SystemIntegration {
     }
   }
 
+  /**
+   * Validates every entomology data file of the active data packs against
+   * its schema, off the calling thread.
+   *
+   * @param manager server data resource manager
+   * @return future completing with the aggregated report
+   */
+  public CompletableFuture<DataPackValidator.Report> validateDataPack(ResourceManager manager) {
+    // Resource lookup is cheap; only reading and validating runs in parallel
+    Map<String, DataPackValidator.Source> files = new TreeMap<>();
+    List<String> directories = new ArrayList<>(DataPackValidator.DIRECTORIES);
+    directories.add("schema");
+    for (String directory : directories) {
+      manager.findResources(directory, id -> id.getNamespace().equals(EntomologyMod.MODID)
+          && id.getPath().endsWith(".json"))
+          .forEach((id, resource) -> files.put(id.getPath(), resource::getInputStream));
+    }
+
+    DataPackValidator validator = new DataPackValidator();
+    return validator.validateAsync(files).whenComplete((report, error) -> {
+      validator.close();
+      if (report != null) {
+        EntomologyMod.LOGGER.info(report.summary());
+        report.issues().forEach(issue -> EntomologyMod.LOGGER.warn("Invalid data file {}", issue));
+      }
+    });
+  }
+
   /**
    * Shuts down all systems gracefully.
    */
   public void shutdown() {
     EntomologyMod.LOGGER.info("Shutting down advanced systems...");
 
+    stopConfigWatcher();
+    stopExporters();
+    tuningEngine.configure(List.of());
+    configManager.flush();
     registry.shutdownAll();
+    EnvironmentalScheduler.getInstance().clear();
     telemetry.reset();
 
     initialized = false;
@@ -227,6 +447,13 @@ public class SystemIntegration {
     return configManager;
   }
 
+  /**
+   * Gets the batched mechanic dispatcher.
+   */
+  public MechanicDispatcher getDispatcher() {
+    return dispatcher;
+  }
+
   /**
    * Gets the telemetry system.
    */
@@ -234,6 +461,13 @@ public class SystemIntegration {
     return telemetry;
   }
 
+  /**
+   * Gets the balance tuning engine.
+   */
+  public TuningEngine getTuningEngine() {
+    return tuningEngine;
+  }
+
   /**
    * Checks if systems are initialized.
    */
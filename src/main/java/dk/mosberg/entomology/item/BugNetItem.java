@@ -1,7 +1,11 @@
 package dk.mosberg.entomology.item;
 
+import dk.mosberg.entomology.balance.BalanceParameters;
+import dk.mosberg.entomology.balance.MetricHandle;
+import dk.mosberg.entomology.balance.TelemetrySystem;
 import dk.mosberg.entomology.data.BugNetDefinition;
 import dk.mosberg.entomology.data.BugNetReloader;
+import dk.mosberg.entomology.profiler.TickProfiler;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.player.PlayerEntity;
@@ -19,6 +23,9 @@ import net.minecraft.world.World;
 import java.util.List;
 
 public class BugNetItem extends Item {
+  private static final MetricHandle CAPTURE_METRIC =
+      TelemetrySystem.getInstance().metric(BalanceParameters.CAPTURE_SUCCESS_METRIC);
+
   private final String netId;
 
   public BugNetItem(Settings settings, String netId) {
@@ -39,11 +46,17 @@ public class BugNetItem extends Item {
       return ActionResult.FAIL;
     }
 
-    // Check special abilities for multi-capture
-    if (def.getSpecialAbilities().isMultiCapture()) {
-      return attemptMultiCapture(stack, user, entity, hand, def);
-    } else {
-      return attemptSingleCapture(stack, user, entity, hand, def);
+    TickProfiler profiler = TickProfiler.getInstance();
+    profiler.push("bug_net");
+    try {
+      // Check special abilities for multi-capture
+      if (def.getSpecialAbilities().isMultiCapture()) {
+        return attemptMultiCapture(stack, user, entity, hand, def);
+      } else {
+        return attemptSingleCapture(stack, user, entity, hand, def);
+      }
+    } finally {
+      profiler.pop();
     }
   }
 
@@ -77,7 +90,9 @@ public class BugNetItem extends Item {
 
     float catchChance = calculateCatchChance(user, entity, def);
 
-    if (user.getRandom().nextFloat() < catchChance) {
+    boolean caught = user.getRandom().nextFloat() < catchChance;
+    CAPTURE_METRIC.record(caught ? 1.0 : 0.0);
+    if (caught) {
       captureEntity(entity, user, stack, hand, def);
       user.sendMessage(Text.literal("Captured " + entityId + "!").formatted(Formatting.GREEN), true);
       return ActionResult.SUCCESS;
@@ -109,7 +124,9 @@ public class BugNetItem extends Item {
       }
 
       float catchChance = calculateCatchChance(user, entity, def);
-      if (user.getRandom().nextFloat() < catchChance) {
+      boolean caught = user.getRandom().nextFloat() < catchChance;
+      CAPTURE_METRIC.record(caught ? 1.0 : 0.0);
+      if (caught) {
         captureEntity(entity, user, stack, hand, def);
         captured++;
       }
@@ -143,6 +160,9 @@ public class BugNetItem extends Item {
     float healthPercent = entity.getHealth() / entity.getMaxHealth();
     catchChance *= (1.0f + (1.0f - healthPercent) * 0.3f); // Up to 30% bonus at low health
 
+    // Adaptive difficulty, when a tuner drives capture chance
+    catchChance *= (float) TelemetrySystem.getInstance().getAdjustedValue(BalanceParameters.CAPTURE_CHANCE, 1.0);
+
     return Math.max(0.0f, Math.min(1.0f, catchChance));
   }
 
@@ -2,13 +2,14 @@ package dk.mosberg.entomology.mechanics;
 
 import com.google.gson.JsonObject;
 import dk.mosberg.entomology.EntomologyMod;
-import dk.mosberg.entomology.config.ConfigManager;
+import dk.mosberg.entomology.config.ConfigKey;
+import dk.mosberg.entomology.mechanics.random.RandomProvider;
 import net.minecraft.util.Identifier;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * Mechanic for specimen breeding and mutations.
@@ -32,6 +33,13 @@ import java.util.Random;
 public class BreedingMechanic implements IMechanic {
   private static final Identifier ID = EntomologyMod.id("breeding");
 
+  private static final ConfigKey<Boolean> ENABLED =
+      ConfigKey.ofBoolean("mechanics", "breeding.enabled", true);
+  private static final ConfigKey<Double> BASE_CHANCE =
+      ConfigKey.ofDouble("mechanics", "breeding.baseChance", 0.25);
+  private static final ConfigKey<Double> MUTATION_CHANCE =
+      ConfigKey.ofDouble("mechanics", "breeding.mutationChance", 0.05);
+
   private final List<BreedingPair> breedingPairs = new ArrayList<>();
   private boolean enabled = true;
   private double baseChance = 0.25;
@@ -39,10 +47,9 @@ public class BreedingMechanic implements IMechanic {
 
   public BreedingMechanic() {
     // Load config values
-    ConfigManager config = ConfigManager.getInstance();
-    enabled = config.get("mechanics", "breeding.enabled", true);
-    baseChance = config.get("mechanics", "breeding.baseChance", 0.25);
-    mutationChance = config.get("mechanics", "breeding.mutationChance", 0.05);
+    enabled = ENABLED.get();
+    baseChance = BASE_CHANCE.get();
+    mutationChance = MUTATION_CHANCE.get();
   }
 
   @Override
@@ -114,14 +121,26 @@ public class BreedingMechanic implements IMechanic {
     EntomologyMod.LOGGER.info("Configured {} breeding pairs", breedingPairs.size());
   }
 
+  /**
+   * Attempts to breed two specimens using this thread's generator.
+   *
+   * @param specimen1 first parent ID
+   * @param specimen2 second parent ID
+   * @return optional containing offspring ID if successful
+   */
+  public Optional<String> attemptBreeding(String specimen1, String specimen2) {
+    return attemptBreeding(specimen1, specimen2, RandomProvider.current());
+  }
+
   /**
    * Attempts to breed two specimens.
    *
    * @param specimen1 first parent ID
    * @param specimen2 second parent ID
+   * @param random    random source, e.g. from {@link RandomProvider}
    * @return optional containing offspring ID if successful
    */
-  public Optional<String> attemptBreeding(String specimen1, String specimen2, Random random) {
+  public Optional<String> attemptBreeding(String specimen1, String specimen2, RandomGenerator random) {
     for (BreedingPair pair : breedingPairs) {
       if ((pair.parent1.equals(specimen1) && pair.parent2.equals(specimen2))
           || (pair.parent1.equals(specimen2) && pair.parent2.equals(specimen1))) {
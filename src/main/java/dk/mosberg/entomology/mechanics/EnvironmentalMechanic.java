@@ -2,7 +2,7 @@ package dk.mosberg.entomology.mechanics;
 
 import com.google.gson.JsonObject;
 import dk.mosberg.entomology.EntomologyMod;
-import dk.mosberg.entomology.config.ConfigManager;
+import dk.mosberg.entomology.config.ConfigKey;
 import net.minecraft.registry.RegistryKey;
 import net.minecraft.util.Identifier;
 import net.minecraft.world.biome.Biome;
@@ -32,14 +32,18 @@ import java.util.Map;
 public class EnvironmentalMechanic implements IMechanic {
   private static final Identifier ID = EntomologyMod.id("environmental");
 
+  private static final ConfigKey<Boolean> ENABLED =
+      ConfigKey.ofBoolean("mechanics", "environment.enabled", true);
+  private static final ConfigKey<Integer> UPDATE_INTERVAL =
+      ConfigKey.ofInt("mechanics", "environment.updateInterval", 100);
+
   private final Map<String, EnvironmentalPreferences> preferences = new HashMap<>();
   private boolean enabled = true;
   private int updateInterval = 100; // ticks
 
   public EnvironmentalMechanic() {
-    ConfigManager config = ConfigManager.getInstance();
-    enabled = config.get("mechanics", "environment.enabled", true);
-    updateInterval = config.get("mechanics", "environment.updateInterval", 100);
+    enabled = ENABLED.get();
+    updateInterval = UPDATE_INTERVAL.get();
   }
 
   /**
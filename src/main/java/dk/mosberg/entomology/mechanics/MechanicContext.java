@@ -66,6 +66,21 @@ public class MechanicContext implements IMechanicContext {
     return Optional.ofNullable(data.get(key));
   }
 
+  @Override
+  public Object getDataOrNull(String key) {
+    return data.get(key);
+  }
+
+  @Override
+  public BlockPos getPositionOrNull() {
+    return position;
+  }
+
+  @Override
+  public Identifier getSpecimenIdOrNull() {
+    return specimenId;
+  }
+
   @Override
   public Map<String, Object> getAllData() {
     return data;
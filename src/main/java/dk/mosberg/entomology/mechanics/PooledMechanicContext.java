@@ -0,0 +1,349 @@
+package dk.mosberg.entomology.mechanics;
+
+import dk.mosberg.entomology.api.mechanics.IMechanicContext;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Recyclable, mutable implementation of IMechanicContext for hot paths.
+ *
+ * Well-known keys are stored in fixed slots ({@link Slot}), with numeric
+ * slots held as primitives, so {@link #getLong}, {@link #getDouble} and
+ * {@link #getDataOrNull} on object slots neither box nor allocate. Other keys
+ * fall back to a lazily created map.
+ *
+ * Usage:
+ * <pre>{@code
+ * try (PooledMechanicContext context = PooledMechanicContext.acquire(world, ContextType.BREEDING)) {
+ *   context.position(pos).set(Slot.PARENT1, "bee").setLong(Slot.LAST_BREEDING_TIME, last);
+ *   mechanic.execute(context);
+ * }
+ * }</pre>
+ *
+ * Thread Safety: instances are pooled per thread and must not escape the
+ * acquiring thread or be used after {@link #close()}.
+ */
+public final class PooledMechanicContext implements IMechanicContext, AutoCloseable {
+  private static final int MAX_POOLED = 16;
+  private static final ThreadLocal<ArrayDeque<PooledMechanicContext>> POOL =
+      ThreadLocal.withInitial(ArrayDeque::new);
+
+  /**
+   * Well-known context keys with a fixed storage slot.
+   */
+  public enum Slot {
+    PARENT1("parent1", Kind.OBJECT),
+    PARENT2("parent2", Kind.OBJECT),
+    PARENT1_TRAITS("parent1Traits", Kind.OBJECT),
+    PARENT2_TRAITS("parent2Traits", Kind.OBJECT),
+    LAST_BREEDING_TIME("lastBreedingTime", Kind.LONG),
+    SUITABILITY("suitability", Kind.DOUBLE);
+
+    private static final Slot[] VALUES = values();
+
+    private final String key;
+    private final Kind kind;
+
+    Slot(String key, Kind kind) {
+      this.key = key;
+      this.kind = kind;
+    }
+
+    public String getKey() {
+      return key;
+    }
+
+    /**
+     * Resolves a key to its slot, or null if it has none.
+     */
+    public static Slot byKey(String key) {
+      return switch (key) {
+        case "parent1" -> PARENT1;
+        case "parent2" -> PARENT2;
+        case "parent1Traits" -> PARENT1_TRAITS;
+        case "parent2Traits" -> PARENT2_TRAITS;
+        case "lastBreedingTime" -> LAST_BREEDING_TIME;
+        case "suitability" -> SUITABILITY;
+        default -> null;
+      };
+    }
+  }
+
+  private enum Kind {
+    OBJECT, LONG, DOUBLE
+  }
+
+  private final Object[] objects = new Object[Slot.VALUES.length];
+  private final long[] longs = new long[Slot.VALUES.length];
+  private final double[] doubles = new double[Slot.VALUES.length];
+  private int present;
+  private Map<String, Object> extra;
+
+  private World world;
+  private BlockPos position;
+  private PlayerEntity player;
+  private Entity entity;
+  private Identifier specimenId;
+  private ContextType type = ContextType.CUSTOM;
+  private long gameTime;
+  private boolean inUse;
+
+  private PooledMechanicContext() {
+  }
+
+  /**
+   * Takes a cleared context from this thread's pool.
+   *
+   * @param world world, also the source of the game time
+   * @param type  context type
+   */
+  public static PooledMechanicContext acquire(World world, ContextType type) {
+    if (world == null) {
+      throw new IllegalStateException("World is required for context");
+    }
+    PooledMechanicContext context = POOL.get().pollFirst();
+    if (context == null) {
+      context = new PooledMechanicContext();
+    }
+    context.inUse = true;
+    context.world = world;
+    context.type = type;
+    context.gameTime = world.getTime();
+    return context;
+  }
+
+  /**
+   * Clears the context and returns it to this thread's pool.
+   */
+  @Override
+  public void close() {
+    if (!inUse) {
+      return;
+    }
+    inUse = false;
+    world = null;
+    position = null;
+    player = null;
+    entity = null;
+    specimenId = null;
+    type = ContextType.CUSTOM;
+    gameTime = 0;
+    present = 0;
+    Arrays.fill(objects, null);
+    if (extra != null) {
+      extra.clear();
+    }
+
+    ArrayDeque<PooledMechanicContext> pool = POOL.get();
+    if (pool.size() < MAX_POOLED) {
+      pool.addFirst(this);
+    }
+  }
+
+  public PooledMechanicContext position(BlockPos pos) {
+    this.position = pos;
+    return this;
+  }
+
+  public PooledMechanicContext player(PlayerEntity player) {
+    this.player = player;
+    return this;
+  }
+
+  public PooledMechanicContext entity(Entity entity) {
+    this.entity = entity;
+    return this;
+  }
+
+  public PooledMechanicContext specimenId(Identifier id) {
+    this.specimenId = id;
+    return this;
+  }
+
+  /**
+   * Sets an object value in a well-known slot.
+   */
+  public PooledMechanicContext set(Slot slot, Object value) {
+    if (slot.kind == Kind.OBJECT) {
+      objects[slot.ordinal()] = value;
+      markPresent(slot, value != null);
+    } else {
+      set(slot.key, value);
+    }
+    return this;
+  }
+
+  /**
+   * Sets a long value in a well-known slot.
+   */
+  public PooledMechanicContext setLong(Slot slot, long value) {
+    longs[slot.ordinal()] = value;
+    doubles[slot.ordinal()] = value;
+    objects[slot.ordinal()] = null;
+    markPresent(slot, true);
+    return this;
+  }
+
+  /**
+   * Sets a double value in a well-known slot.
+   */
+  public PooledMechanicContext setDouble(Slot slot, double value) {
+    doubles[slot.ordinal()] = value;
+    longs[slot.ordinal()] = (long) value;
+    objects[slot.ordinal()] = null;
+    markPresent(slot, true);
+    return this;
+  }
+
+  /**
+   * Sets a value by key; well-known keys go to their slot.
+   */
+  public PooledMechanicContext set(String key, Object value) {
+    Slot slot = Slot.byKey(key);
+    if (slot == null) {
+      if (extra == null) {
+        extra = new HashMap<>();
+      }
+      if (value == null) {
+        extra.remove(key);
+      } else {
+        extra.put(key, value);
+      }
+    } else if (slot.kind == Kind.OBJECT) {
+      set(slot, value);
+    } else if (slot.kind == Kind.LONG && value instanceof Number number) {
+      setLong(slot, number.longValue());
+    } else if (slot.kind == Kind.DOUBLE && value instanceof Number number) {
+      setDouble(slot, number.doubleValue());
+    } else {
+      // Non-numeric value in a numeric slot; keep it as-is
+      objects[slot.ordinal()] = value;
+      markPresent(slot, value != null);
+    }
+    return this;
+  }
+
+  @Override
+  public World getWorld() {
+    return world;
+  }
+
+  @Override
+  public Optional<BlockPos> getPosition() {
+    return Optional.ofNullable(position);
+  }
+
+  @Override
+  public BlockPos getPositionOrNull() {
+    return position;
+  }
+
+  @Override
+  public Optional<PlayerEntity> getPlayer() {
+    return Optional.ofNullable(player);
+  }
+
+  @Override
+  public Optional<Entity> getEntity() {
+    return Optional.ofNullable(entity);
+  }
+
+  @Override
+  public Optional<Identifier> getSpecimenId() {
+    return Optional.ofNullable(specimenId);
+  }
+
+  @Override
+  public Identifier getSpecimenIdOrNull() {
+    return specimenId;
+  }
+
+  @Override
+  public Optional<Object> getData(String key) {
+    return Optional.ofNullable(getDataOrNull(key));
+  }
+
+  @Override
+  public Object getDataOrNull(String key) {
+    Slot slot = Slot.byKey(key);
+    if (slot == null) {
+      return extra != null ? extra.get(key) : null;
+    }
+    if (!isPresent(slot)) {
+      return null;
+    }
+    Object value = objects[slot.ordinal()];
+    if (value != null || slot.kind == Kind.OBJECT) {
+      return value;
+    }
+    return slot.kind == Kind.LONG ? (Object) longs[slot.ordinal()] : (Object) doubles[slot.ordinal()];
+  }
+
+  @Override
+  public long getLong(String key, long defaultValue) {
+    Slot slot = Slot.byKey(key);
+    if (slot == null || slot.kind == Kind.OBJECT) {
+      return IMechanicContext.super.getLong(key, defaultValue);
+    }
+    return isPresent(slot) && objects[slot.ordinal()] == null ? longs[slot.ordinal()] : defaultValue;
+  }
+
+  @Override
+  public double getDouble(String key, double defaultValue) {
+    Slot slot = Slot.byKey(key);
+    if (slot == null || slot.kind == Kind.OBJECT) {
+      return IMechanicContext.super.getDouble(key, defaultValue);
+    }
+    return isPresent(slot) && objects[slot.ordinal()] == null ? doubles[slot.ordinal()] : defaultValue;
+  }
+
+  /**
+   * Builds a map copy of all data; intended for debugging, not hot paths.
+   */
+  @Override
+  public Map<String, Object> getAllData() {
+    Map<String, Object> all = new HashMap<>();
+    for (Slot slot : Slot.VALUES) {
+      Object value = getDataOrNull(slot.key);
+      if (value != null) {
+        all.put(slot.key, value);
+      }
+    }
+    if (extra != null) {
+      all.putAll(extra);
+    }
+    return Collections.unmodifiableMap(all);
+  }
+
+  @Override
+  public ContextType getType() {
+    return type;
+  }
+
+  @Override
+  public long getGameTime() {
+    return gameTime;
+  }
+
+  private boolean isPresent(Slot slot) {
+    return (present & (1 << slot.ordinal())) != 0;
+  }
+
+  private void markPresent(Slot slot, boolean value) {
+    if (value) {
+      present |= 1 << slot.ordinal();
+    } else {
+      present &= ~(1 << slot.ordinal());
+    }
+  }
+}
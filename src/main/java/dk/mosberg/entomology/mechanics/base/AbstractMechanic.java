@@ -7,12 +7,13 @@ import dk.mosberg.entomology.api.mechanics.IMechanicResult;
 import net.minecraft.util.Identifier;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 /**
  * Base implementation for advanced mechanics.
@@ -130,16 +131,32 @@ public abstract class AbstractMechanic implements IAdvancedMechanic {
     }
 
     long startTime = System.nanoTime();
-    try {
-      IMechanicResult result = executeInternal(context);
-      long executionTime = (System.nanoTime() - startTime) / 1_000_000; // Convert to ms
-      metrics.recordExecution(executionTime);
-      return result;
-    } catch (Exception e) {
-      long executionTime = (System.nanoTime() - startTime) / 1_000_000;
-      metrics.recordExecution(executionTime);
-      return IMechanicResult.failure("Execution failed: " + e.getMessage());
+    IMechanicResult result = executeSafely(context);
+    metrics.recordExecution(System.nanoTime() - startTime);
+    return result;
+  }
+
+  /**
+   * Executes a batch with a single state check and a single timing pair;
+   * each context is recorded at the batch's mean latency.
+   */
+  @Override
+  public void executeBatch(List<? extends IMechanicContext> contexts, IMechanicResult[] results) {
+    int size = contexts.size();
+    if (results.length < size) {
+      throw new IllegalArgumentException("Result buffer too small: " + results.length + " < " + size);
+    }
+    if (size == 0) {
+      return;
     }
+    if (state != LifecycleState.ENABLED) {
+      Arrays.fill(results, 0, size, IMechanicResult.skip());
+      return;
+    }
+
+    long startTime = System.nanoTime();
+    executeBatchInternal(contexts, results);
+    metrics.recordBatch(System.nanoTime() - startTime, size);
   }
 
   @Override
@@ -177,6 +194,40 @@ public abstract class AbstractMechanic implements IAdvancedMechanic {
    */
   protected abstract IMechanicResult executeInternal(IMechanicContext context);
 
+  /**
+   * Mechanic-specific batch logic. The default calls
+   * {@link #executeInternal(IMechanicContext)} per context; subclasses can
+   * override it to read their configuration once for the whole batch.
+   * Failures must be reported per context rather than thrown.
+   */
+  protected void executeBatchInternal(List<? extends IMechanicContext> contexts,
+      IMechanicResult[] results) {
+    for (int i = 0; i < contexts.size(); i++) {
+      results[i] = executeSafely(contexts.get(i));
+    }
+  }
+
+  /**
+   * Runs {@link #executeInternal(IMechanicContext)}, converting exceptions
+   * into failure results.
+   */
+  protected final IMechanicResult executeSafely(IMechanicContext context) {
+    return executeSafely(context, this::executeInternal);
+  }
+
+  /**
+   * Runs mechanic logic for one context, converting exceptions into failure
+   * results.
+   */
+  protected final IMechanicResult executeSafely(IMechanicContext context,
+      Function<IMechanicContext, IMechanicResult> logic) {
+    try {
+      return logic.apply(context);
+    } catch (Exception e) {
+      return IMechanicResult.failure("Execution failed: " + e.getMessage());
+    }
+  }
+
   /**
    * Registers a configuration parameter.
    */
@@ -240,55 +291,66 @@ public abstract class AbstractMechanic implements IAdvancedMechanic {
   }
 
   /**
-   * Performance metrics implementation.
+   * Performance metrics implementation backed by a nanosecond histogram.
    */
   private static class PerformanceMetricsImpl implements IPerformanceMetrics {
-    private final AtomicLong totalExecutions = new AtomicLong(0);
-    private final AtomicLong totalTime = new AtomicLong(0);
-    private final AtomicLong maxTime = new AtomicLong(0);
-    private volatile long lastTime = 0;
-
-    void recordExecution(long timeMs) {
-      totalExecutions.incrementAndGet();
-      totalTime.addAndGet(timeMs);
-      lastTime = timeMs;
-
-      long current = maxTime.get();
-      while (timeMs > current) {
-        if (maxTime.compareAndSet(current, timeMs)) {
-          break;
-        }
-        current = maxTime.get();
-      }
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    private static final int WINDOW_SLOTS = 12;
+    private static final int SLOT_SECONDS = 5;
+
+    private final LatencyHistogram histogram = new LatencyHistogram(WINDOW_SLOTS, SLOT_SECONDS);
+
+    void recordExecution(long timeNanos) {
+      histogram.record(timeNanos);
+    }
+
+    void recordBatch(long totalNanos, int count) {
+      histogram.recordWithCount(totalNanos / count, count);
     }
 
     @Override
     public long getTotalExecutions() {
-      return totalExecutions.get();
+      return histogram.getTotalCount();
     }
 
     @Override
     public long getAverageExecutionTime() {
-      long executions = totalExecutions.get();
-      return executions > 0 ? totalTime.get() / executions : 0;
+      return (long) (histogram.getMeanValue() / NANOS_PER_MILLI);
     }
 
     @Override
     public long getMaxExecutionTime() {
-      return maxTime.get();
+      return histogram.getMaxValue() / NANOS_PER_MILLI;
     }
 
     @Override
     public long getLastExecutionTime() {
-      return lastTime;
+      return histogram.getLastValue() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public long getLastExecutionTimeNanos() {
+      return histogram.getLastValue();
+    }
+
+    @Override
+    public ILatencySnapshot getLifetimeLatency() {
+      return histogram.lifetimeSnapshot();
+    }
+
+    @Override
+    public ILatencySnapshot getWindowedLatency() {
+      return histogram.windowSnapshot();
+    }
+
+    @Override
+    public int getWindowSeconds() {
+      return histogram.getWindowSeconds();
     }
 
     @Override
     public void reset() {
-      totalExecutions.set(0);
-      totalTime.set(0);
-      maxTime.set(0);
-      lastTime = 0;
+      histogram.reset();
     }
   }
 
@@ -0,0 +1,301 @@
+package dk.mosberg.entomology.mechanics.base;
+
+import dk.mosberg.entomology.api.mechanics.IAdvancedMechanic.ILatencySnapshot;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free, fixed-memory latency histogram with nanosecond resolution.
+ *
+ * Values are stored in log-linear buckets in the style of HdrHistogram:
+ * every power of two is split into {@value #SUB_BUCKET_HALF} linear
+ * sub-buckets, so a reported percentile overstates the recorded value by at
+ * most {@link #MAX_RELATIVE_ERROR} (1/32, about 3.1%).
+ * Values above {@link #MAX_TRACKABLE_NANOS} are clamped into the last bucket.
+ *
+ * Besides the lifetime totals the histogram keeps a ring of per-slot
+ * histograms (each covering a fixed number of seconds) so the most recent
+ * slots can be queried as a rolling window.
+ *
+ * Thread Safety: recording is wait-free apart from the CAS used for
+ * min/max; window slots are recycled with a CAS on the slot epoch, so a
+ * recording that races with the recycling of its slot may be lost.
+ */
+public final class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 6;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT >> 1;
+  private static final int MAX_MAGNITUDE = 40;
+
+  /** Worst-case relative error of a reported value: one sub-bucket width. */
+  public static final double MAX_RELATIVE_ERROR = 1.0 / SUB_BUCKET_HALF;
+
+  /** Largest value tracked precisely (~18 minutes). */
+  public static final long MAX_TRACKABLE_NANOS = (1L << MAX_MAGNITUDE) - 1;
+
+  static final int BUCKET_COUNT = SUB_BUCKET_COUNT
+      + (MAX_MAGNITUDE - SUB_BUCKET_BITS) * SUB_BUCKET_HALF;
+
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+  private final Counts lifetime = new Counts();
+  private final Counts[] window;
+  private final AtomicLongArray windowEpochs;
+  private final int slotCount;
+  private final long slotNanos;
+  private volatile long lastValue;
+
+  /**
+   * Creates a histogram with a rolling window of
+   * {@code slotCount * slotSeconds} seconds.
+   *
+   * @param slotCount   number of slots in the window
+   * @param slotSeconds seconds covered by each slot
+   */
+  public LatencyHistogram(int slotCount, int slotSeconds) {
+    if (slotCount < 1 || slotSeconds < 1) {
+      throw new IllegalArgumentException("Window needs at least one slot of one second");
+    }
+    this.slotCount = slotCount;
+    this.slotNanos = slotSeconds * NANOS_PER_SECOND;
+    this.window = new Counts[slotCount];
+    this.windowEpochs = new AtomicLongArray(slotCount);
+    for (int i = 0; i < slotCount; i++) {
+      window[i] = new Counts();
+      windowEpochs.set(i, Long.MIN_VALUE);
+    }
+  }
+
+  /**
+   * Records a single value.
+   *
+   * @param nanos latency in nanoseconds
+   */
+  public void record(long nanos) {
+    recordWithCount(nanos, 1);
+  }
+
+  /**
+   * Records the same value multiple times, e.g. the per-item cost of a batch.
+   *
+   * @param nanos latency in nanoseconds
+   * @param count number of samples
+   */
+  public void recordWithCount(long nanos, long count) {
+    if (count <= 0) {
+      return;
+    }
+    long value = Math.max(0, Math.min(nanos, MAX_TRACKABLE_NANOS));
+    int index = bucketIndex(value);
+    lastValue = value;
+    lifetime.add(index, value, count);
+    currentSlot(System.nanoTime() / slotNanos).add(index, value, count);
+  }
+
+  /**
+   * Gets the most recently recorded value.
+   */
+  public long getLastValue() {
+    return lastValue;
+  }
+
+  /**
+   * Gets the number of values recorded since creation or the last reset.
+   */
+  public long getTotalCount() {
+    return lifetime.count.get();
+  }
+
+  /**
+   * Gets the largest value recorded since creation or the last reset.
+   */
+  public long getMaxValue() {
+    return lifetime.max.get();
+  }
+
+  /**
+   * Gets the mean of all values recorded since creation or the last reset.
+   */
+  public double getMeanValue() {
+    long samples = lifetime.count.get();
+    return samples > 0 ? (double) lifetime.sum.get() / samples : 0.0;
+  }
+
+  /**
+   * Gets the configured window length.
+   */
+  public int getWindowSeconds() {
+    return (int) (slotCount * slotNanos / NANOS_PER_SECOND);
+  }
+
+  /**
+   * Takes a snapshot of all values recorded since creation or the last reset.
+   */
+  public ILatencySnapshot lifetimeSnapshot() {
+    Snapshot snapshot = new Snapshot();
+    lifetime.mergeInto(snapshot);
+    return snapshot;
+  }
+
+  /**
+   * Takes a snapshot of the values recorded in the last
+   * {@link #getWindowSeconds()} seconds.
+   */
+  public ILatencySnapshot windowSnapshot() {
+    long nowSlot = System.nanoTime() / slotNanos;
+    Snapshot snapshot = new Snapshot();
+    for (int i = 0; i < slotCount; i++) {
+      long epoch = windowEpochs.get(i);
+      if (epoch != Long.MIN_VALUE && nowSlot - epoch < slotCount) {
+        window[i].mergeInto(snapshot);
+      }
+    }
+    return snapshot;
+  }
+
+  /**
+   * Clears lifetime and windowed data.
+   */
+  public void reset() {
+    lifetime.clear();
+    for (int i = 0; i < slotCount; i++) {
+      windowEpochs.set(i, Long.MIN_VALUE);
+      window[i].clear();
+    }
+    lastValue = 0;
+  }
+
+  private Counts currentSlot(long slotEpoch) {
+    int slot = (int) Math.floorMod(slotEpoch, (long) slotCount);
+    long epoch = windowEpochs.get(slot);
+    if (epoch != slotEpoch && windowEpochs.compareAndSet(slot, epoch, slotEpoch)) {
+      window[slot].clear();
+    }
+    return window[slot];
+  }
+
+  /**
+   * Maps a value to its bucket index.
+   */
+  static int bucketIndex(long value) {
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) value;
+    }
+    int magnitude = 63 - Long.numberOfLeadingZeros(value);
+    int shift = magnitude - SUB_BUCKET_BITS + 1;
+    int top = (int) (value >>> shift);
+    return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF + (top - SUB_BUCKET_HALF);
+  }
+
+  /**
+   * Gets the highest value that maps to the given bucket.
+   */
+  static long highestEquivalentValue(int index) {
+    if (index < SUB_BUCKET_COUNT) {
+      return index;
+    }
+    int offset = index - SUB_BUCKET_COUNT;
+    int shift = offset / SUB_BUCKET_HALF + 1;
+    long top = offset % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+    return ((top + 1) << shift) - 1;
+  }
+
+  /**
+   * Atomic bucket counts plus summary statistics.
+   */
+  private static final class Counts {
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(0);
+
+    void add(int index, long value, long samples) {
+      buckets.addAndGet(index, samples);
+      count.addAndGet(samples);
+      sum.addAndGet(value * samples);
+
+      long currentMax = max.get();
+      while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+        currentMax = max.get();
+      }
+      long currentMin = min.get();
+      while (value < currentMin && !min.compareAndSet(currentMin, value)) {
+        currentMin = min.get();
+      }
+    }
+
+    void mergeInto(Snapshot snapshot) {
+      long samples = count.get();
+      if (samples == 0) {
+        return;
+      }
+      for (int i = 0; i < BUCKET_COUNT; i++) {
+        snapshot.counts[i] += buckets.get(i);
+      }
+      snapshot.count += samples;
+      snapshot.sum += sum.get();
+      snapshot.min = Math.min(snapshot.min, min.get());
+      snapshot.max = Math.max(snapshot.max, max.get());
+    }
+
+    void clear() {
+      for (int i = 0; i < BUCKET_COUNT; i++) {
+        buckets.set(i, 0);
+      }
+      count.set(0);
+      sum.set(0);
+      min.set(Long.MAX_VALUE);
+      max.set(0);
+    }
+  }
+
+  /**
+   * Immutable point-in-time view of a histogram.
+   */
+  private static final class Snapshot implements ILatencySnapshot {
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    @Override
+    public long getCount() {
+      return count;
+    }
+
+    @Override
+    public long getMinNanos() {
+      return count > 0 ? min : 0;
+    }
+
+    @Override
+    public long getMaxNanos() {
+      return max;
+    }
+
+    @Override
+    public double getMeanNanos() {
+      return count > 0 ? (double) sum / count : 0.0;
+    }
+
+    @Override
+    public long getValueAtPercentile(double percentile) {
+      if (count == 0) {
+        return 0;
+      }
+      double clamped = Math.max(0.0, Math.min(100.0, percentile));
+      long target = Math.max(1, (long) Math.ceil(clamped / 100.0 * count));
+      long seen = 0;
+      for (int i = 0; i < BUCKET_COUNT; i++) {
+        seen += counts[i];
+        if (seen >= target) {
+          return Math.min(highestEquivalentValue(i), max);
+        }
+      }
+      return max;
+    }
+  }
+}
@@ -0,0 +1,246 @@
+package dk.mosberg.entomology.mechanics.environment;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerWorldEvents;
+import net.fabricmc.fabric.api.event.player.PlayerBlockBreakEvents;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.World;
+import net.minecraft.world.biome.Biome;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Per-world cache of environmental samples, keyed by chunk section.
+ *
+ * Each section lazily records the biome entry and the light level per
+ * block, so specimens clustered in the same area share lookups. Biomes are
+ * sampled per block rather than per 4x4x4 cell because
+ * {@link World#getBiome(BlockPos)} blends neighbouring cells with a seeded
+ * per-block offset. A section is refreshed once it is older than the
+ * caller's TTL, invalidated (with its neighbours, since light spreads) when
+ * a block is broken or {@link #invalidate} is called, and evicted when its
+ * chunk or world unloads.
+ *
+ * Thread Safety: intended for the server thread, like the world lookups it
+ * replaces.
+ */
+public class EnvironmentalSampleCache {
+  private static EnvironmentalSampleCache instance;
+
+  private final Map<World, Long2ObjectOpenHashMap<Section>> worlds = new WeakHashMap<>();
+  private boolean eventsRegistered = false;
+
+  private EnvironmentalSampleCache() {
+  }
+
+  public static synchronized EnvironmentalSampleCache getInstance() {
+    if (instance == null) {
+      instance = new EnvironmentalSampleCache();
+    }
+    return instance;
+  }
+
+  /**
+   * Registers the invalidation and eviction hooks.
+   * Should be called once during mod initialization.
+   */
+  public synchronized void registerEvents() {
+    if (eventsRegistered) {
+      return;
+    }
+    eventsRegistered = true;
+
+    ServerChunkEvents.CHUNK_UNLOAD.register((world, chunk) -> evictChunk(world, chunk.getPos()));
+    ServerWorldEvents.UNLOAD.register((server, world) -> evictWorld(world));
+    PlayerBlockBreakEvents.AFTER.register((world, player, pos, state, blockEntity) ->
+        invalidate(world, pos));
+  }
+
+  /**
+   * Gets the cached section containing a position, refreshing it if it is
+   * older than {@code ttlTicks}.
+   *
+   * @param world    world to sample
+   * @param pos      position inside the section
+   * @param ttlTicks maximum sample age in ticks
+   * @return section sample
+   */
+  public Section getSection(World world, BlockPos pos, int ttlTicks) {
+    Long2ObjectOpenHashMap<Section> sections = worlds.computeIfAbsent(world,
+        w -> new Long2ObjectOpenHashMap<>());
+    long key = ChunkSectionPos.toLong(pos);
+    long now = world.getTime();
+
+    Section section = sections.get(key);
+    if (section == null) {
+      section = new Section(world, now);
+      sections.put(key, section);
+    } else if (now - section.sampledAt > ttlTicks || now < section.sampledAt) {
+      section.clear(now);
+    }
+    return section;
+  }
+
+  /**
+   * Invalidates the section containing a position and its neighbours.
+   * Call after changes that affect light or biome, e.g. placing a light source.
+   */
+  public void invalidate(World world, BlockPos pos) {
+    Long2ObjectOpenHashMap<Section> sections = worlds.get(world);
+    if (sections == null || sections.isEmpty()) {
+      return;
+    }
+    int sx = ChunkSectionPos.getSectionCoord(pos.getX());
+    int sy = ChunkSectionPos.getSectionCoord(pos.getY());
+    int sz = ChunkSectionPos.getSectionCoord(pos.getZ());
+    for (int dx = -1; dx <= 1; dx++) {
+      for (int dy = -1; dy <= 1; dy++) {
+        for (int dz = -1; dz <= 1; dz++) {
+          sections.remove(ChunkSectionPos.asLong(sx + dx, sy + dy, sz + dz));
+        }
+      }
+    }
+  }
+
+  /**
+   * Evicts all sections of an unloaded chunk.
+   */
+  public void evictChunk(World world, ChunkPos chunkPos) {
+    Long2ObjectOpenHashMap<Section> sections = worlds.get(world);
+    if (sections == null || sections.isEmpty()) {
+      return;
+    }
+    for (int sy = world.getBottomSectionCoord(); sy <= world.getTopSectionCoord(); sy++) {
+      sections.remove(ChunkSectionPos.asLong(chunkPos.x, sy, chunkPos.z));
+    }
+  }
+
+  /**
+   * Evicts everything cached for a world.
+   */
+  public void evictWorld(World world) {
+    worlds.remove(world);
+  }
+
+  /**
+   * Gets the number of cached sections across all worlds.
+   */
+  public int size() {
+    int size = 0;
+    for (Long2ObjectOpenHashMap<Section> sections : worlds.values()) {
+      size += sections.size();
+    }
+    return size;
+  }
+
+  /**
+   * Clears the cache.
+   */
+  public void clear() {
+    worlds.clear();
+  }
+
+  /**
+   * Lazily filled samples for one 16x16x16 chunk section.
+   */
+  public static final class Section {
+    private static final int BLOCKS = 4096;
+    // Biome blending reaches at most 6x6x6 noise cells around a section
+    private static final int MAX_BIOMES = 216;
+    private static final int UNSAMPLED = 0xFF;
+
+    private final World world;
+    @SuppressWarnings("unchecked")
+    private final RegistryEntry<Biome>[] biomes = new RegistryEntry[MAX_BIOMES];
+    private final float[] temperatures = new float[MAX_BIOMES];
+    private int biomeCount;
+    // Per block: index into biomes, or UNSAMPLED
+    private byte[] biomeIndex;
+    private byte[] light;
+    private long sampledAt;
+
+    private Section(World world, long sampledAt) {
+      this.world = world;
+      this.sampledAt = sampledAt;
+    }
+
+    /**
+     * Gets the biome at a position inside this section.
+     */
+    public RegistryEntry<Biome> getBiome(BlockPos pos) {
+      return biomes[biomeSlot(pos)];
+    }
+
+    /**
+     * Gets the base temperature of the biome at a position inside this section.
+     */
+    public float getTemperature(BlockPos pos) {
+      return temperatures[biomeSlot(pos)];
+    }
+
+    /**
+     * Gets the light level at a position inside this section.
+     */
+    public int getLightLevel(BlockPos pos) {
+      if (light == null) {
+        light = new byte[BLOCKS];
+        Arrays.fill(light, (byte) -1);
+      }
+      int index = blockIndex(pos);
+      int level = light[index];
+      if (level < 0) {
+        level = world.getLightLevel(pos);
+        light[index] = (byte) level;
+      }
+      return level;
+    }
+
+    private int biomeSlot(BlockPos pos) {
+      if (biomeIndex == null) {
+        biomeIndex = new byte[BLOCKS];
+        Arrays.fill(biomeIndex, (byte) UNSAMPLED);
+      }
+      int index = blockIndex(pos);
+      int slot = biomeIndex[index] & 0xFF;
+      if (slot != UNSAMPLED) {
+        return slot;
+      }
+
+      RegistryEntry<Biome> biome = world.getBiome(pos);
+      for (slot = 0; slot < biomeCount; slot++) {
+        if (biomes[slot].equals(biome)) {
+          break;
+        }
+      }
+      if (slot == biomeCount) {
+        biomes[slot] = biome;
+        temperatures[slot] = biome.value().getTemperature();
+        biomeCount++;
+      }
+      biomeIndex[index] = (byte) slot;
+      return slot;
+    }
+
+    private void clear(long now) {
+      Arrays.fill(biomes, 0, biomeCount, null);
+      biomeCount = 0;
+      if (biomeIndex != null) {
+        Arrays.fill(biomeIndex, (byte) UNSAMPLED);
+      }
+      if (light != null) {
+        Arrays.fill(light, (byte) -1);
+      }
+      sampledAt = now;
+    }
+
+    private static int blockIndex(BlockPos pos) {
+      return ((pos.getY() & 15) << 8) | ((pos.getZ() & 15) << 4) | (pos.getX() & 15);
+    }
+  }
+}
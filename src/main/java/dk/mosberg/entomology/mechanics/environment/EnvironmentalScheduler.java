@@ -0,0 +1,280 @@
+package dk.mosberg.entomology.mechanics.environment;
+
+import dk.mosberg.entomology.EntomologyMod;
+import dk.mosberg.entomology.balance.MetricHandle;
+import dk.mosberg.entomology.balance.TelemetrySystem;
+import dk.mosberg.entomology.profiler.TickProfiler;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Staggers periodic environmental evaluations across a check interval.
+ *
+ * Every registered subject is assigned to one of {@code interval} buckets by
+ * a hashed phase offset, and each tick only the current bucket is evaluated,
+ * so N subjects cost roughly N / interval evaluations per tick instead of N
+ * every interval ticks. A per-tick budget caps the work; evaluations over
+ * budget are deferred to the following tick, and the deferred count is
+ * reported to telemetry as {@code environment.scheduler.deferred}. A subject
+ * is deferred at most once, so when subjects outnumber the budget the queue
+ * stays bounded by the number of subjects.
+ *
+ * Subjects are specimen jars; free-roaming insect entities keep no
+ * environmental state and are not scheduled.
+ *
+ * Thread Safety: server thread only.
+ */
+public class EnvironmentalScheduler {
+  private static EnvironmentalScheduler instance;
+
+  private static final int DEFAULT_INTERVAL = 100;
+  private static final int DEFAULT_MAX_PER_TICK = 256;
+
+  private final Map<Object, Entry> entries = new HashMap<>();
+  private final ArrayDeque<Entry> deferred = new ArrayDeque<>();
+  private final List<Entry> scratch = new ArrayList<>();
+  private final MetricHandle evaluatedMetric =
+      TelemetrySystem.getInstance().metric("environment.scheduler.evaluated");
+  private final MetricHandle deferredMetric =
+      TelemetrySystem.getInstance().metric("environment.scheduler.deferred");
+  private List<List<Entry>> buckets;
+  private int interval = DEFAULT_INTERVAL;
+  private int maxPerTick = DEFAULT_MAX_PER_TICK;
+  private long tickCount;
+  private int lastEvaluated;
+  private int lastDeferred;
+
+  private EnvironmentalScheduler() {
+    this.buckets = createBuckets(interval);
+  }
+
+  public static synchronized EnvironmentalScheduler getInstance() {
+    if (instance == null) {
+      instance = new EnvironmentalScheduler();
+    }
+    return instance;
+  }
+
+  /**
+   * A periodic evaluation.
+   */
+  @FunctionalInterface
+  public interface Task {
+    /**
+     * Runs the evaluation.
+     *
+     * @return false to unregister the task
+     */
+    boolean evaluate();
+  }
+
+  /**
+   * Registers or replaces a periodic evaluation.
+   *
+   * @param key        identity of the subject, e.g. a block entity
+   * @param phaseSeed  stable value hashed into the phase offset, e.g. a packed position
+   * @param task       evaluation to run once per interval
+   */
+  public void register(Object key, long phaseSeed, Task task) {
+    unregister(key);
+    Entry entry = new Entry(key, mix(phaseSeed), task);
+    entries.put(key, entry);
+    addToBucket(entry);
+  }
+
+  /**
+   * Unregisters a subject.
+   */
+  public void unregister(Object key) {
+    Entry entry = entries.remove(key);
+    if (entry != null) {
+      removeFromBucket(entry);
+      entry.removed = true;
+      if (entry.queued) {
+        deferred.remove(entry);
+        entry.queued = false;
+      }
+    }
+  }
+
+  /**
+   * Sets the number of ticks between evaluations of each subject.
+   */
+  public void setInterval(int interval) {
+    int clamped = Math.max(1, interval);
+    if (clamped == this.interval) {
+      return;
+    }
+    this.interval = clamped;
+    this.buckets = createBuckets(clamped);
+    for (Entry entry : entries.values()) {
+      addToBucket(entry);
+    }
+  }
+
+  public int getInterval() {
+    return interval;
+  }
+
+  /**
+   * Sets the maximum number of evaluations per tick.
+   */
+  public void setMaxPerTick(int maxPerTick) {
+    this.maxPerTick = Math.max(1, maxPerTick);
+  }
+
+  /**
+   * Runs the evaluations due this tick.
+   */
+  public void tick() {
+    int budget = maxPerTick;
+    int evaluated = 0;
+
+    // Work deferred from earlier ticks goes first
+    while (evaluated < budget && !deferred.isEmpty()) {
+      Entry entry = deferred.pollFirst();
+      entry.queued = false;
+      if (!entry.removed) {
+        run(entry);
+        evaluated++;
+      }
+    }
+
+    List<Entry> bucket = buckets.get((int) Math.floorMod(tickCount++, (long) interval));
+    // Iterate over a snapshot; tasks may unregister themselves
+    scratch.clear();
+    scratch.addAll(bucket);
+    for (int i = 0; i < scratch.size(); i++) {
+      Entry entry = scratch.get(i);
+      if (entry.removed || entry.queued) {
+        continue;
+      }
+      if (evaluated < budget) {
+        run(entry);
+        evaluated++;
+      } else {
+        entry.queued = true;
+        deferred.addLast(entry);
+      }
+    }
+    scratch.clear();
+
+    lastEvaluated = evaluated;
+    lastDeferred = deferred.size();
+
+    evaluatedMetric.record(evaluated);
+    deferredMetric.record(lastDeferred);
+  }
+
+  /**
+   * Gets the number of evaluations run in the last tick.
+   */
+  public int getLastEvaluated() {
+    return lastEvaluated;
+  }
+
+  /**
+   * Gets the number of evaluations deferred at the end of the last tick.
+   */
+  public int getLastDeferred() {
+    return lastDeferred;
+  }
+
+  /**
+   * Gets the number of registered subjects.
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Unregisters everything.
+   */
+  public void clear() {
+    for (Entry entry : entries.values()) {
+      entry.removed = true;
+      entry.queued = false;
+    }
+    entries.clear();
+    deferred.clear();
+    buckets = createBuckets(interval);
+  }
+
+  private void run(Entry entry) {
+    boolean keep;
+    // Attributed per subject type, e.g. each kind of block entity
+    TickProfiler profiler = TickProfiler.getInstance();
+    profiler.push(entry.key.getClass());
+    try {
+      keep = entry.task.evaluate();
+    } catch (Exception e) {
+      EntomologyMod.LOGGER.error("Environmental evaluation failed for {}",
+          entry.key, e);
+      keep = true;
+    } finally {
+      profiler.pop();
+    }
+    if (!keep && entries.get(entry.key) == entry) {
+      unregister(entry.key);
+    }
+  }
+
+  private void addToBucket(Entry entry) {
+    List<Entry> bucket = buckets.get(Math.floorMod(entry.hash, interval));
+    entry.bucket = bucket;
+    entry.index = bucket.size();
+    bucket.add(entry);
+  }
+
+  private static void removeFromBucket(Entry entry) {
+    List<Entry> bucket = entry.bucket;
+    if (bucket == null || entry.index >= bucket.size() || bucket.get(entry.index) != entry) {
+      return;
+    }
+    // Swap-remove keeps removal O(1)
+    Entry last = bucket.remove(bucket.size() - 1);
+    if (last != entry) {
+      bucket.set(entry.index, last);
+      last.index = entry.index;
+    }
+    entry.bucket = null;
+  }
+
+  private static List<List<Entry>> createBuckets(int count) {
+    List<List<Entry>> result = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      result.add(new ArrayList<>());
+    }
+    return result;
+  }
+
+  /**
+   * Spreads nearby seeds (e.g. adjacent positions) across buckets.
+   */
+  private static int mix(long seed) {
+    long z = seed * 0x9e3779b97f4a7c15L;
+    z = (z ^ (z >>> 32)) * 0xd6e8feb86659fd93L;
+    return (int) (z ^ (z >>> 32));
+  }
+
+  private static final class Entry {
+    final Object key;
+    final int hash;
+    final Task task;
+    List<Entry> bucket;
+    int index;
+    boolean removed;
+    // In the deferred queue; an entry is queued at most once
+    boolean queued;
+
+    Entry(Object key, int hash, Task task) {
+      this.key = key;
+      this.hash = hash;
+      this.task = task;
+    }
+  }
+}
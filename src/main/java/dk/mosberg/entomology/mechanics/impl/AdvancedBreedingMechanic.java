@@ -6,18 +6,25 @@ import com.google.gson.JsonObject;
 import dk.mosberg.entomology.EntomologyMod;
 import dk.mosberg.entomology.api.mechanics.IMechanicContext;
 import dk.mosberg.entomology.api.mechanics.IMechanicResult;
+import dk.mosberg.entomology.balance.BalanceParameters;
+import dk.mosberg.entomology.balance.MetricHandle;
+import dk.mosberg.entomology.balance.TelemetrySystem;
 import dk.mosberg.entomology.mechanics.base.AbstractMechanic;
+import dk.mosberg.entomology.mechanics.random.RandomProvider;
+import dk.mosberg.entomology.mechanics.random.SeededRandom;
 import net.minecraft.util.Identifier;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.Random;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.random.RandomGenerator;
 
 /**
  * Advanced breeding mechanic with genetics, mutations, and trait inheritance.
@@ -26,12 +33,16 @@ import java.util.Set;
 public class AdvancedBreedingMechanic extends AbstractMechanic {
   private static final Identifier ID = EntomologyMod.id("advanced_breeding");
   private static final String VERSION = "2.0.0";
+  private static final long RANDOM_SALT = ID.toString().hashCode();
+  private static final MetricHandle MUTATION_METRIC =
+      TelemetrySystem.getInstance().metric(BalanceParameters.MUTATION_METRIC);
 
-  private final Map<String, BreedingPair> breedingPairs = new HashMap<>();
+  private volatile BreedingPairIndex<BreedingPair> breedingPairs = BreedingPairIndex.empty();
   private final Map<String, TraitDefinition> traits = new HashMap<>();
   private boolean enabled = true;
   private double globalMutationRate = 0.05;
   private int breedingCooldown = 6000; // ticks
+  private boolean deterministicRandom = false;
 
   public AdvancedBreedingMechanic() {
     super(ID, VERSION, MechanicCategory.BREEDING, 600);
@@ -44,6 +55,8 @@ public class AdvancedBreedingMechanic extends AbstractMechanic {
     registerParameter("breedingCooldown", "Cooldown between breeding attempts (ticks)", Integer.class, 6000, false);
     registerParameter("breedingPairs", "List of valid breeding combinations", JsonArray.class, new JsonArray(), true);
     registerParameter("traits", "Trait definitions", JsonArray.class, new JsonArray(), false);
+    registerParameter("deterministicRandom", "Seed outcomes from world seed, position and game time",
+        Boolean.class, false, false);
   }
 
   @Override
@@ -55,18 +68,20 @@ public class AdvancedBreedingMechanic extends AbstractMechanic {
     breedingCooldown = config.has("breedingCooldown")
         ? config.get("breedingCooldown").getAsInt()
         : 6000;
+    deterministicRandom = config.has("deterministicRandom")
+        && config.get("deterministicRandom").getAsBoolean();
 
-    // Load breeding pairs
-    breedingPairs.clear();
+    // Load breeding pairs; ids are interned to ordinals so lookups don't allocate
+    BreedingPairIndex.Builder<BreedingPair> pairIndex = BreedingPairIndex.builder();
     if (config.has("breedingPairs")) {
       JsonArray pairs = config.getAsJsonArray("breedingPairs");
       for (JsonElement element : pairs) {
         JsonObject pairObj = element.getAsJsonObject();
         BreedingPair pair = parseBreedingPair(pairObj);
-        String key = generatePairKey(pair.parent1, pair.parent2);
-        breedingPairs.put(key, pair);
+        pairIndex.put(pair.parent1, pair.parent2, pair);
       }
     }
+    breedingPairs = pairIndex.build();
 
     // Load traits
     traits.clear();
@@ -88,43 +103,73 @@ public class AdvancedBreedingMechanic extends AbstractMechanic {
     if (!enabled) {
       return IMechanicResult.skip();
     }
+    return breed(context, breedingPairs);
+  }
 
+  @Override
+  protected void executeBatchInternal(List<? extends IMechanicContext> contexts,
+      IMechanicResult[] results) {
+    if (!enabled) {
+      Arrays.fill(results, 0, contexts.size(), IMechanicResult.skip());
+      return;
+    }
+
+    // Read the pair index once for the whole batch
+    BreedingPairIndex<BreedingPair> pairs = breedingPairs;
+    Function<IMechanicContext, IMechanicResult> logic = context -> breed(context, pairs);
+    for (int i = 0; i < contexts.size(); i++) {
+      results[i] = executeSafely(contexts.get(i), logic);
+    }
+  }
+
+  /**
+   * Performs a single breeding attempt against the given pair index.
+   */
+  private IMechanicResult breed(IMechanicContext context, BreedingPairIndex<BreedingPair> pairs) {
     // Extract parent specimens from context
-    Optional<String> parent1Opt = context.getData("parent1").map(Object::toString);
-    Optional<String> parent2Opt = context.getData("parent2").map(Object::toString);
+    Object parent1Value = context.getDataOrNull("parent1");
+    Object parent2Value = context.getDataOrNull("parent2");
 
-    if (parent1Opt.isEmpty() || parent2Opt.isEmpty()) {
+    if (parent1Value == null || parent2Value == null) {
       return IMechanicResult.failure("Missing parent specimens");
     }
 
-    String parent1 = parent1Opt.get();
-    String parent2 = parent2Opt.get();
+    String parent1 = parent1Value.toString();
+    String parent2 = parent2Value.toString();
 
     // Find breeding pair
-    String key = generatePairKey(parent1, parent2);
-    BreedingPair pair = breedingPairs.get(key);
+    BreedingPair pair = pairs.get(parent1, parent2);
 
     if (pair == null) {
       return IMechanicResult.failure("Incompatible breeding pair");
     }
 
     // Check cooldown
-    long lastBreeding = context.getData("lastBreedingTime")
-        .map(o -> ((Number) o).longValue())
-        .orElse(0L);
+    long lastBreeding = context.getLong("lastBreedingTime", 0L);
 
     if (context.getGameTime() - lastBreeding < breedingCooldown) {
       return IMechanicResult.failure("Breeding on cooldown");
     }
 
-    // Attempt breeding
-    Random random = new Random();
+    // Attempt breeding; deterministic streams can be replayed from the reported seed
+    RandomGenerator random;
+    Long randomSeed = null;
+    if (deterministicRandom) {
+      SeededRandom seeded = RandomProvider.forContext(context, RANDOM_SALT);
+      randomSeed = seeded.getSeed();
+      random = seeded;
+    } else {
+      random = RandomProvider.current();
+    }
     if (random.nextDouble() >= pair.successChance) {
       return IMechanicResult.failure("Breeding attempt failed");
     }
 
-    // Check for mutation
-    boolean mutated = random.nextDouble() < (pair.mutationChance * globalMutationRate);
+    // Check for mutation; the global rate is subject to adaptive difficulty
+    double mutationRate = TelemetrySystem.getInstance()
+        .getAdjustedValue(BalanceParameters.MUTATION_RATE, globalMutationRate);
+    boolean mutated = random.nextDouble() < (pair.mutationChance * mutationRate);
+    MUTATION_METRIC.record(mutated ? 1.0 : 0.0);
     String offspring;
 
     if (mutated && !pair.mutations.isEmpty()) {
@@ -136,25 +181,24 @@ public class AdvancedBreedingMechanic extends AbstractMechanic {
     }
 
     // Inherit traits
-    @SuppressWarnings("unchecked")
-    Map<String, Object> parent1Traits = context.getData("parent1Traits")
-        .map(o -> (Map<String, Object>) o).orElse(Collections.emptyMap());
-    @SuppressWarnings("unchecked")
-    Map<String, Object> parent2Traits = context.getData("parent2Traits")
-        .map(o -> (Map<String, Object>) o).orElse(Collections.emptyMap());
+    Map<String, Object> parent1Traits = traitsOf(context, "parent1Traits");
+    Map<String, Object> parent2Traits = traitsOf(context, "parent2Traits");
 
     Map<String, Object> inheritedTraits = calculateTraitInheritance(
         parent1Traits,
         parent2Traits,
         random);
 
-    return IMechanicResult.builder()
+    IMechanicResult.Builder result = IMechanicResult.builder()
         .success()
         .data("offspring", offspring)
         .data("mutated", mutated)
         .data("traits", inheritedTraits)
-        .data("breedingTime", context.getGameTime())
-        .build();
+        .data("breedingTime", context.getGameTime());
+    if (randomSeed != null) {
+      result.data("randomSeed", randomSeed);
+    }
+    return result.build();
   }
 
   @Override
@@ -162,12 +206,26 @@ public class AdvancedBreedingMechanic extends AbstractMechanic {
     return enabled && context.getType() == IMechanicContext.ContextType.BREEDING;
   }
 
+  @Override
+  public Set<IMechanicContext.ContextType> getContextTypes() {
+    return EnumSet.of(IMechanicContext.ContextType.BREEDING);
+  }
+
+  /**
+   * Reads a parent's trait map from the context.
+   */
+  @SuppressWarnings("unchecked")
+  private static Map<String, Object> traitsOf(IMechanicContext context, String key) {
+    Object traits = context.getDataOrNull(key);
+    return traits instanceof Map<?, ?> map ? (Map<String, Object>) map : Collections.emptyMap();
+  }
+
   /**
    * Calculates trait inheritance from parents.
    */
   private Map<String, Object> calculateTraitInheritance(Map<String, Object> parent1Traits,
       Map<String, Object> parent2Traits,
-      Random random) {
+      RandomGenerator random) {
     Map<String, Object> result = new HashMap<>();
 
     // Combine parent traits
@@ -239,18 +297,6 @@ public class AdvancedBreedingMechanic extends AbstractMechanic {
     return new TraitDefinition(id, inheritable, inheritanceChance);
   }
 
-  /**
-   * Generates consistent key for breeding pair.
-   */
-  private String generatePairKey(String parent1, String parent2) {
-    // Sort to ensure consistent ordering
-    if (parent1.compareTo(parent2) <= 0) {
-      return parent1 + ":" + parent2;
-    } else {
-      return parent2 + ":" + parent1;
-    }
-  }
-
   /**
    * Breeding pair data.
    */
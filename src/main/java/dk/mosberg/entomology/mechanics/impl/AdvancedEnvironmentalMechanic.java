@@ -1,20 +1,32 @@
 package dk.mosberg.entomology.mechanics.impl;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import dk.mosberg.entomology.EntomologyMod;
 import dk.mosberg.entomology.api.mechanics.IMechanicContext;
 import dk.mosberg.entomology.api.mechanics.IMechanicResult;
 import dk.mosberg.entomology.mechanics.base.AbstractMechanic;
+import dk.mosberg.entomology.mechanics.environment.EnvironmentalSampleCache;
+import dk.mosberg.entomology.mechanics.environment.EnvironmentalScheduler;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.registry.tag.TagKey;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 import net.minecraft.world.biome.Biome;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
 
 /**
  * Advanced environmental mechanic with dynamic environmental factors.
@@ -25,11 +37,14 @@ public class AdvancedEnvironmentalMechanic extends AbstractMechanic {
   private static final Identifier ID = EntomologyMod.id("advanced_environmental");
   private static final String VERSION = "2.0.0";
 
-  private final Map<String, EnvironmentalRequirements> requirements = new HashMap<>();
+  private static final int ALL_HOURS = (1 << 24) - 1;
+
+  private volatile Map<Identifier, CompiledRequirements> requirements = Map.of();
   private boolean enabled = true;
-  @SuppressWarnings("unused") // Reserved for future tick-based checking
   private int checkInterval = 100;
+  private int maxChecksPerTick = 256;
   private boolean strictMode = false;
+  private int sampleCacheTtl = 20;
 
   public AdvancedEnvironmentalMechanic() {
     super(ID, VERSION, MechanicCategory.ENVIRONMENTAL, 400);
@@ -39,7 +54,11 @@ public class AdvancedEnvironmentalMechanic extends AbstractMechanic {
   protected void registerParameters() {
     registerParameter("enabled", "Enable environmental checks", Boolean.class, true, false);
     registerParameter("checkInterval", "Ticks between checks", Integer.class, 100, false);
+    registerParameter("maxChecksPerTick", "Scheduled checks per tick before deferring", Integer.class,
+        256, false);
     registerParameter("strictMode", "Strict requirement enforcement", Boolean.class, false, false);
+    registerParameter("sampleCacheTtl", "Ticks a cached chunk-section sample stays valid (0 disables)",
+        Integer.class, 20, false);
     registerParameter("specimens", "Specimen environmental requirements", JsonObject.class,
         new JsonObject(), false);
   }
@@ -48,16 +67,30 @@ public class AdvancedEnvironmentalMechanic extends AbstractMechanic {
   protected void applyConfiguration(JsonObject config) {
     enabled = config.has("enabled") && config.get("enabled").getAsBoolean();
     checkInterval = config.has("checkInterval") ? config.get("checkInterval").getAsInt() : 100;
+    maxChecksPerTick = config.has("maxChecksPerTick") ? config.get("maxChecksPerTick").getAsInt() : 256;
     strictMode = config.has("strictMode") && config.get("strictMode").getAsBoolean();
+    sampleCacheTtl = config.has("sampleCacheTtl") ? config.get("sampleCacheTtl").getAsInt() : 20;
 
-    requirements.clear();
+    // Compile requirements once so evaluation does no string work
+    Map<Identifier, CompiledRequirements> compiled = new HashMap<>();
     if (config.has("specimens")) {
       JsonObject specimens = config.getAsJsonObject("specimens");
       for (String key : specimens.keySet()) {
+        Identifier specimenId = Identifier.tryParse(key);
+        if (specimenId == null) {
+          EntomologyMod.LOGGER.warn("Ignoring environmental requirements for invalid id: {}", key);
+          continue;
+        }
         JsonObject specConfig = specimens.getAsJsonObject(key);
-        requirements.put(key, parseRequirements(specConfig));
+        compiled.put(specimenId, compileRequirements(specimenId, specConfig));
       }
     }
+    requirements = Map.copyOf(compiled);
+
+    // Scheduled checks are spread across the interval
+    EnvironmentalScheduler scheduler = EnvironmentalScheduler.getInstance();
+    scheduler.setInterval(checkInterval);
+    scheduler.setMaxPerTick(maxChecksPerTick);
 
     EntomologyMod.LOGGER.info("Configured environmental requirements for {} specimens",
         requirements.size());
@@ -69,13 +102,12 @@ public class AdvancedEnvironmentalMechanic extends AbstractMechanic {
       return IMechanicResult.skip();
     }
 
-    Optional<Identifier> specimenIdOpt = context.getSpecimenId();
-    if (specimenIdOpt.isEmpty()) {
+    Identifier specimenId = context.getSpecimenIdOrNull();
+    if (specimenId == null) {
       return IMechanicResult.failure("No specimen ID in context");
     }
 
-    String specimenId = specimenIdOpt.get().toString();
-    EnvironmentalRequirements reqs = requirements.get(specimenId);
+    CompiledRequirements reqs = requirements.get(specimenId);
     if (reqs == null) {
       return strictMode
           ? IMechanicResult.failure("No requirements defined")
@@ -84,29 +116,34 @@ public class AdvancedEnvironmentalMechanic extends AbstractMechanic {
 
     // Check environmental conditions
     World world = context.getWorld();
-    Optional<BlockPos> posOpt = context.getPosition();
+    BlockPos pos = context.getPositionOrNull();
 
-    if (posOpt.isEmpty()) {
+    if (pos == null) {
       return IMechanicResult.skip();
     }
 
-    BlockPos pos = posOpt.get();
-
-    // Check biome
-    Biome biome = world.getBiome(pos).value();
-    boolean biomeMatch = checkBiomeCompatibility(biome, reqs);
-
-    // Check temperature (from biome)
-    float temperature = biome.getTemperature();
-    boolean tempMatch = checkTemperature(temperature, reqs);
+    // Sample biome, temperature and light, shared per chunk section when cached
+    RegistryEntry<Biome> biome;
+    float temperature;
+    int lightLevel;
+    if (sampleCacheTtl > 0) {
+      EnvironmentalSampleCache.Section section =
+          EnvironmentalSampleCache.getInstance().getSection(world, pos, sampleCacheTtl);
+      biome = section.getBiome(pos);
+      temperature = section.getTemperature(pos);
+      lightLevel = section.getLightLevel(pos);
+    } else {
+      biome = world.getBiome(pos);
+      temperature = biome.value().getTemperature();
+      lightLevel = world.getLightLevel(pos);
+    }
 
-    // Check light level
-    int lightLevel = world.getLightLevel(pos);
-    boolean lightMatch = checkLightLevel(lightLevel, reqs);
+    boolean biomeMatch = reqs.matchesBiome(biome);
+    boolean tempMatch = reqs.matchesTemperature(temperature);
+    boolean lightMatch = reqs.matchesLight(lightLevel);
 
     // Check time of day
-    long time = world.getTimeOfDay() % 24000;
-    boolean timeMatch = checkTimeOfDay(time, reqs);
+    boolean timeMatch = reqs.matchesTimeOfDay(world.getTimeOfDay());
 
     // Calculate suitability score
     int matches = 0;
@@ -144,18 +181,45 @@ public class AdvancedEnvironmentalMechanic extends AbstractMechanic {
     return enabled && context.getType() == IMechanicContext.ContextType.ENVIRONMENTAL;
   }
 
-  private EnvironmentalRequirements parseRequirements(JsonObject config) {
-    List<String> biomes = new ArrayList<>();
+  @Override
+  public Set<IMechanicContext.ContextType> getContextTypes() {
+    return EnumSet.of(IMechanicContext.ContextType.ENVIRONMENTAL);
+  }
+
+  private CompiledRequirements compileRequirements(Identifier specimenId, JsonObject config) {
+    Set<RegistryKey<Biome>> biomes = new HashSet<>();
+    List<TagKey<Biome>> biomeTags = new ArrayList<>();
+    boolean anyBiome = !config.has("preferred_biomes");
     if (config.has("preferred_biomes")) {
-      config.getAsJsonArray("preferred_biomes")
-          .forEach(e -> biomes.add(e.getAsString()));
+      // Only an empty list means any biome; one of invalid entries matches none
+      JsonArray preferred = config.getAsJsonArray("preferred_biomes");
+      anyBiome = preferred.isEmpty();
+      for (JsonElement element : preferred) {
+        String value = element.getAsString();
+        if ("any".equals(value)) {
+          anyBiome = true;
+          continue;
+        }
+        boolean isTag = value.startsWith("#");
+        Identifier biomeId = Identifier.tryParse(isTag ? value.substring(1) : value);
+        if (biomeId == null) {
+          EntomologyMod.LOGGER.warn("Invalid biome '{}' in requirements for {}", value, specimenId);
+        } else if (isTag) {
+          biomeTags.add(TagKey.of(RegistryKeys.BIOME, biomeId));
+        } else {
+          biomes.add(RegistryKey.of(RegistryKeys.BIOME, biomeId));
+        }
+      }
+      if (!anyBiome && biomes.isEmpty() && biomeTags.isEmpty()) {
+        EntomologyMod.LOGGER.warn("No valid preferred biome for {}; it won't match any biome", specimenId);
+      }
     }
 
-    double tempMin = 0.0, tempMax = 1.0;
+    float tempMin = 0.0f, tempMax = 1.0f;
     if (config.has("temperature_range")) {
       JsonObject range = config.getAsJsonObject("temperature_range");
-      tempMin = range.get("min").getAsDouble();
-      tempMax = range.get("max").getAsDouble();
+      tempMin = range.get("min").getAsFloat();
+      tempMax = range.get("max").getAsFloat();
     }
 
     int lightMin = 0, lightMax = 15;
@@ -169,52 +233,85 @@ public class AdvancedEnvironmentalMechanic extends AbstractMechanic {
         ? config.get("time_preference").getAsString()
         : "any";
 
-    return new EnvironmentalRequirements(biomes, tempMin, tempMax,
-        lightMin, lightMax, timePreference);
-  }
-
-  private boolean checkBiomeCompatibility(Biome biome, EnvironmentalRequirements reqs) {
-    if (reqs.preferredBiomes.isEmpty()) {
-      return true; // No preference
-    }
-
-    // Would need biome registry lookup here
-    // For now, accept all
-    return true;
-  }
-
-  private boolean checkTemperature(float temperature, EnvironmentalRequirements reqs) {
-    return temperature >= reqs.tempMin && temperature <= reqs.tempMax;
+    return new CompiledRequirements(anyBiome, biomes, biomeTags, tempMin, tempMax,
+        lightMin, lightMax, compileHourMask(specimenId, timePreference));
   }
 
-  private boolean checkLightLevel(int lightLevel, EnvironmentalRequirements reqs) {
-    return lightLevel >= reqs.lightMin && lightLevel <= reqs.lightMax;
-  }
-
-  private boolean checkTimeOfDay(long time, EnvironmentalRequirements reqs) {
-    return switch (reqs.timePreference.toLowerCase()) {
-      case "day" -> time >= 0 && time < 12000;
-      case "night" -> time >= 12000 && time < 24000;
-      case "dusk" -> time >= 11000 && time < 13000;
-      case "dawn" -> time >= 23000 || time < 1000;
-      default -> true; // "any"
+  /**
+   * Compiles a time preference into a 24-bit mask with one bit per in-game
+   * hour (1000 ticks).
+   */
+  private static int compileHourMask(Identifier specimenId, String timePreference) {
+    return switch (timePreference.toLowerCase(Locale.ROOT)) {
+      case "day" -> hourRange(0, 12);
+      case "night" -> hourRange(12, 24);
+      case "dusk" -> hourRange(11, 13);
+      case "dawn" -> hourRange(23, 24) | hourRange(0, 1);
+      case "any" -> ALL_HOURS;
+      default -> {
+        EntomologyMod.LOGGER.warn("Unknown time preference '{}' for {}, treating as 'any'",
+            timePreference, specimenId);
+        yield ALL_HOURS;
+      }
     };
   }
 
-  private static class EnvironmentalRequirements {
-    final List<String> preferredBiomes;
-    final double tempMin, tempMax;
-    final int lightMin, lightMax;
-    final String timePreference;
+  private static int hourRange(int fromHour, int toHour) {
+    return (ALL_HOURS >>> (24 - (toHour - fromHour))) << fromHour;
+  }
 
-    EnvironmentalRequirements(List<String> biomes, double tempMin, double tempMax,
-        int lightMin, int lightMax, String timePreference) {
-      this.preferredBiomes = biomes;
+  /**
+   * Immutable, pre-resolved environmental requirements for one specimen.
+   */
+  private static final class CompiledRequirements {
+    private final boolean anyBiome;
+    private final Set<RegistryKey<Biome>> biomes;
+    private final List<TagKey<Biome>> biomeTags;
+    private final Predicate<RegistryKey<Biome>> biomeKeyPredicate;
+    private final float tempMin, tempMax;
+    private final int lightMin, lightMax;
+    private final int hourMask;
+
+    CompiledRequirements(boolean anyBiome, Set<RegistryKey<Biome>> biomes,
+        List<TagKey<Biome>> biomeTags, float tempMin, float tempMax,
+        int lightMin, int lightMax, int hourMask) {
+      this.anyBiome = anyBiome;
+      this.biomes = Set.copyOf(biomes);
+      this.biomeTags = List.copyOf(biomeTags);
+      this.biomeKeyPredicate = this.biomes::contains;
       this.tempMin = tempMin;
       this.tempMax = tempMax;
       this.lightMin = lightMin;
       this.lightMax = lightMax;
-      this.timePreference = timePreference;
+      this.hourMask = hourMask;
+    }
+
+    boolean matchesBiome(RegistryEntry<Biome> biome) {
+      if (anyBiome) {
+        return true;
+      }
+      if (!biomes.isEmpty() && biome.matches(biomeKeyPredicate)) {
+        return true;
+      }
+      for (int i = 0; i < biomeTags.size(); i++) {
+        if (biome.isIn(biomeTags.get(i))) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    boolean matchesTemperature(float temperature) {
+      return temperature >= tempMin && temperature <= tempMax;
+    }
+
+    boolean matchesLight(int lightLevel) {
+      return lightLevel >= lightMin && lightLevel <= lightMax;
+    }
+
+    boolean matchesTimeOfDay(long timeOfDay) {
+      int hour = (int) (Math.floorMod(timeOfDay, 24000L) / 1000L);
+      return (hourMask & (1 << hour)) != 0;
     }
   }
 }
@@ -0,0 +1,172 @@
+package dk.mosberg.entomology.mechanics.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable, symmetric lookup table for breeding pairs.
+ *
+ * Specimen ids are interned to dense ordinals when the index is built; pairs
+ * are stored in an open-addressing table keyed by the packed ordinal pair
+ * {@code (min << 32) | max}, so {@code get(a, b) == get(b, a)} and lookups
+ * allocate nothing.
+ *
+ * Thread Safety: instances are immutable once built and may be shared freely.
+ *
+ * @param <T> pair value type
+ */
+final class BreedingPairIndex<T> {
+  private static final BreedingPairIndex<?> EMPTY = new Builder<>().build();
+
+  private final Map<String, Integer> ordinals;
+  private final long[] keys;
+  private final Object[] values;
+  private final int mask;
+  private final int size;
+
+  private BreedingPairIndex(Map<String, Integer> ordinals, long[] keys, Object[] values, int size) {
+    this.ordinals = ordinals;
+    this.keys = keys;
+    this.values = values;
+    this.mask = keys.length - 1;
+    this.size = size;
+  }
+
+  /**
+   * Gets an empty index.
+   */
+  @SuppressWarnings("unchecked")
+  static <T> BreedingPairIndex<T> empty() {
+    return (BreedingPairIndex<T>) EMPTY;
+  }
+
+  /**
+   * Creates a new builder.
+   */
+  static <T> Builder<T> builder() {
+    return new Builder<>();
+  }
+
+  /**
+   * Gets the ordinal of a specimen id, or -1 if it appears in no pair.
+   */
+  int ordinal(String specimenId) {
+    Integer ordinal = ordinals.get(specimenId);
+    return ordinal != null ? ordinal : -1;
+  }
+
+  /**
+   * Looks up the pair for two specimen ids in either order.
+   *
+   * @return the pair, or null if the combination is not defined
+   */
+  T get(String parent1, String parent2) {
+    int first = ordinal(parent1);
+    int second = ordinal(parent2);
+    if (first < 0 || second < 0) {
+      return null;
+    }
+    return get(first, second);
+  }
+
+  /**
+   * Looks up the pair for two ordinals in either order.
+   *
+   * @return the pair, or null if the combination is not defined
+   */
+  @SuppressWarnings("unchecked")
+  T get(int ordinal1, int ordinal2) {
+    long key = packKey(ordinal1, ordinal2);
+    for (int slot = slot(key, mask);; slot = (slot + 1) & mask) {
+      Object value = values[slot];
+      if (value == null) {
+        return null;
+      }
+      if (keys[slot] == key) {
+        return (T) value;
+      }
+    }
+  }
+
+  /**
+   * Gets the number of pairs in the index.
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Gets the number of distinct specimen ids in the index.
+   */
+  int specimenCount() {
+    return ordinals.size();
+  }
+
+  private static long packKey(int ordinal1, int ordinal2) {
+    int low = Math.min(ordinal1, ordinal2);
+    int high = Math.max(ordinal1, ordinal2);
+    return ((long) low << 32) | (high & 0xFFFFFFFFL);
+  }
+
+  private static int slot(long key, int mask) {
+    // MurmurHash3 fmix64 finalizer
+    long h = key;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return (int) h & mask;
+  }
+
+  /**
+   * Builder that interns ids and collects pairs; later puts for the same
+   * combination replace earlier ones.
+   */
+  static final class Builder<T> {
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final Map<Long, T> pairs = new HashMap<>();
+
+    private Builder() {
+    }
+
+    /**
+     * Interns a specimen id, returning its ordinal.
+     */
+    int intern(String specimenId) {
+      return ordinals.computeIfAbsent(specimenId, id -> ordinals.size());
+    }
+
+    /**
+     * Adds a pair for two specimen ids in either order.
+     */
+    Builder<T> put(String parent1, String parent2, T value) {
+      if (value == null) {
+        throw new IllegalArgumentException("Pair value must not be null");
+      }
+      pairs.put(packKey(intern(parent1), intern(parent2)), value);
+      return this;
+    }
+
+    BreedingPairIndex<T> build() {
+      // Keep the load factor at or below 0.5 for short probe sequences
+      int capacity = Integer.highestOneBit(Math.max(1, pairs.size()) * 2 - 1) << 1;
+      capacity = Math.max(capacity, 2);
+      long[] keys = new long[capacity];
+      Object[] values = new Object[capacity];
+      int mask = capacity - 1;
+
+      for (Map.Entry<Long, T> entry : pairs.entrySet()) {
+        long key = entry.getKey();
+        int slot = slot(key, mask);
+        while (values[slot] != null) {
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = entry.getValue();
+      }
+
+      return new BreedingPairIndex<>(Map.copyOf(ordinals), keys, values, pairs.size());
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package dk.mosberg.entomology.mechanics.random;
+
+import dk.mosberg.entomology.api.mechanics.IMechanicContext;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Hands out per-thread random generators for mechanics.
+ *
+ * {@link #current()} returns a thread-confined {@link SplittableRandom} for
+ * ordinary randomness. {@link #seeded(long)} and
+ * {@link #forContext(IMechanicContext, long)} return a thread-confined
+ * {@link SeededRandom} restarted from a deterministic seed, so an outcome
+ * can be replayed from world seed, position and game time.
+ *
+ * Neither call allocates after the first use on a thread. Generators must
+ * not be shared between threads or held past the current operation, since
+ * the next seeded call on the same thread restarts the stream.
+ */
+public final class RandomProvider {
+  private static final ThreadLocal<SplittableRandom> CURRENT =
+      ThreadLocal.withInitial(SplittableRandom::new);
+  private static final ThreadLocal<SeededRandom> SEEDED =
+      ThreadLocal.withInitial(() -> new SeededRandom(0L));
+
+  private RandomProvider() {
+  }
+
+  /**
+   * Gets this thread's non-deterministic generator.
+   */
+  public static RandomGenerator current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Gets this thread's seeded generator, restarted from the given seed.
+   */
+  public static SeededRandom seeded(long seed) {
+    SeededRandom random = SEEDED.get();
+    random.setSeed(seed);
+    return random;
+  }
+
+  /**
+   * Gets a seeded generator for a mechanic execution.
+   *
+   * @param context execution context supplying world, position and game time
+   * @param salt    per-mechanic salt so mechanics don't share streams
+   */
+  public static SeededRandom forContext(IMechanicContext context, long salt) {
+    long posKey = context.getPosition().map(BlockPos::asLong).orElse(0L);
+    return seeded(seedFor(worldSeed(context.getWorld()), posKey, context.getGameTime(), salt));
+  }
+
+  /**
+   * Combines the seed components into a single well-mixed seed.
+   *
+   * @param worldSeed world seed, or 0 when unknown
+   * @param posKey    packed block position ({@link BlockPos#asLong()})
+   * @param gameTime  world game time in ticks
+   * @param salt      per-mechanic salt
+   */
+  public static long seedFor(long worldSeed, long posKey, long gameTime, long salt) {
+    long seed = SeededRandom.mix64(worldSeed ^ salt);
+    seed = SeededRandom.mix64(seed ^ posKey);
+    return SeededRandom.mix64(seed ^ gameTime);
+  }
+
+  private static long worldSeed(World world) {
+    return world instanceof ServerWorld serverWorld ? serverWorld.getSeed() : 0L;
+  }
+}
@@ -0,0 +1,53 @@
+package dk.mosberg.entomology.mechanics.random;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Reseedable SplitMix64 generator.
+ *
+ * Unlike {@link java.util.Random} there is no shared seed to CAS, and the
+ * same instance can be reseeded instead of reallocated, which makes it
+ * suitable for short deterministic streams on hot paths.
+ *
+ * Thread Safety: not thread-safe; use one instance per thread.
+ */
+public final class SeededRandom implements RandomGenerator {
+  private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+  private long state;
+  private long seed;
+
+  public SeededRandom(long seed) {
+    setSeed(seed);
+  }
+
+  /**
+   * Restarts the stream from the given seed.
+   */
+  public void setSeed(long seed) {
+    this.seed = seed;
+    this.state = seed;
+  }
+
+  /**
+   * Gets the seed the current stream started from.
+   */
+  public long getSeed() {
+    return seed;
+  }
+
+  @Override
+  public long nextLong() {
+    state += GOLDEN_GAMMA;
+    return mix64(state);
+  }
+
+  /**
+   * SplitMix64 finalizer; also used to combine seed components.
+   */
+  static long mix64(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+}
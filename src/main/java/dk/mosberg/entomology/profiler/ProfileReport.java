@@ -0,0 +1,141 @@
+package dk.mosberg.entomology.profiler;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Results of a {@link TickProfiler} session.
+ *
+ * @param startedMillis         wall-clock start of the session
+ * @param ticks                 ticks recorded
+ * @param windowTicks           ticks in the rolling window
+ * @param serverTickTotalNanos  measured server tick time over the session
+ * @param serverTickWindowNanos measured server tick time over the window
+ * @param serverTickMaxNanos    longest server tick
+ * @param droppedSections       sections not tracked because the tree was full
+ * @param sections              sections in call tree order
+ */
+public record ProfileReport(
+    long startedMillis,
+    long ticks,
+    int windowTicks,
+    long serverTickTotalNanos,
+    long serverTickWindowNanos,
+    long serverTickMaxNanos,
+    long droppedSections,
+    List<Section> sections) {
+
+  private static final double NANOS_PER_MILLI = 1.0e6;
+  private static final long NANOS_PER_MICRO = 1_000L;
+
+  /**
+   * One node of the call tree; times are inclusive of nested sections
+   * unless noted.
+   *
+   * @param path      section names from the top, separated by {@code ;}
+   * @param depth     nesting depth, 0 for top-level sections
+   * @param selfNanos lifetime time outside nested sections
+   */
+  public record Section(String path, int depth, long calls, long totalNanos, long selfNanos,
+      long windowNanos, long maxTickNanos) {
+
+    public String getName() {
+      return path.substring(path.lastIndexOf(';') + 1);
+    }
+  }
+
+  /**
+   * Gets the lifetime time of all top-level sections.
+   */
+  public long getTotalNanos() {
+    long total = 0;
+    for (Section section : sections) {
+      if (section.depth() == 0) {
+        total += section.totalNanos();
+      }
+    }
+    return total;
+  }
+
+  /**
+   * Gets the time of all top-level sections over the rolling window.
+   */
+  public long getWindowNanos() {
+    long total = 0;
+    for (Section section : sections) {
+      if (section.depth() == 0) {
+        total += section.windowNanos();
+      }
+    }
+    return total;
+  }
+
+  /**
+   * Gets the average time per tick over the rolling window as a share of
+   * the 50 ms tick budget.
+   */
+  public double getBudgetShare() {
+    return windowTicks == 0 ? 0.0
+        : (double) getWindowNanos() / windowTicks / TickProfiler.TICK_BUDGET_NANOS;
+  }
+
+  /**
+   * Formats the report: a summary, a per-section table and collapsed stacks
+   * of self time in microseconds, the input format of common flame graph
+   * tools.
+   */
+  public String format() {
+    StringBuilder out = new StringBuilder(4096);
+    out.append("Entomology tick profile, started ").append(Instant.ofEpochMilli(startedMillis)).append('\n');
+    out.append(String.format(Locale.ROOT, "Ticks: %d (window: last %d)%n", ticks, windowTicks));
+    if (windowTicks > 0) {
+      double serverTick = serverTickWindowNanos / NANOS_PER_MILLI / windowTicks;
+      double mod = getWindowNanos() / NANOS_PER_MILLI / windowTicks;
+      out.append(String.format(Locale.ROOT,
+          "Window average: %.3f ms/tick Entomology, %.3f ms/tick server (%.1f%% of the 50 ms budget, %.1f%% of tick time)%n",
+          mod, serverTick, getBudgetShare() * 100.0, serverTick > 0 ? mod / serverTick * 100.0 : 0.0));
+    }
+    if (ticks > 0) {
+      out.append(String.format(Locale.ROOT,
+          "Session average: %.3f ms/tick Entomology, %.3f ms/tick server; longest server tick %.3f ms%n",
+          getTotalNanos() / NANOS_PER_MILLI / ticks, serverTickTotalNanos / NANOS_PER_MILLI / ticks,
+          serverTickMaxNanos / NANOS_PER_MILLI));
+    }
+    if (droppedSections > 0) {
+      out.append("Sections over the limit, counted in their parent: ").append(droppedSections).append('\n');
+    }
+
+    out.append('\n').append(String.format(Locale.ROOT, "%-60s %12s %12s %10s %12s %12s%n",
+        "Section", "window ms/t", "% budget", "calls/t", "self ms/t", "max ms/t"));
+    for (Section section : sections) {
+      String name = "  ".repeat(section.depth()) + section.getName();
+      double window = windowTicks == 0 ? 0.0 : section.windowNanos() / NANOS_PER_MILLI / windowTicks;
+      out.append(String.format(Locale.ROOT, "%-60s %12.4f %11.2f%% %10.2f %12.4f %12.4f%n",
+          name,
+          window,
+          window * NANOS_PER_MILLI / TickProfiler.TICK_BUDGET_NANOS * 100.0,
+          ticks == 0 ? 0.0 : (double) section.calls() / ticks,
+          ticks == 0 ? 0.0 : section.selfNanos() / NANOS_PER_MILLI / ticks,
+          section.maxTickNanos() / NANOS_PER_MILLI));
+    }
+
+    out.append("\n# Collapsed stacks: self time in microseconds over the session\n");
+    out.append(collapsedStacks());
+    return out.toString();
+  }
+
+  /**
+   * Formats self time per call path, one {@code a;b;c micros} line each.
+   */
+  public String collapsedStacks() {
+    StringBuilder out = new StringBuilder();
+    for (Section section : sections) {
+      long micros = section.selfNanos() / NANOS_PER_MICRO;
+      if (micros > 0) {
+        out.append(section.path().replace(' ', '_')).append(' ').append(micros).append('\n');
+      }
+    }
+    return out.toString();
+  }
+}
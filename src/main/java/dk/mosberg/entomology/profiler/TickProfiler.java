@@ -0,0 +1,298 @@
+package dk.mosberg.entomology.profiler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Attributes server tick time to Entomology subsystems.
+ *
+ * Work is bracketed with {@link #push(Object)} and {@link #pop()}; sections
+ * nest into a call tree, reported per section and as collapsed stacks for
+ * flame graph tools. Storage is preallocated: at most {@link #MAX_SECTIONS}
+ * tree nodes and a rolling window of {@link #WINDOW_TICKS} ticks, so a long
+ * session uses constant memory. Sections past the limit are counted towards
+ * their enclosing section.
+ *
+ * While stopped, and on any thread but the server thread, recording returns
+ * after a volatile read.
+ *
+ * Thread Safety: {@link #start()}, {@link #stop()}, {@link #report()} and
+ * the tick hooks must be called on the server thread.
+ */
+public final class TickProfiler {
+  public static final int MAX_SECTIONS = 256;
+  public static final int MAX_DEPTH = 32;
+  public static final int WINDOW_TICKS = 200;
+  public static final long TICK_BUDGET_NANOS = 50_000_000L;
+
+  private static final int ROOT = 0;
+  private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+  private static volatile TickProfiler instance;
+
+  // Call tree as parallel arrays; node 0 is the root, 0 also ends sibling lists
+  private final Object[] keys = new Object[MAX_SECTIONS];
+  private final int[] firstChild = new int[MAX_SECTIONS];
+  private final int[] lastChild = new int[MAX_SECTIONS];
+  private final int[] nextSibling = new int[MAX_SECTIONS];
+  private int sectionCount = 1;
+  private long droppedSections;
+
+  private final int[] stack = new int[MAX_DEPTH];
+  private final long[] stackStart = new long[MAX_DEPTH];
+  private int depth;
+  private int overflowDepth;
+
+  // Inclusive nanoseconds per section: this tick, rolling window and lifetime
+  private final long[] tickNanos = new long[MAX_SECTIONS];
+  private final long[] windowNanos = new long[MAX_SECTIONS];
+  private final long[] totalNanos = new long[MAX_SECTIONS];
+  private final long[] maxTickNanos = new long[MAX_SECTIONS];
+  private final long[] calls = new long[MAX_SECTIONS];
+  private long[][] window;
+
+  private final long[] serverTickWindow = new long[WINDOW_TICKS];
+  private long serverTickWindowNanos;
+  private long serverTickTotalNanos;
+  private long serverTickMaxNanos;
+  private long tickStartNanos;
+  private long ticks;
+  private long startedMillis;
+
+  private volatile boolean running;
+  private volatile Thread owner;
+
+  private TickProfiler() {
+  }
+
+  public static TickProfiler getInstance() {
+    TickProfiler result = instance;
+    if (result == null) {
+      synchronized (TickProfiler.class) {
+        result = instance;
+        if (result == null) {
+          result = new TickProfiler();
+          instance = result;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Discards previous results and starts profiling; the calling thread is
+   * the one profiled.
+   */
+  public void start() {
+    if (window == null) {
+      window = new long[WINDOW_TICKS][MAX_SECTIONS];
+    }
+    clear();
+    startedMillis = System.currentTimeMillis();
+    owner = Thread.currentThread();
+    running = true;
+  }
+
+  /**
+   * Stops profiling; results stay available until the next start.
+   */
+  public ProfileReport stop() {
+    running = false;
+    depth = 0;
+    overflowDepth = 0;
+    return report();
+  }
+
+  public boolean isRunning() {
+    return running;
+  }
+
+  /**
+   * Enters a section nested in the current one.
+   *
+   * @param key section name; compared with {@code equals}, so constants,
+   *            identifiers or classes avoid allocating per call
+   */
+  public void push(Object key) {
+    if (!running || Thread.currentThread() != owner) {
+      return;
+    }
+    if (overflowDepth > 0 || depth == MAX_DEPTH) {
+      overflowDepth++;
+      return;
+    }
+    int node = child(depth == 0 ? ROOT : stack[depth - 1], key);
+    if (node < 0) {
+      droppedSections++;
+      overflowDepth++;
+      return;
+    }
+    stack[depth] = node;
+    stackStart[depth] = System.nanoTime();
+    depth++;
+  }
+
+  /**
+   * Leaves the current section.
+   */
+  public void pop() {
+    if (!running || Thread.currentThread() != owner) {
+      return;
+    }
+    if (overflowDepth > 0) {
+      overflowDepth--;
+      return;
+    }
+    if (depth == 0) {
+      return;
+    }
+    depth--;
+    int node = stack[depth];
+    tickNanos[node] += System.nanoTime() - stackStart[depth];
+    calls[node]++;
+  }
+
+  /**
+   * Runs a task in a section nested in {@code group}, itself nested in the
+   * current section.
+   */
+  public void run(Object group, Object key, Runnable task) {
+    push(group);
+    push(key);
+    try {
+      task.run();
+    } finally {
+      pop();
+      pop();
+    }
+  }
+
+  /**
+   * Marks the start of a server tick.
+   */
+  public void tickStart() {
+    if (running && Thread.currentThread() == owner) {
+      tickStartNanos = System.nanoTime();
+    }
+  }
+
+  /**
+   * Closes the current tick: moves its section times into the rolling
+   * window and the lifetime totals.
+   */
+  public void tickEnd() {
+    if (!running || Thread.currentThread() != owner) {
+      return;
+    }
+    int slot = (int) (ticks % WINDOW_TICKS);
+    long[] expired = window[slot];
+    for (int i = 1; i < sectionCount; i++) {
+      long nanos = tickNanos[i];
+      windowNanos[i] += nanos - expired[i];
+      expired[i] = nanos;
+      totalNanos[i] += nanos;
+      maxTickNanos[i] = Math.max(maxTickNanos[i], nanos);
+      tickNanos[i] = 0;
+    }
+
+    long serverTick = tickStartNanos != 0 ? System.nanoTime() - tickStartNanos : 0L;
+    tickStartNanos = 0;
+    serverTickWindowNanos += serverTick - serverTickWindow[slot];
+    serverTickWindow[slot] = serverTick;
+    serverTickTotalNanos += serverTick;
+    serverTickMaxNanos = Math.max(serverTickMaxNanos, serverTick);
+    ticks++;
+  }
+
+  /**
+   * Builds a report of the results so far, sections in call tree order.
+   */
+  public ProfileReport report() {
+    List<ProfileReport.Section> sections = new ArrayList<>();
+    appendSections(ROOT, "", 0, sections);
+    return new ProfileReport(startedMillis, ticks, (int) Math.min(ticks, WINDOW_TICKS),
+        serverTickTotalNanos, serverTickWindowNanos, serverTickMaxNanos, droppedSections,
+        List.copyOf(sections));
+  }
+
+  /**
+   * Writes the current report to a new file in a directory.
+   *
+   * @return the written file
+   */
+  public Path dump(Path directory) throws IOException {
+    ProfileReport report = report();
+    Files.createDirectories(directory);
+    Path file = directory.resolve("entomology-profile-" + LocalDateTime.now().format(FILE_TIME) + ".txt");
+    Files.writeString(file, report.format());
+    return file;
+  }
+
+  private void appendSections(int node, String path, int level, List<ProfileReport.Section> out) {
+    for (int c = firstChild[node]; c != 0; c = nextSibling[c]) {
+      String name = keys[c] instanceof Class<?> type ? type.getSimpleName() : keys[c].toString();
+      String childPath = path.isEmpty() ? name : path + ";" + name;
+      long children = 0;
+      for (int g = firstChild[c]; g != 0; g = nextSibling[g]) {
+        children += totalNanos[g];
+      }
+      out.add(new ProfileReport.Section(childPath, level, calls[c], totalNanos[c],
+          Math.max(0L, totalNanos[c] - children), windowNanos[c], maxTickNanos[c]));
+      appendSections(c, childPath, level + 1, out);
+    }
+  }
+
+  private int child(int parent, Object key) {
+    for (int c = firstChild[parent]; c != 0; c = nextSibling[c]) {
+      if (keys[c] == key || keys[c].equals(key)) {
+        return c;
+      }
+    }
+    if (sectionCount == MAX_SECTIONS) {
+      return -1;
+    }
+    int node = sectionCount++;
+    keys[node] = key;
+    firstChild[node] = 0;
+    lastChild[node] = 0;
+    nextSibling[node] = 0;
+    if (firstChild[parent] == 0) {
+      firstChild[parent] = node;
+    } else {
+      nextSibling[lastChild[parent]] = node;
+    }
+    lastChild[parent] = node;
+    return node;
+  }
+
+  private void clear() {
+    Arrays.fill(keys, null);
+    Arrays.fill(firstChild, 0);
+    Arrays.fill(lastChild, 0);
+    Arrays.fill(nextSibling, 0);
+    Arrays.fill(tickNanos, 0L);
+    Arrays.fill(windowNanos, 0L);
+    Arrays.fill(totalNanos, 0L);
+    Arrays.fill(maxTickNanos, 0L);
+    Arrays.fill(calls, 0L);
+    for (long[] slot : window) {
+      Arrays.fill(slot, 0L);
+    }
+    Arrays.fill(serverTickWindow, 0L);
+    sectionCount = 1;
+    droppedSections = 0;
+    depth = 0;
+    overflowDepth = 0;
+    serverTickWindowNanos = 0;
+    serverTickTotalNanos = 0;
+    serverTickMaxNanos = 0;
+    tickStartNanos = 0;
+    ticks = 0;
+  }
+}
@@ -4,17 +4,22 @@ import dk.mosberg.entomology.EntomologyMod;
 import dk.mosberg.entomology.api.core.IDataProvider;
 import dk.mosberg.entomology.api.core.ILifecycleAware;
 import dk.mosberg.entomology.api.mechanics.IAdvancedMechanic;
+import dk.mosberg.entomology.api.mechanics.IAdvancedMechanic.MechanicCategory;
+import dk.mosberg.entomology.api.mechanics.IMechanicContext.ContextType;
 import net.minecraft.util.Identifier;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -31,6 +36,10 @@ public class ComponentRegistry {
   private final Map<Identifier, Set<Identifier>> dependencies = new ConcurrentHashMap<>();
   private final Set<Identifier> initializedComponents = ConcurrentHashMap.newKeySet();
 
+  // Bumped after every registration change; snapshots older than it are rebuilt
+  private volatile long mechanicsVersion;
+  private volatile MechanicSnapshot mechanicSnapshot;
+
   private ComponentRegistry() {
   }
 
@@ -54,10 +63,13 @@ public class ComponentRegistry {
         deps.length > 0 ? Set.of(deps) : Collections.emptySet());
     components.put(id, entry);
 
-    typeIndex.computeIfAbsent(type, k -> new ArrayList<>()).add(id);
+    typeIndex.computeIfAbsent(type, k -> new CopyOnWriteArrayList<>()).add(id);
     if (deps.length > 0) {
       dependencies.put(id, Set.of(deps));
     }
+    if (type == IAdvancedMechanic.class) {
+      invalidateMechanics();
+    }
 
     EntomologyMod.LOGGER.debug("Registered component: {} ({})", id, type.getSimpleName());
   }
@@ -102,11 +114,63 @@ public class ComponentRegistry {
 
   /**
    * Gets all mechanics, sorted by priority.
+   *
+   * @return immutable list, shared until the registrations change
    */
   public List<IAdvancedMechanic> getAllMechanics() {
-    return getAll(IAdvancedMechanic.class).stream()
-        .sorted(Comparator.comparingInt(IAdvancedMechanic::getPriority).reversed())
-        .collect(Collectors.toList());
+    return mechanics().all;
+  }
+
+  /**
+   * Gets the mechanics of a category, sorted by priority.
+   *
+   * @return immutable list, shared until the registrations change
+   */
+  public List<IAdvancedMechanic> getMechanics(MechanicCategory category) {
+    return mechanics().byCategory.get(category);
+  }
+
+  /**
+   * Gets the mechanics that can apply to a context type, sorted by priority.
+   *
+   * @return immutable list, shared until the registrations change
+   * @see IAdvancedMechanic#getContextTypes()
+   */
+  public List<IAdvancedMechanic> getMechanics(ContextType type) {
+    return mechanics().byContextType.get(type);
+  }
+
+  /**
+   * Gets a counter that changes whenever mechanics are registered or
+   * cleared; lists derived from the mechanic getters stay valid while it
+   * is unchanged.
+   */
+  public long getMechanicsVersion() {
+    return mechanicsVersion;
+  }
+
+  private void invalidateMechanics() {
+    synchronized (typeIndex) {
+      mechanicsVersion++;
+    }
+  }
+
+  private MechanicSnapshot mechanics() {
+    MechanicSnapshot snapshot = mechanicSnapshot;
+    if (snapshot != null && snapshot.version == mechanicsVersion) {
+      return snapshot;
+    }
+    synchronized (typeIndex) {
+      snapshot = mechanicSnapshot;
+      long version = mechanicsVersion;
+      if (snapshot == null || snapshot.version != version) {
+        // Read after the version: a concurrent registration bumps it and
+        // the next call rebuilds
+        snapshot = MechanicSnapshot.build(version, getAll(IAdvancedMechanic.class));
+        mechanicSnapshot = snapshot;
+      }
+      return snapshot;
+    }
   }
 
   /**
@@ -192,6 +256,7 @@ public class ComponentRegistry {
     typeIndex.clear();
     dependencies.clear();
     initializedComponents.clear();
+    invalidateMechanics();
   }
 
   /**
@@ -300,6 +365,49 @@ public class ComponentRegistry {
     }
   }
 
+  /**
+   * Mechanics sorted by descending priority, built once per registration
+   * change.
+   */
+  private static final class MechanicSnapshot {
+    final long version;
+    final List<IAdvancedMechanic> all;
+    final Map<MechanicCategory, List<IAdvancedMechanic>> byCategory = new EnumMap<>(MechanicCategory.class);
+    final Map<ContextType, List<IAdvancedMechanic>> byContextType = new EnumMap<>(ContextType.class);
+
+    private MechanicSnapshot(long version, List<IAdvancedMechanic> all) {
+      this.version = version;
+      this.all = all;
+    }
+
+    static MechanicSnapshot build(long version, List<IAdvancedMechanic> mechanics) {
+      IAdvancedMechanic[] sorted = mechanics.toArray(new IAdvancedMechanic[0]);
+      // Stable, so equal priorities keep registration order
+      Arrays.sort(sorted, Comparator.comparingInt(IAdvancedMechanic::getPriority).reversed());
+      MechanicSnapshot snapshot = new MechanicSnapshot(version, List.of(sorted));
+
+      for (MechanicCategory category : MechanicCategory.values()) {
+        List<IAdvancedMechanic> matching = new ArrayList<>();
+        for (IAdvancedMechanic mechanic : sorted) {
+          if (mechanic.getCategory() == category) {
+            matching.add(mechanic);
+          }
+        }
+        snapshot.byCategory.put(category, List.copyOf(matching));
+      }
+      for (ContextType type : ContextType.values()) {
+        List<IAdvancedMechanic> matching = new ArrayList<>();
+        for (IAdvancedMechanic mechanic : sorted) {
+          if (mechanic.getContextTypes().contains(type)) {
+            matching.add(mechanic);
+          }
+        }
+        snapshot.byContextType.put(type, List.copyOf(matching));
+      }
+      return snapshot;
+    }
+  }
+
   /**
    * Clears the registry (for testing).
    */
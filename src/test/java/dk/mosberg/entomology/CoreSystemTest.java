@@ -1,5 +1,6 @@
 package dk.mosberg.entomology;
 
+import dk.mosberg.entomology.config.ConfigKey;
 import dk.mosberg.entomology.config.ConfigManager;
 import dk.mosberg.entomology.registry.ModRegistry;
 import org.junit.jupiter.api.BeforeAll;
@@ -7,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -32,6 +34,22 @@ public class CoreSystemTest {
     assertTrue(enabled, "Default breeding should be enabled");
   }
 
+  @Test
+  @DisplayName("Config keys should see values written after they were read")
+  void testConfigKeyRefresh() {
+    ConfigManager config = ConfigManager.getInstance();
+    ConfigKey<Integer> key = ConfigKey.ofInt("test_keys", "values.count", 0);
+
+    config.set("test_keys", "values.count", 5);
+    assertEquals(5, key.get());
+    long version = config.getVersion();
+
+    config.set("test_keys", "values.count", 7);
+    assertTrue(config.getVersion() > version, "Writes should publish a new snapshot");
+    assertEquals(7, key.get());
+    assertEquals(7, config.get("test_keys", "values.count", 0));
+  }
+
   @Test
   @DisplayName("Registry should initialize without errors")
   void testRegistryInitialization() {
@@ -3,13 +3,26 @@ package dk.mosberg.entomology.test;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import dk.mosberg.entomology.EntomologyMod;
+import dk.mosberg.entomology.api.mechanics.IMechanicContext;
+import dk.mosberg.entomology.api.mechanics.IMechanicResult;
+import dk.mosberg.entomology.mechanics.MechanicContext;
+import dk.mosberg.entomology.mechanics.PooledMechanicContext;
 import dk.mosberg.entomology.mechanics.impl.AdvancedBreedingMechanic;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 /**
  * Unit tests for AdvancedBreedingMechanic.
@@ -96,4 +109,114 @@ class AdvancedBreedingMechanicTest {
     assertTrue(params.containsKey("breedingPairs"));
     assertTrue(params.containsKey("globalMutationRate"));
   }
+
+  @Test
+  void testBreedingPairLookupIsSymmetric() {
+    mechanic.configure(pairConfig("bee", "firefly"));
+
+    IMechanicResult forward = mechanic.execute(breedingContext("bee", "firefly"));
+    IMechanicResult reverse = mechanic.execute(breedingContext("firefly", "bee"));
+
+    assertTrue(forward.isSuccess());
+    assertTrue(reverse.isSuccess());
+    assertEquals("bee", forward.getData("offspring").orElse(null));
+  }
+
+  @Test
+  void testUnknownBreedingPairFails() {
+    mechanic.configure(pairConfig("bee", "firefly"));
+
+    assertFalse(mechanic.execute(breedingContext("bee", "bee")).isSuccess());
+    assertFalse(mechanic.execute(breedingContext("bee", "mosquito")).isSuccess());
+  }
+
+  @Test
+  void testDeterministicRandomReplays() {
+    JsonObject config = pairConfig("bee", "firefly");
+    config.addProperty("deterministicRandom", true);
+    mechanic.configure(config);
+
+    IMechanicResult first = mechanic.execute(breedingContext("bee", "firefly"));
+    IMechanicResult second = mechanic.execute(breedingContext("firefly", "bee"));
+
+    assertTrue(first.getData("randomSeed").isPresent());
+    assertEquals(first.getData("randomSeed"), second.getData("randomSeed"));
+    assertEquals(first.getData("offspring"), second.getData("offspring"));
+  }
+
+  @Test
+  void testExecuteBatch() {
+    mechanic.configure(pairConfig("bee", "firefly"));
+
+    IMechanicResult[] results = new IMechanicResult[3];
+    mechanic.executeBatch(List.of(
+        breedingContext("bee", "firefly"),
+        breedingContext("bee", "mosquito"),
+        breedingContext("firefly", "bee")), results);
+
+    assertTrue(results[0].isSuccess());
+    assertFalse(results[1].isSuccess());
+    assertTrue(results[2].isSuccess());
+    assertEquals(3, mechanic.getPerformanceMetrics().getTotalExecutions());
+  }
+
+  @Test
+  void testPooledContext() {
+    mechanic.configure(pairConfig("bee", "firefly"));
+    World world = mock(World.class);
+    when(world.getTime()).thenReturn(1000L);
+
+    PooledMechanicContext first;
+    try (PooledMechanicContext context = PooledMechanicContext.acquire(world,
+        IMechanicContext.ContextType.BREEDING)) {
+      context.set(PooledMechanicContext.Slot.PARENT1, "firefly")
+          .set("parent2", "bee")
+          .setLong(PooledMechanicContext.Slot.LAST_BREEDING_TIME, 500L);
+
+      assertEquals(500L, context.getLong("lastBreedingTime", 0L));
+      assertEquals(500L, context.getDataOrNull("lastBreedingTime"));
+      assertTrue(mechanic.execute(context).isSuccess());
+      first = context;
+    }
+
+    try (PooledMechanicContext reused = PooledMechanicContext.acquire(world,
+        IMechanicContext.ContextType.BREEDING)) {
+      assertSame(first, reused);
+      assertNull(reused.getDataOrNull("parent1"));
+      assertEquals(-1L, reused.getLong("lastBreedingTime", -1L));
+    }
+  }
+
+  private static JsonObject pairConfig(String parent1, String parent2) {
+    JsonObject pair = new JsonObject();
+    pair.addProperty("parent1", parent1);
+    pair.addProperty("parent2", parent2);
+    pair.addProperty("successChance", 1.0);
+    pair.addProperty("mutationChance", 0.0);
+    JsonArray offspring = new JsonArray();
+    offspring.add(parent1);
+    pair.add("offspring", offspring);
+
+    JsonArray pairs = new JsonArray();
+    pairs.add(pair);
+
+    JsonObject config = new JsonObject();
+    config.addProperty("enabled", true);
+    config.addProperty("breedingCooldown", 0);
+    config.add("breedingPairs", pairs);
+    return config;
+  }
+
+  private static IMechanicContext breedingContext(String parent1, String parent2) {
+    World world = mock(World.class);
+    when(world.getTime()).thenReturn(1000L);
+
+    return MechanicContext.builder()
+        .world(world)
+        .position(BlockPos.ORIGIN)
+        .type(IMechanicContext.ContextType.BREEDING)
+        .data("parent1", parent1)
+        .data("parent2", parent2)
+        .build();
+  }
 }
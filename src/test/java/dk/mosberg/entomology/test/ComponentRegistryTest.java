@@ -1,15 +1,25 @@
 package dk.mosberg.entomology.test;
 
 import dk.mosberg.entomology.EntomologyMod;
+import dk.mosberg.entomology.api.mechanics.IAdvancedMechanic;
+import dk.mosberg.entomology.api.mechanics.IAdvancedMechanic.MechanicCategory;
+import dk.mosberg.entomology.api.mechanics.IMechanicContext.ContextType;
 import dk.mosberg.entomology.registry.advanced.ComponentRegistry;
 import net.minecraft.util.Identifier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 
+import java.util.EnumSet;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 /**
  * Unit tests for ComponentRegistry.
@@ -98,4 +108,38 @@ class ComponentRegistryTest {
 
     assertEquals(0, registry.getAll(String.class).size());
   }
+
+  @Test
+  void testMechanicSnapshots() {
+    IAdvancedMechanic low = mechanic("low", 100, MechanicCategory.BREEDING, ContextType.BREEDING);
+    IAdvancedMechanic high = mechanic("high", 900, MechanicCategory.ENVIRONMENTAL,
+        ContextType.ENVIRONMENTAL, ContextType.BREEDING);
+    registry.register(EntomologyMod.id("low"), IAdvancedMechanic.class, () -> low);
+
+    long version = registry.getMechanicsVersion();
+    List<IAdvancedMechanic> first = registry.getAllMechanics();
+    assertSame(first, registry.getAllMechanics(), "unchanged registrations reuse the snapshot");
+
+    registry.register(EntomologyMod.id("high"), IAdvancedMechanic.class, () -> high);
+    assertNotEquals(version, registry.getMechanicsVersion());
+    assertEquals(List.of(high, low), registry.getAllMechanics());
+    assertEquals(List.of(low), registry.getMechanics(MechanicCategory.BREEDING));
+    assertEquals(List.of(high, low), registry.getMechanics(ContextType.BREEDING));
+    assertEquals(List.of(high), registry.getMechanics(ContextType.ENVIRONMENTAL));
+    assertTrue(registry.getMechanics(ContextType.RESEARCH).isEmpty());
+    assertThrows(UnsupportedOperationException.class, () -> registry.getAllMechanics().clear());
+
+    registry.clear();
+    assertTrue(registry.getAllMechanics().isEmpty());
+  }
+
+  private static IAdvancedMechanic mechanic(String name, int priority, MechanicCategory category,
+      ContextType first, ContextType... rest) {
+    IAdvancedMechanic mechanic = mock(IAdvancedMechanic.class);
+    when(mechanic.getId()).thenReturn(EntomologyMod.id(name));
+    when(mechanic.getPriority()).thenReturn(priority);
+    when(mechanic.getCategory()).thenReturn(category);
+    when(mechanic.getContextTypes()).thenReturn(EnumSet.of(first, rest));
+    return mechanic;
+  }
 }
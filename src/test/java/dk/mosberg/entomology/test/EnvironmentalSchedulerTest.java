@@ -0,0 +1,76 @@
+package dk.mosberg.entomology.test;
+
+import dk.mosberg.entomology.mechanics.environment.EnvironmentalScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the EnvironmentalScheduler budget and deferral.
+ */
+class EnvironmentalSchedulerTest {
+  private EnvironmentalScheduler scheduler;
+
+  @BeforeEach
+  void setUp() {
+    scheduler = EnvironmentalScheduler.getInstance();
+    scheduler.clear();
+    scheduler.setInterval(1);
+    scheduler.setMaxPerTick(3);
+  }
+
+  @AfterEach
+  void tearDown() {
+    scheduler.clear();
+  }
+
+  @Test
+  void testDeferredQueueStaysBounded() {
+    int[] runs = new int[10];
+    for (int i = 0; i < runs.length; i++) {
+      int subject = i;
+      scheduler.register("subject" + i, i, () -> {
+        runs[subject]++;
+        return true;
+      });
+    }
+
+    for (int tick = 0; tick < 100; tick++) {
+      scheduler.tick();
+      assertEquals(3, scheduler.getLastEvaluated());
+      assertTrue(scheduler.getLastDeferred() <= runs.length,
+          "Deferred " + scheduler.getLastDeferred() + " exceeds the subject count");
+    }
+
+    // Every subject still gets its share of the budget
+    for (int count : runs) {
+      assertTrue(count >= 20, "Subject ran only " + count + " times");
+    }
+  }
+
+  @Test
+  void testUnregisterDropsDeferredEntry() {
+    int[] runs = new int[1];
+    for (int i = 0; i < 3; i++) {
+      scheduler.register("subject" + i, i, () -> true);
+    }
+    scheduler.register("late", 99, () -> {
+      runs[0]++;
+      return true;
+    });
+
+    scheduler.tick();
+    assertEquals(1, scheduler.getLastDeferred());
+
+    scheduler.unregister("late");
+    for (int tick = 0; tick < 5; tick++) {
+      scheduler.tick();
+      assertEquals(0, scheduler.getLastDeferred());
+    }
+    assertEquals(0, runs[0]);
+    assertEquals(3, scheduler.size());
+  }
+}
@@ -0,0 +1,72 @@
+package dk.mosberg.entomology.test;
+
+import dk.mosberg.entomology.api.mechanics.IAdvancedMechanic.ILatencySnapshot;
+import dk.mosberg.entomology.mechanics.base.LatencyHistogram;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for LatencyHistogram.
+ */
+class LatencyHistogramTest {
+  private LatencyHistogram histogram;
+
+  @BeforeEach
+  void setUp() {
+    histogram = new LatencyHistogram(12, 5);
+  }
+
+  @Test
+  void testSubMillisecondValuesAreKept() {
+    histogram.record(250);
+    histogram.record(750);
+
+    ILatencySnapshot snapshot = histogram.lifetimeSnapshot();
+    assertEquals(2, snapshot.getCount());
+    assertEquals(250, snapshot.getMinNanos());
+    assertEquals(750, snapshot.getMaxNanos());
+    assertEquals(500.0, snapshot.getMeanNanos(), 0.001);
+  }
+
+  @Test
+  void testPercentilesWithinPrecision() {
+    for (int i = 1; i <= 10_000; i++) {
+      histogram.record(i * 1_000L);
+    }
+
+    ILatencySnapshot snapshot = histogram.lifetimeSnapshot();
+    assertWithinBound(5_000_000, snapshot.getP50Nanos());
+    assertWithinBound(9_000_000, snapshot.getP90Nanos());
+    assertWithinBound(9_900_000, snapshot.getP99Nanos());
+    assertWithinBound(9_990_000, snapshot.getP999Nanos());
+  }
+
+  @Test
+  void testWindowSeesRecentValues() {
+    histogram.recordWithCount(1_000, 5);
+
+    assertEquals(60, histogram.getWindowSeconds());
+    assertEquals(5, histogram.windowSnapshot().getCount());
+    assertEquals(5, histogram.getTotalCount());
+  }
+
+  @Test
+  void testReset() {
+    histogram.record(42);
+    histogram.reset();
+
+    assertEquals(0, histogram.getTotalCount());
+    assertEquals(0, histogram.lifetimeSnapshot().getValueAtPercentile(99.0));
+    assertEquals(0, histogram.windowSnapshot().getCount());
+  }
+
+  // Percentiles report the top of their bucket, so they never undershoot
+  private static void assertWithinBound(long expected, long actual) {
+    double error = (double) (actual - expected) / expected;
+    assertTrue(error >= 0 && error <= LatencyHistogram.MAX_RELATIVE_ERROR,
+        "Expected ~" + expected + " but was " + actual);
+  }
+}
@@ -1,6 +1,8 @@
 package dk.mosberg.entomology.test;
 
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import dk.mosberg.entomology.config.advanced.ConfigFileWatcher;
 import dk.mosberg.entomology.config.advanced.SchemaConfigManager;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -9,9 +11,16 @@ import org.junit.jupiter.api.TestInstance;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -111,4 +120,88 @@ class SchemaConfigManagerTest {
 
     assertTrue(listenerCalled[0], "Listener should be called");
   }
+
+  @Test
+  void testSchemaCompiledOncePerVersion() throws Exception {
+    Path schemaFile = schemaDir.resolve("cached-schema.json");
+    Files.writeString(schemaFile,
+        "{\"type\": \"object\", \"properties\": {\"count\": {\"type\": \"integer\"}}}");
+
+    JsonObject config = new JsonObject();
+    config.addProperty("version", "1.0.0");
+    config.addProperty("count", 3);
+    configManager.saveConfig("cached", config);
+
+    int before = configManager.getSchemaCache().getCompileCount();
+    JsonObject loaded = configManager.loadConfig("cached", "cached-schema.json");
+    configManager.loadConfig("cached", "cached-schema.json");
+    assertEquals(3, loaded.get("count").getAsInt());
+    assertEquals(before + 1, configManager.getSchemaCache().getCompileCount());
+
+    // Edited schema is recompiled and applied
+    Files.writeString(schemaFile,
+        "{\"type\": \"object\", \"properties\": {\"count\": {\"type\": \"string\"}}}");
+    Files.setLastModifiedTime(schemaFile, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+    JsonObject rejected = configManager.loadConfig("cached", "cached-schema.json");
+    assertEquals(before + 2, configManager.getSchemaCache().getCompileCount());
+    assertFalse(rejected.has("count"), "Config violating the edited schema should fall back to defaults");
+  }
+
+  @Test
+  void testSavesAreWrittenBehind() throws Exception {
+    JsonObject config = new JsonObject();
+    config.addProperty("version", "1.0.0");
+    config.addProperty("count", 0);
+    configManager.saveConfig("behind", config);
+
+    for (int count = 1; count <= 50; count++) {
+      configManager.set("behind", "count", count);
+    }
+    assertEquals(50, configManager.get("behind", "count", Integer.class, 0));
+
+    configManager.flush();
+    Path configFile = configDir.resolve("behind.json");
+    JsonObject onDisk = JsonParser.parseString(Files.readString(configFile)).getAsJsonObject();
+    assertEquals(50, onDisk.get("count").getAsInt());
+    assertFalse(Files.exists(configDir.resolve("behind.json.tmp")));
+  }
+
+  @Test
+  void testWatcherPublishesOnlyValidatedChanges() throws Exception {
+    Path watchedConfig = tempDir.resolve("watched");
+    Path watchedSchema = watchedConfig.resolve("schema");
+    Files.createDirectories(watchedSchema);
+    Files.writeString(watchedSchema.resolve("rate.schema.json"),
+        "{\"type\": \"object\", \"properties\": {\"rate\": {\"type\": \"integer\", \"maximum\": 10}}}");
+
+    SchemaConfigManager manager = new SchemaConfigManager(watchedConfig, watchedSchema);
+    manager.loadConfig("rates", "rate.schema.json");
+    manager.flush();
+
+    List<Integer> published = new CopyOnWriteArrayList<>();
+    manager.addListener("rates", config -> published.add(config.get("rate").getAsInt()));
+
+    // Stands in for the server thread: publishing only happens when drained
+    LinkedBlockingQueue<Runnable> serverTasks = new LinkedBlockingQueue<>();
+    try (ConfigFileWatcher watcher = new ConfigFileWatcher(manager, serverTasks::add)) {
+      watcher.start();
+      Path configFile = watchedConfig.resolve("rates.json");
+
+      // A burst of writes is debounced into one validated reload
+      for (int rate = 1; rate <= 3; rate++) {
+        Files.writeString(configFile, "{\"version\": \"1.0.0\", \"rate\": " + rate + "}");
+      }
+      Runnable task = serverTasks.poll(10, TimeUnit.SECONDS);
+      assertNotNull(task, "Valid change should be queued for the server thread");
+      assertTrue(published.isEmpty(), "Listeners must not run on the watcher thread");
+      task.run();
+      assertEquals(List.of(3), published);
+      assertEquals(3, manager.get("rates", "rate", Integer.class, 0));
+
+      // Invalid content is never published
+      Files.writeString(configFile, "{\"version\": \"1.0.0\", \"rate\": 99}");
+      assertNull(serverTasks.poll(ConfigFileWatcher.DEBOUNCE_MILLIS * 4, TimeUnit.MILLISECONDS));
+      assertEquals(3, manager.get("rates", "rate", Integer.class, 0));
+    }
+  }
 }
@@ -0,0 +1,97 @@
+package dk.mosberg.entomology.test;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import dk.mosberg.entomology.balance.TelemetrySystem;
+import dk.mosberg.entomology.balance.export.JsonLinesExporter;
+import dk.mosberg.entomology.balance.export.PrometheusExporter;
+import dk.mosberg.entomology.balance.export.TelemetrySnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the telemetry exporters.
+ */
+class TelemetryExportTest {
+  private TelemetrySystem telemetry;
+
+  @TempDir
+  Path tempDir;
+
+  @BeforeEach
+  void setUp() {
+    telemetry = TelemetrySystem.getInstance();
+    telemetry.setEnabled(true);
+    telemetry.reset();
+  }
+
+  @Test
+  void testPrometheusFormat() {
+    for (int i = 0; i < 10; i++) {
+      telemetry.recordMetric("test.export", 2.0);
+    }
+    telemetry.recordMetric("test.\"quoted\"", 1.0);
+
+    String text = PrometheusExporter.format(TelemetrySnapshot.capture(telemetry, List.of()));
+
+    assertTrue(text.contains("# TYPE entomology_metric_samples_total counter\n"));
+    assertTrue(text.contains("entomology_metric_samples_total{metric=\"test.export\"} 10\n"));
+    assertTrue(text.contains("# TYPE entomology_metric_sum gauge\n"));
+    assertTrue(text.contains("entomology_metric_sum{metric=\"test.export\"} 20\n"));
+    assertTrue(text.contains("entomology_metric_window{metric=\"test.export\",quantile=\"0.9\"} 2\n"));
+    assertTrue(text.contains("{metric=\"test.\\\"quoted\\\"\"}"), "label values must be escaped");
+  }
+
+  @Test
+  void testJsonLinesRotation() throws Exception {
+    telemetry.recordMetric("test.export", 1.0);
+    TelemetrySnapshot snapshot = TelemetrySnapshot.capture(telemetry, List.of());
+    int lineBytes = JsonLinesExporter.toJson(snapshot).toString().length() + 1;
+
+    // Two lines per file, three files kept
+    JsonLinesExporter exporter = new JsonLinesExporter(tempDir, "telemetry", 2L * lineBytes, 3,
+        () -> snapshot);
+    exporter.start();
+    for (int i = 0; i < 10; i++) {
+      assertTrue(exporter.offer(snapshot));
+    }
+    exporter.close();
+
+    assertEquals(2, Files.readAllLines(tempDir.resolve("telemetry.jsonl")).size());
+    assertTrue(Files.exists(tempDir.resolve("telemetry.2.jsonl")));
+    assertFalse(Files.exists(tempDir.resolve("telemetry.3.jsonl")));
+
+    JsonObject line = JsonParser.parseString(Files.readAllLines(exporter.getFile()).get(0)).getAsJsonObject();
+    JsonObject metric = line.getAsJsonObject("metrics").getAsJsonObject("test.export");
+    assertEquals(1, metric.get("count").getAsLong());
+    assertEquals(1.0, metric.getAsJsonObject("window").get("p50").getAsDouble(), 0.0);
+    assertFalse(exporter.offer(snapshot), "closed exporters drop snapshots");
+  }
+
+  @Test
+  void testCaptureOnWriterThread() throws Exception {
+    telemetry.recordMetric("test.export", 1.0);
+    Thread caller = Thread.currentThread();
+    Thread[] capturedOn = new Thread[1];
+    JsonLinesExporter exporter = new JsonLinesExporter(tempDir, "capture", 1L << 20, 1, () -> {
+      capturedOn[0] = Thread.currentThread();
+      return TelemetrySnapshot.capture(telemetry, List.of());
+    });
+    exporter.start();
+    assertTrue(exporter.requestCapture());
+    exporter.close();
+
+    assertEquals(1, Files.readAllLines(exporter.getFile()).size());
+    assertNotSame(caller, capturedOn[0], "snapshots are captured off the caller's thread");
+  }
+}
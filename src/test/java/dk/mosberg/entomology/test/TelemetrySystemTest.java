@@ -0,0 +1,161 @@
+package dk.mosberg.entomology.test;
+
+import dk.mosberg.entomology.EntomologyMod;
+import dk.mosberg.entomology.api.balance.IBalanceTuner;
+import dk.mosberg.entomology.balance.MetricHandle;
+import dk.mosberg.entomology.balance.MetricWindow;
+import dk.mosberg.entomology.balance.TelemetrySystem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import net.minecraft.util.Identifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for TelemetrySystem metric collection.
+ */
+class TelemetrySystemTest {
+  private TelemetrySystem telemetry;
+
+  @BeforeEach
+  void setUp() {
+    telemetry = TelemetrySystem.getInstance();
+    telemetry.setEnabled(true);
+    telemetry.reset();
+  }
+
+  @Test
+  void testConcurrentRecordingLosesNoUpdates() throws Exception {
+    int threads = 8;
+    int perThread = 50_000;
+    MetricHandle handle = telemetry.metric("test.concurrent");
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < perThread; i++) {
+            handle.increment();
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    assertEquals((long) threads * perThread, handle.getCount());
+    assertEquals((double) threads * perThread, handle.getSum(), 0.0);
+    assertEquals(1.0, telemetry.getMetrics().get("test.concurrent"), 0.0);
+  }
+
+  @Test
+  void testMinAndMaxOfNegativeValues() {
+    telemetry.recordMetric("test.negative", -5.0);
+    telemetry.recordMetric("test.negative", -2.0);
+
+    MetricHandle handle = telemetry.metric("test.negative");
+    assertEquals(-5.0, handle.getMin(), 0.0);
+    assertEquals(-2.0, handle.getMax(), 0.0);
+    assertEquals(-3.5, handle.getAverage(), 0.0);
+  }
+
+  @Test
+  void testHandlesSurviveReset() {
+    MetricHandle handle = telemetry.metric("test.reset");
+    handle.record(10.0);
+
+    telemetry.reset();
+    assertEquals(0, handle.getCount());
+    assertFalse(telemetry.getMetrics().containsKey("test.reset"));
+
+    handle.record(4.0);
+    assertSame(handle, telemetry.metric("test.reset"));
+    assertEquals(4.0, telemetry.getMetrics().get("test.reset"), 0.0);
+  }
+
+  @Test
+  void testDisabledTelemetryRecordsNothing() {
+    MetricHandle handle = telemetry.metric("test.disabled");
+    telemetry.setEnabled(false);
+    handle.record(1.0);
+    telemetry.setEnabled(true);
+
+    assertEquals(0, handle.getCount());
+  }
+
+  @Test
+  void testWindowForgetsOldSlots() {
+    long second = 1_000_000_000L;
+    long start = 1_000 * second;
+    MetricWindow window = new MetricWindow(10, 1);
+
+    // Five quiet seconds, then five busy ones
+    for (int s = 0; s < 10; s++) {
+      for (int i = 0; i < 1000; i++) {
+        window.record(s < 5 ? 1.0 : i, start + s * second);
+      }
+    }
+
+    MetricWindow.Stats full = window.snapshot(start + 9 * second);
+    assertEquals(10_000, full.getCount());
+    assertEquals(0.0, full.getMin(), 0.0);
+    assertEquals(999.0, full.getMax(), 0.0);
+    assertEquals(1.0, full.getP50(), 0.0);
+    assertTrue(full.getP90() > 650 && full.getP90() < 950, "p90 was " + full.getP90());
+    assertTrue(full.getEwma() > full.getMean(), "EWMA should favour the busy recent slots");
+
+    // The quiet seconds have left the window
+    MetricWindow.Stats recent = window.snapshot(start + 14 * second);
+    assertEquals(5_000, recent.getCount());
+    assertEquals(499.5, recent.getMean(), 0.001);
+
+    assertEquals(0, window.snapshot(start + 30 * second).getCount());
+  }
+
+  @Test
+  void testAdjustedValuesCachedPerBaseValueAndEpoch() {
+    Identifier parameter = EntomologyMod.id("test_parameter");
+    AtomicInteger computations = new AtomicInteger();
+    IBalanceTuner tuner = mock(IBalanceTuner.class);
+    when(tuner.getId()).thenReturn(EntomologyMod.id("test_tuner"));
+    when(tuner.getTargetParameter()).thenReturn(parameter);
+    when(tuner.computeAdjustedValue(anyDouble(), any())).thenAnswer(invocation -> {
+      computations.incrementAndGet();
+      IBalanceTuner.ITelemetryData data = invocation.getArgument(1);
+      return invocation.<Double>getArgument(0) * (1.0 + data.getMetric("test.balance"));
+    });
+    telemetry.registerTuner(tuner);
+
+    assertEquals(2.0, telemetry.getAdjustedValue(parameter, 2.0), 0.0);
+    assertEquals(3.0, telemetry.getAdjustedValue(parameter, 3.0), 0.0);
+    assertEquals(2.0, telemetry.getAdjustedValue(parameter, 2.0), 0.0);
+    assertEquals(2, computations.get());
+
+    // New telemetry is only seen after the next balance cycle
+    telemetry.recordMetric("test.balance", 1.0);
+    assertEquals(2.0, telemetry.getAdjustedValue(parameter, 2.0), 0.0);
+
+    long epoch = telemetry.getBalanceEpoch();
+    telemetry.updateBalancing();
+    assertTrue(telemetry.getBalanceEpoch() > epoch);
+    assertEquals(4.0, telemetry.getAdjustedValue(parameter, 2.0), 0.0);
+  }
+}
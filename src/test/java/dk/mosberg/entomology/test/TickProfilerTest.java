@@ -0,0 +1,87 @@
+package dk.mosberg.entomology.test;
+
+import dk.mosberg.entomology.EntomologyMod;
+import dk.mosberg.entomology.profiler.ProfileReport;
+import dk.mosberg.entomology.profiler.TickProfiler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the TickProfiler call tree.
+ */
+class TickProfilerTest {
+  private TickProfiler profiler;
+
+  @BeforeEach
+  void setUp() {
+    profiler = TickProfiler.getInstance();
+    profiler.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    profiler.stop();
+  }
+
+  @Test
+  void testNestedSectionsFormCallTree() throws Exception {
+    for (int tick = 0; tick < 3; tick++) {
+      profiler.tickStart();
+      profiler.push("mechanics");
+      profiler.push(EntomologyMod.id("test_mechanic"));
+      profiler.pop();
+      profiler.push(EntomologyMod.id("test_mechanic"));
+      profiler.pop();
+      profiler.pop();
+
+      // Work on other threads is not part of the tick
+      Thread other = new Thread(() -> {
+        profiler.push("off_thread");
+        profiler.pop();
+      });
+      other.start();
+      other.join();
+      profiler.tickEnd();
+    }
+
+    ProfileReport report = profiler.stop();
+    assertEquals(3, report.ticks());
+    List<ProfileReport.Section> sections = report.sections();
+    assertEquals(2, sections.size());
+    assertEquals("mechanics", sections.get(0).path());
+    assertEquals(3, sections.get(0).calls());
+    assertEquals("mechanics;entomology:test_mechanic", sections.get(1).path());
+    assertEquals(1, sections.get(1).depth());
+    assertEquals(6, sections.get(1).calls());
+    assertTrue(sections.get(0).totalNanos() >= sections.get(1).totalNanos());
+    assertEquals(sections.get(0).totalNanos(), report.getTotalNanos());
+  }
+
+  @Test
+  void testDeepNestingStaysBounded() {
+    int pushes = TickProfiler.MAX_DEPTH + 8;
+    for (int i = 0; i < pushes; i++) {
+      profiler.push("level" + i);
+    }
+    for (int i = 0; i < pushes; i++) {
+      profiler.pop();
+    }
+    // Balanced again after the overflow
+    profiler.push("after");
+    profiler.pop();
+    profiler.tickEnd();
+
+    ProfileReport report = profiler.report();
+    assertEquals(TickProfiler.MAX_DEPTH + 1, report.sections().size());
+    assertEquals(0, report.sections().get(report.sections().size() - 1).depth());
+    assertFalse(report.sections().stream()
+        .anyMatch(section -> section.getName().equals("level" + TickProfiler.MAX_DEPTH)));
+  }
+}
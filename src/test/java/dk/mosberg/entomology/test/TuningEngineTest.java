@@ -0,0 +1,162 @@
+package dk.mosberg.entomology.test;
+
+import com.google.gson.JsonObject;
+import dk.mosberg.entomology.EntomologyMod;
+import dk.mosberg.entomology.api.balance.IBalanceTuner.IMetricWindow;
+import dk.mosberg.entomology.api.balance.IBalanceTuner.ITelemetryData;
+import dk.mosberg.entomology.api.balance.IBalanceTuner.TuningStrategy;
+import dk.mosberg.entomology.balance.TelemetrySystem;
+import dk.mosberg.entomology.balance.tuning.TunerSpec;
+import dk.mosberg.entomology.balance.tuning.TuningEngine;
+import dk.mosberg.entomology.config.advanced.SchemaConfigManager;
+import net.minecraft.util.Identifier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the balance TuningEngine strategies.
+ */
+class TuningEngineTest {
+  private static final String METRIC = "test.tuning";
+
+  private TelemetrySystem telemetry;
+  private TuningEngine engine;
+
+  @BeforeEach
+  void setUp() {
+    telemetry = TelemetrySystem.getInstance();
+    telemetry.setEnabled(true);
+    telemetry.reset();
+    engine = new TuningEngine(telemetry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    engine.configure(List.of());
+    engine.close();
+  }
+
+  @Test
+  void testPidSaturatesWithoutWindup() {
+    Identifier parameter = EntomologyMod.id("test_pid");
+    engine.configure(List.of(spec("pid", parameter, TuningStrategy.PID, 1.0, 1.0)));
+
+    // Far below target for a long time: output pinned at the upper bound
+    for (int i = 0; i < 50; i++) {
+      engine.update(observing(0.0), 1.0);
+    }
+    assertEquals(2.0, engine.getMultiplier(parameter), 0.0);
+    assertEquals(1.0, telemetry.getAdjustedValue(parameter, 0.5), 1e-9);
+
+    // Without windup the integral didn't grow, so overshoot is corrected at once
+    engine.update(observing(1.0), 1.0);
+    assertEquals(0.5, engine.getMultiplier(parameter), 0.0);
+  }
+
+  @Test
+  void testSteppedAndLinearStrategies() {
+    Identifier stepped = EntomologyMod.id("test_stepped");
+    Identifier linear = EntomologyMod.id("test_linear");
+    TunerSpec steps = new TunerSpec(EntomologyMod.id("stepped"), stepped, METRIC, 0.5,
+        TuningStrategy.STEPPED, false, 1.0, 1.0, 0.5, 2.0, 1.0, 0.0, 0.0,
+        new double[] { -0.5, 0.5 }, new double[] { 0.75, 1.5 }, null);
+    engine.configure(List.of(steps, spec("linear", linear, TuningStrategy.LINEAR, 0.5, 0.0)));
+
+    // Observed 0.25 against 0.5: relative error +0.5; linear moves halfway to 1.5
+    engine.update(observing(0.25), 1.0);
+    assertEquals(1.5, engine.getMultiplier(stepped), 0.0);
+    assertEquals(1.25, engine.getMultiplier(linear), 1e-9);
+
+    // Metrics without samples hold their multiplier
+    ITelemetryData quiet = mock(ITelemetryData.class);
+    when(quiet.getWindow(anyString())).thenReturn(IMetricWindow.EMPTY);
+    engine.update(quiet, 1.0);
+    assertEquals(1.25, engine.getMultiplier(linear), 1e-9);
+
+    // Reconfiguring a tuner keeps its state
+    engine.configure(spec("linear", linear, TuningStrategy.LINEAR, 0.5, 0.0));
+    assertEquals(1.25, engine.getMultiplier(linear), 1e-9);
+    assertEquals(1.5, engine.getMultiplier(stepped), 0.0);
+  }
+
+  @Test
+  void testSpecStepsAreValidatedAndCopied() {
+    double[] errors = { -0.5, 0.5 };
+    double[] multipliers = { 0.75, 1.5 };
+    TunerSpec steps = stepped(errors, multipliers);
+    errors[1] = 9.0;
+    assertEquals(0.5, steps.stepErrors()[1], 0.0);
+    steps.stepMultipliers()[0] = 9.0;
+    assertEquals(0.75, steps.stepMultipliers()[0], 0.0);
+    assertEquals(stepped(new double[] { -0.5, 0.5 }, new double[] { 0.75, 1.5 }), steps);
+
+    assertThrows(IllegalArgumentException.class,
+        () -> stepped(new double[] { -0.5, 0.5 }, new double[] { 0.75 }));
+    assertThrows(IllegalArgumentException.class,
+        () -> stepped(new double[] { 0.5, -0.5 }, new double[] { 0.75, 1.5 }));
+  }
+
+  @Test
+  void testTunersLoadFromMechanicsConfig(@TempDir Path dir) throws Exception {
+    // No schema in the config directory: the bundled one is used
+    Files.writeString(dir.resolve("mechanics.json"), """
+        {
+          "balance": {
+            "adaptiveDifficulty": true,
+            "tuners": [
+              {"id": "entomology:test_config", "parameter": "entomology:test_config",
+               "metric": "test.tuning", "target": 0.5, "rate": 0.5}
+            ]
+          }
+        }
+        """);
+    SchemaConfigManager configManager = new SchemaConfigManager(dir, dir.resolve("schema"));
+    JsonObject config = configManager.loadConfig("mechanics", "mechanics.schema.json");
+    assertEquals("1.0.0", config.get("version").getAsString());
+
+    JsonObject balance = configManager.get("mechanics", "balance", JsonObject.class, new JsonObject());
+    engine.configure(TunerSpec.fromBalanceConfig(balance));
+    engine.update(observing(0.25), 1.0);
+    assertEquals(1.25, engine.getMultiplier(EntomologyMod.id("test_config")), 1e-9);
+
+    // The stored config, version included, still validates on change
+    configManager.set("mechanics", "balance.tuningRate", 0.2);
+    assertEquals(0.2, configManager.get("mechanics", "balance.tuningRate", Double.class, 0.0), 0.0);
+    configManager.flush();
+  }
+
+  private static TunerSpec stepped(double[] errors, double[] multipliers) {
+    return new TunerSpec(EntomologyMod.id("stepped"), EntomologyMod.id("test_stepped"), METRIC, 0.5,
+        TuningStrategy.STEPPED, false, 1.0, 1.0, 0.5, 2.0, 1.0, 0.0, 0.0, errors, multipliers, null);
+  }
+
+  private static TunerSpec spec(String id, Identifier parameter, TuningStrategy strategy,
+      double rate, double ki) {
+    return new TunerSpec(EntomologyMod.id(id), parameter, METRIC, 0.5, strategy, false,
+        1.0, rate, 0.5, 2.0, 1.0, ki, 0.0, new double[0], new double[0], null);
+  }
+
+  private static ITelemetryData observing(double value) {
+    IMetricWindow window = mock(IMetricWindow.class);
+    when(window.getCount()).thenReturn(10L);
+    when(window.getMean()).thenReturn(value);
+
+    ITelemetryData data = mock(ITelemetryData.class);
+    when(data.getWindow(anyString())).thenReturn(IMetricWindow.EMPTY);
+    when(data.getWindow(METRIC)).thenReturn(window);
+    when(data.getMetric(METRIC)).thenReturn(value);
+    return data;
+  }
+}